@@ -2,11 +2,19 @@ package au.com.agic.apptesting;
 
 import au.com.agic.apptesting.constants.Constants;
 import au.com.agic.apptesting.utils.FeatureState;
+import au.com.agic.apptesting.utils.LocatorStrategyCache;
 import au.com.agic.apptesting.utils.SystemPropertyUtils;
 import au.com.agic.apptesting.utils.ThreadWebDriverMap;
 import au.com.agic.apptesting.utils.impl.LocalThreadWebDriverMapImpl;
+import au.com.agic.apptesting.utils.impl.LocatorStrategyCacheImpl;
 import au.com.agic.apptesting.utils.impl.RemoteThreadWebDriverMapImpl;
 import au.com.agic.apptesting.utils.impl.SystemPropertyUtilsImpl;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.util.Optional;
 
 /**
  * Maintains the state of the system. Threads will call into this state to get their connection
@@ -14,8 +22,22 @@ import au.com.agic.apptesting.utils.impl.SystemPropertyUtilsImpl;
  */
 public final class State {
 
-	private static ThreadWebDriverMap threadDesiredCapabilityMap;
+	private static volatile ThreadWebDriverMap threadDesiredCapabilityMap;
 	private static final SystemPropertyUtils SYSTEM_PROPERTY_UTILS = new SystemPropertyUtilsImpl();
+	/**
+	 * The feature state bound to a CucumberThread for the duration of its run. This saves looking
+	 * up the state by thread name, which is done many times for every step.
+	 */
+	private static final ThreadLocal<FeatureState> THREAD_FEATURE_STATE = new ThreadLocal<>();
+	/**
+	 * The locator strategy cache is shared by every CucumberThread, so what one thread learns
+	 * about a value is used by the others
+	 */
+	private static final Supplier<LocatorStrategyCache> LOCATOR_STRATEGY_CACHE = Suppliers.memoize(() ->
+		new LocatorStrategyCacheImpl(
+			Optional.ofNullable(SYSTEM_PROPERTY_UTILS.getProperty(Constants.LOCATOR_CACHE_FILE))
+				.filter(StringUtils::isNotBlank)
+				.map(File::new)));
 
 	public static void initialise() {
 		threadDesiredCapabilityMap = Constants.REMOTE_TESTS.equalsIgnoreCase(
@@ -27,7 +49,33 @@ public final class State {
 	private State() {
 	}
 
+	/**
+	 * Allocates the feature state for the current thread and binds it to the thread. This must be
+	 * called after the thread has been given its name, and matched with a call to unbindThread().
+	 *
+	 * @return The feature state for the current thread
+	 */
+	public static FeatureState bindThread() {
+		final FeatureState featureState = getThreadDesiredCapabilityMap().getDesiredCapabilitiesForThread(
+			Thread.currentThread().getName());
+		THREAD_FEATURE_STATE.set(featureState);
+		return featureState;
+	}
+
+	/**
+	 * Removes the feature state bound to the current thread. Threads are pooled, so the binding
+	 * must not survive into the next run.
+	 */
+	public static void unbindThread() {
+		THREAD_FEATURE_STATE.remove();
+	}
+
 	public static FeatureState getFeatureStateForThread() {
+		final FeatureState featureState = THREAD_FEATURE_STATE.get();
+		if (featureState != null) {
+			return featureState;
+		}
+
 		return getThreadDesiredCapabilityMap().getDesiredCapabilitiesForThread(
 			Thread.currentThread().getName());
 	}
@@ -35,4 +83,8 @@ public final class State {
 	public static ThreadWebDriverMap getThreadDesiredCapabilityMap() {
 		return threadDesiredCapabilityMap;
 	}
+
+	public static LocatorStrategyCache getLocatorStrategyCache() {
+		return LOCATOR_STRATEGY_CACHE.get();
+	}
 }
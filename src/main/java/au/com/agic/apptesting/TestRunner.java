@@ -11,7 +11,6 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
-import org.apache.commons.threadpool.DefaultThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static au.com.agic.apptesting.constants.Constants.OPEN_REPORT_FILE_SYSTEM_PROPERTY;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -57,17 +57,12 @@ public class TestRunner {
 	 * How long to offset the initial launch of the cucumber tests
 	 */
 	private static final long DELAY_CONCURRENT_START = 2000;
-	private static final long THREAD_COMPLETE_SLEEP = 1000;
-	private final DefaultThreadPool threadPool = new DefaultThreadPool(NumberUtils
-		.toInt(SYSTEM_PROPERTY_UTILS.getProperty(Constants.NUMBER_THREADS_SYSTEM_PROPERTY), 2));
 	/**
-	 * Used to count the number of scripts that have completed
+	 * Runs the cucumber scripts and counts the number that completed, and the number that failed
 	 */
-	private int completed = 0;
-	/**
-	 * Used to count the number of scripts that completed with errors
-	 */
-	private int failure = 0;
+	private final RunScheduler runScheduler = new RunSchedulerImpl(
+		Math.max(NumberUtils.toInt(SYSTEM_PROPERTY_UTILS.getProperty(Constants.NUMBER_THREADS_SYSTEM_PROPERTY), 2), 1),
+		DELAY_CONCURRENT_START);
 
 	public int run(@NotNull final List<File> globalTempFiles) {
 		checkNotNull(globalTempFiles);
@@ -138,7 +133,7 @@ public class TestRunner {
 			EXCEPTION_WRITER.saveException(reportOutput, ex);
 			throw ex;
 		} finally {
-			threadPool.stop();
+			runScheduler.shutdown();
 
 			/*
 				Clean up temp files
@@ -153,7 +148,7 @@ public class TestRunner {
 			}
 		}
 
-		return failure;
+		return runScheduler.getFailureCount();
 	}
 
 	/**
@@ -180,7 +175,6 @@ public class TestRunner {
 	/**
 	 * Spawn threads to run Cucumber scripts, and wait until they are all finished
 	 */
-	@SuppressWarnings("BusyWait")
 	private void runScripts(@NotNull final String reportDirectory, @NotNull final List<File> globalTempFiles) {
 		checkNotNull(globalTempFiles);
 		checkArgument(StringUtils.isNotBlank(reportDirectory));
@@ -224,42 +218,27 @@ public class TestRunner {
 			/*
 				For each combination of browser and url run a test
 			*/
-			LOGGER.info("Running " + State.getThreadDesiredCapabilityMap().getNumberCapabilities() + " test combinations");
-			for (int i = 0; i < State.getThreadDesiredCapabilityMap().getNumberCapabilities(); ++i) {
-				/*
-					For those first few threads that are execute immediately, add a small offset.
-					Obviously this doesn't have any impact as the thread pool is used up,
-					but that is fine because in theory new threads will start with some
-					kind of offset anyway as the time it takes to process the preceeding
-					ones is random enough.
-				*/
-				try {
-					Thread.sleep(i * DELAY_CONCURRENT_START);
-				} catch (final Exception ignored) {
-					/*
-						Ignore this
-					 */
-				}
-				threadPool.invokeLater(new CucumberThread(reportDirectory, testPath.toString()));
+			final int numberCapabilities = State.getThreadDesiredCapabilityMap().getNumberCapabilities();
+			LOGGER.info("Running " + numberCapabilities + " test combinations");
+
+			runScheduler.addCompletionListener(success -> LOGGER.info(
+				"{} of {} test combinations completed",
+				runScheduler.getCompletedCount(),
+				numberCapabilities));
+
+			for (int i = 0; i < numberCapabilities; ++i) {
+				runScheduler.schedule(new CucumberThread(reportDirectory, testPath.toString()));
 			}
 
 			/*
-				Wait for the thread to finish
+				Wait for the threads to finish
 			*/
-			while (completed != State.getThreadDesiredCapabilityMap().getNumberCapabilities()) {
-				try {
-					Thread.sleep(THREAD_COMPLETE_SLEEP);
-				} catch (final Exception ignored) {
-					/*
-						ignored
-					 */
-				}
-			}
+			runScheduler.awaitCompletion();
 
 			/*
 				Doh! Some scripts failed, so print a warning
 			*/
-			if (failure != 0) {
+			if (runScheduler.getFailureCount() != 0) {
 				LOGGER.error("Some of the cucumber tests failed. Check the logs for more details.");
 			}
 
@@ -268,6 +247,21 @@ public class TestRunner {
 			State.getThreadDesiredCapabilityMap().shutdown();
 			FileUtils.deleteQuietly(testPath);
 			SCREEN_CAPTURE.stop();
+
+			if (HttpErrorTrackerImpl.getDroppedSpillCount() != 0) {
+				LOGGER.info("WEBAPPTESTER-INFO-0021: {} HTTP errors were not saved to the error files "
+					+ "because they were returned faster than they could be written",
+					HttpErrorTrackerImpl.getDroppedSpillCount());
+			}
+
+			/*
+				Report how well the locator strategy cache worked, and save it for the next run
+			 */
+			if (SYSTEM_PROPERTY_UTILS.getPropertyAsBoolean(Constants.ADAPTIVE_LOCATOR_CACHE, false)) {
+				LOGGER.info("WEBAPPTESTER-INFO-0020: Locator strategy cache statistics: {}",
+					State.getLocatorStrategyCache().getStatistics());
+				State.getLocatorStrategyCache().save();
+			}
 		}
 	}
 
@@ -308,7 +302,7 @@ public class TestRunner {
 	 * configuration for each thread, which means we can connect to BrowserStack and test against a different
 	 * browser.
 	 */
-	private class CucumberThread implements Runnable {
+	private class CucumberThread implements Supplier<Boolean> {
 
 		private final String featuresLocation;
 		private final String reportDirectory;
@@ -320,9 +314,12 @@ public class TestRunner {
 			this.reportDirectory = reportDirectory;
 		}
 
+		/**
+		 * @return true if the cucumber scripts passed, and false otherwise
+		 */
 		@Override
-		public void run() {
-			LOGGER.info("CucumberThread.run()");
+		public Boolean get() {
+			LOGGER.info("CucumberThread.get()");
 
 			try {
 				/*
@@ -332,11 +329,10 @@ public class TestRunner {
 				Thread.currentThread().setName(Constants.THREAD_NAME_PREFIX + Main.THREAD_COUNT.incrementAndGet());
 
 				/*
-					Get the details for this thread
+					Get the details for this thread, and bind them to the thread so steps
+					don't have to look them up by name
 				*/
-				final FeatureState featureState =
-					State.getThreadDesiredCapabilityMap().getDesiredCapabilitiesForThread(
-						Thread.currentThread().getName());
+				final FeatureState featureState = State.bindThread();
 
 				/*
 					These are the arguments we'll pass to the cucumber runner
@@ -380,6 +376,14 @@ public class TestRunner {
 				args.add("--plugin");
 				args.add("pretty");
 
+				/*
+					The element prefetcher needs to know which step runs next
+				 */
+				if (SYSTEM_PROPERTY_UTILS.getPropertyAsBoolean(Constants.PREFETCH_ELEMENTS, false)) {
+					args.add("--plugin");
+					args.add(ScenarioStepTracker.class.getName());
+				}
+
 				args.add("--glue");
 				args.add("au.com.agic.apptesting.steps");
 				args.add("--glue");
@@ -413,18 +417,16 @@ public class TestRunner {
 					args.toArray(new String[args.size()]),
 					Thread.currentThread().getContextClassLoader());
 
-				if (retValue != 0) {
-					++failure;
-				}
-
 				/*
 					Open the report files
 				 */
 				openReportFiles(reportDirectory);
+
+				return retValue == 0;
 			} catch (final Exception ex) {
-				++failure;
 				LOGGER.error("Failed to run Cucumber test", ex);
 				EXCEPTION_WRITER.saveException(reportDirectory, ex);
+				return false;
 			} finally {
 				testFinalActions();
 
@@ -432,8 +434,7 @@ public class TestRunner {
 					Clean up this web driver so we don't hold windows open
 				*/
 				State.getThreadDesiredCapabilityMap().shutdown(Thread.currentThread().getName());
-
-				++completed;
+				State.unbindThread();
 			}
 		}
 
@@ -0,0 +1,52 @@
+package au.com.agic.apptesting.aspects;
+
+import au.com.agic.apptesting.State;
+import au.com.agic.apptesting.exception.DriverException;
+import au.com.agic.apptesting.utils.CookieSnapshotCache;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Aspect;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contains aspects that keep the cookie snapshots used by the proxy up to date
+ */
+@Aspect
+@Component
+public class CookieSnapshotAspect {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CookieSnapshotAspect.class);
+
+	@Autowired
+	private CookieSnapshotCache cookieSnapshotCache;
+
+	/**
+	 * Cookies are most likely to change when a page is opened or something is clicked, so the
+	 * snapshot is refreshed after these steps. The browser is idle at this point, which is not
+	 * true when the proxy is processing a request.
+	 */
+	@After("execution(public void au.com.agic.apptesting.steps.NavigationStepDefinitions.*(..))"
+		+ " || execution(public void au.com.agic.apptesting.steps.OpenStepDefinitions.*(..))"
+		+ " || execution(public void au.com.agic.apptesting.steps.ClickingStepDefinitions.*(..))"
+		+ " || execution(public void au.com.agic.apptesting.steps.LoginStepDefinitions.*(..))")
+	public void afterStep() {
+		final String threadName = Thread.currentThread().getName();
+
+		if (!cookieSnapshotCache.isTracked(threadName)) {
+			return;
+		}
+
+		/*
+			A step may have closed the browser, in which case there are no cookies to read
+		 */
+		try {
+			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread(false);
+			cookieSnapshotCache.refresh(threadName, webDriver);
+		} catch (final DriverException | WebDriverException ex) {
+			LOGGER.debug("Failed to refresh the cookie snapshot", ex);
+		}
+	}
+}
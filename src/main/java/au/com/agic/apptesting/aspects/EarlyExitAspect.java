@@ -20,8 +20,7 @@ public class EarlyExitAspect {
 	 */
 	@Around("execution(public void au.com.agic.apptesting.steps..*(..))")
 	public void aroundStep(final ProceedingJoinPoint joinPoint) throws Throwable {
-		final FeatureState featureState =
-			State.getThreadDesiredCapabilityMap().getDesiredCapabilitiesForThread();
+		final FeatureState featureState = State.getFeatureStateForThread();
 
 		if (!featureState.getSkipSteps()) {
 			joinPoint.proceed();
@@ -65,6 +65,16 @@ public final class Constants {
 	 */
 	public static final String HAR_FILE_NAME = HAR_FILE_NAME_PREFIX + "." + HAR_FILE_NAME_EXTENSION;
 
+	/**
+	 * The number of HAR entries that can be waiting to be written to disk when streaming HAR logging
+	 */
+	public static final int HAR_STREAM_QUEUE_SIZE = 1000;
+
+	/**
+	 * The default number of bytes of each request and response body saved when streaming HAR logging
+	 */
+	public static final int HAR_STREAM_MAX_BODY_SIZE = 64 * 1024;
+
 	/**
 	 * The system property that can be used to enable the mouse cursor to be moved
 	 * to the element being interacted with
@@ -169,6 +179,165 @@ public final class Constants {
 	 * will be created for every scenario.
      */
 	public static final String NEW_BROWSER_PER_SCENARIO = "newBrowserPerScenario";
+	/**
+	 * When a new browser is created for every scenario, this system property defines how many
+	 * browsers are kept ready in the background. Browsers that have finished a scenario are reset
+	 * and reused instead of being quit. Set to 0 to disable the pool. Defaults to 1.
+	 */
+	public static final String WEB_DRIVER_POOL_SIZE = "webDriverPoolSize";
+	/**
+	 * If set to true, Chrome and Firefox sessions are created against shared chromedriver and
+	 * geckodriver processes instead of starting a new driver process for every browser. These
+	 * sessions are RemoteWebDriver instances, so they are treated like remote browsers by anything
+	 * that checks the type of the web driver. Defaults to false.
+	 */
+	public static final String SHARED_DRIVER_SERVICE = "sharedDriverService";
+	/**
+	 * If set to true, every test thread gets its own BrowserMob proxy instead of sharing one proxy.
+	 * This keeps blocked urls, modified headers and HAR files separate for each thread.
+	 */
+	public static final String PROXY_PER_THREAD = "proxyPerThread";
+	/**
+	 * The number of HTTP errors returned through each BrowserMob proxy that are kept in memory.
+	 * Older errors are still counted, but their details are discarded.
+	 */
+	public static final String HTTP_ERROR_BUFFER_SIZE = "httpErrorBufferSize";
+	/**
+	 * The default value of the HTTP_ERROR_BUFFER_SIZE system property
+	 */
+	public static final int DEFAULT_HTTP_ERROR_BUFFER_SIZE = 100;
+	/**
+	 * An optional file that the details of every HTTP error returned through the
+	 * BrowserMob proxy is appended to
+	 */
+	public static final String HTTP_ERROR_SPILL_FILE = "httpErrorSpillFile";
+	/**
+	 * If set to true, responses to GET requests that can be cached are shared between all
+	 * the browsers using the BrowserMob proxy
+	 */
+	public static final String STATIC_ASSET_CACHE = "staticAssetCache";
+	/**
+	 * The number of megabytes of responses that the static asset cache holds in memory
+	 */
+	public static final String STATIC_ASSET_CACHE_MEMORY = "staticAssetCacheMemory";
+	/**
+	 * The default value of the STATIC_ASSET_CACHE_MEMORY system property
+	 */
+	public static final int DEFAULT_STATIC_ASSET_CACHE_MEMORY = 256;
+	/**
+	 * An optional directory that responses evicted from memory by the static asset cache are saved to
+	 */
+	public static final String STATIC_ASSET_CACHE_DIRECTORY = "staticAssetCacheDirectory";
+	/**
+	 * The number of megabytes of responses that the static asset cache holds on disk
+	 */
+	public static final String STATIC_ASSET_CACHE_DISK = "staticAssetCacheDisk";
+	/**
+	 * The default value of the STATIC_ASSET_CACHE_DISK system property
+	 */
+	public static final int DEFAULT_STATIC_ASSET_CACHE_DISK = 1024;
+	/**
+	 * Set to "record" to save the responses returned through the BrowserMob proxy, or "replay"
+	 * to return the saved responses without contacting the backend
+	 */
+	public static final String PROXY_RECORD_REPLAY = "proxyRecordReplay";
+	/**
+	 * The directory that recorded responses are saved to. When each thread has its own proxy,
+	 * the responses recorded by each thread are saved to a subdirectory named after the thread.
+	 */
+	public static final String PROXY_RECORDING_DIRECTORY = "proxyRecordingDirectory";
+	/**
+	 * The default value of the PROXY_RECORDING_DIRECTORY system property
+	 */
+	public static final String DEFAULT_PROXY_RECORDING_DIRECTORY = "recordings";
+	/**
+	 * A comma separated list of the parts of a request that have to match a recorded request
+	 * for its response to be replayed. Any of "method", "url" and "body".
+	 */
+	public static final String PROXY_REPLAY_MATCH = "proxyReplayMatch";
+	/**
+	 * The default value of the PROXY_REPLAY_MATCH system property
+	 */
+	public static final String DEFAULT_PROXY_REPLAY_MATCH = "method,url,body";
+	/**
+	 * A comma separated list of regular expressions matching URLs that are always sent to the
+	 * backend, and are never recorded or replayed
+	 */
+	public static final String PROXY_REPLAY_PASSTHROUGH = "proxyReplayPassthrough";
+	/**
+	 * If set to true, steps that interact with the page wait until the BrowserMob proxy has seen
+	 * no network activity for the NETWORK_IDLE_TIME instead of sleeping for the default sleep time
+	 */
+	public static final String WAIT_FOR_NETWORK_IDLE = "waitForNetworkIdle";
+	/**
+	 * How long in milliseconds the proxy has to have no requests in flight for the network to be idle
+	 */
+	public static final String NETWORK_IDLE_TIME = "networkIdleTime";
+	/**
+	 * The default value of the NETWORK_IDLE_TIME system property
+	 */
+	public static final int DEFAULT_NETWORK_IDLE_TIME = 500;
+	/**
+	 * The longest time in milliseconds a step will wait for the network to be idle
+	 */
+	public static final String NETWORK_IDLE_TIMEOUT = "networkIdleTimeout";
+	/**
+	 * The default value of the NETWORK_IDLE_TIMEOUT system property
+	 */
+	public static final int DEFAULT_NETWORK_IDLE_TIMEOUT = 10000;
+	/**
+	 * A comma separated list of regular expressions matching URLs that are not counted as network
+	 * activity, like long polling requests that are always in flight
+	 */
+	public static final String NETWORK_IDLE_IGNORE = "networkIdleIgnore";
+	/**
+	 * If set to true, steps that interact with the page wait until the page has stopped changing
+	 * for the DOM_QUIET_TIME instead of sleeping for the default sleep time
+	 */
+	public static final String WAIT_FOR_DOM_STABLE = "waitForDomStable";
+	/**
+	 * How long in milliseconds the page has to go without changes for it to be stable
+	 */
+	public static final String DOM_QUIET_TIME = "domQuietTime";
+	/**
+	 * The default value of the DOM_QUIET_TIME system property
+	 */
+	public static final int DEFAULT_DOM_QUIET_TIME = 300;
+	/**
+	 * The longest time in milliseconds a step will wait for the page to stop changing
+	 */
+	public static final String DOM_STABLE_TIMEOUT = "domStableTimeout";
+	/**
+	 * The default value of the DOM_STABLE_TIMEOUT system property
+	 */
+	public static final int DEFAULT_DOM_STABLE_TIMEOUT = 10000;
+	/**
+	 * If set to true, the location method that found each element is remembered and tried first
+	 * the next time the same value is used to find an element
+	 */
+	public static final String ADAPTIVE_LOCATOR_CACHE = "adaptiveLocatorCache";
+	/**
+	 * If set to true, a value used to find an element can start with a prefix like "css:" or
+	 * "xpath:" to name the one location method used to find it. A backslash before a prefix,
+	 * like "\name: John", uses the prefix as part of the value.
+	 */
+	public static final String ELEMENT_SELECTOR_PREFIXES = "elementSelectorPrefixes";
+	/**
+	 * An optional file that the adaptive locator cache is loaded from at the start of a run, and
+	 * saved to at the end
+	 */
+	public static final String LOCATOR_CACHE_FILE = "locatorCacheFile";
+	/**
+	 * If set to true, the element used by the next step is found at the end of the sleep that
+	 * follows an action. The full sleep is still taken, and the element is checked again before
+	 * the next step uses it, so this does not reduce the number of requests made to the browser.
+	 */
+	public static final String PREFETCH_ELEMENTS = "prefetchElements";
+	/**
+	 * If set to true, each thread keeps the elements it has recently found, so steps that use
+	 * the same element one after the other only check the element instead of finding it again
+	 */
+	public static final String CACHE_ELEMENT_HANDLES = "cacheElementHandles";
 	/**
 	 * If set to true, or not set at all, this system property instructs Iridium to fail
 	 * all scenarios after the first error. Otherwise, scenarios will continue independently.
@@ -476,15 +645,33 @@ public final class Constants {
 	public static final String ZAP_API_KEY = null;
 
 	/**
-	 * How long to delay when entering each character into a text box
+	 * How long to delay when entering each character into a text box. Without a delay the
+	 * text is sent in one command. Set a delay with the "I set the default keystroke delay"
+	 * step for applications that need to see each key press separately.
 	 */
-	public static final int KEY_STROKE_DELAY = 300;
+	public static final int KEY_STROKE_DELAY = 0;
 
 	/**
 	 * How quickly Selenium should poll the browser for an element it is waiting for
 	 */
 	public static final int ELEMENT_WAIT_SLEEP_TIMEOUT = 100;
 
+	/**
+	 * The first pause between attempts made by a deadline wait. Waits start polling quickly
+	 * so elements that are already on the page are returned without delay.
+	 */
+	public static final int WAIT_INITIAL_POLL = 20;
+
+	/**
+	 * The longest pause between attempts made by a deadline wait
+	 */
+	public static final int WAIT_MAX_POLL = 500;
+
+	/**
+	 * How much the pause between attempts made by a deadline wait grows after each attempt
+	 */
+	public static final double WAIT_POLL_BACKOFF = 1.5;
+
 	/**
 	 * A regex that catches line endings across multiple platforms
 	 */
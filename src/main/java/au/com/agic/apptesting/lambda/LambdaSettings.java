@@ -40,6 +40,31 @@ public class LambdaSettings {
 		"externalProxyPassword",
 		"externalProxyRealm",
 		"newBrowserPerScenario",
+		"webDriverPoolSize",
+		"sharedDriverService",
+		"proxyPerThread",
+		"httpErrorBufferSize",
+		"httpErrorSpillFile",
+		"staticAssetCache",
+		"staticAssetCacheMemory",
+		"staticAssetCacheDirectory",
+		"staticAssetCacheDisk",
+		"proxyRecordReplay",
+		"proxyRecordingDirectory",
+		"proxyReplayMatch",
+		"proxyReplayPassthrough",
+		"waitForNetworkIdle",
+		"networkIdleTime",
+		"networkIdleTimeout",
+		"networkIdleIgnore",
+		"waitForDomStable",
+		"domQuietTime",
+		"domStableTimeout",
+		"adaptiveLocatorCache",
+		"elementSelectorPrefixes",
+		"locatorCacheFile",
+		"prefetchElements",
+		"cacheElementHandles",
 		"failAllAfterFirstScenarioError",
 		"phantomJSUserAgent",
 		"testBrowsers",
@@ -51,7 +51,7 @@ public class AGStepDefinitions {
 		final WebElement element = wait.until(ExpectedConditions.elementToBeClickable(by));
 		final JavascriptExecutor js = (JavascriptExecutor) webDriver;
 		js.executeScript("arguments[0].autoSelectSuburb('" + postcodeValue + "');", element);
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 
 	/**
@@ -100,7 +100,7 @@ public class AGStepDefinitions {
 				ExpectedConditions.elementToBeClickable(
 					By.cssSelector("[" + attr + "='" + dateValue + "']")));
 			element.click();
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -61,7 +61,7 @@ public class ClickingStepDefinitions {
 				element.click();
 			}
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		}
 	}
 
@@ -338,7 +338,7 @@ public class ClickingStepDefinitions {
 			 */
 			for (int i = 0; i < fixedTimes; ++i) {
 				javaScriptRunner.interactHiddenElementMouseEvent(element, "click", js);
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
@@ -401,7 +401,7 @@ public class ClickingStepDefinitions {
 			 */
 			for (int i = 0; i < fixedTimes; ++i) {
 				javaScriptRunner.interactHiddenElementMouseEvent(element, "click", js);
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (StringUtils.isBlank(exists)) {
@@ -461,7 +461,7 @@ public class ClickingStepDefinitions {
 					return null;
 				});
 
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (StringUtils.isBlank(exists)) {
@@ -522,7 +522,7 @@ public class ClickingStepDefinitions {
 					return null;
 				});
 
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (StringUtils.isBlank(exists)) {
@@ -599,7 +599,7 @@ public class ClickingStepDefinitions {
 					Constants.MOUSE_MOVE_STEPS);
 
 				element.click();
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final TimeoutException ex) {
 			if (!" if it exists".equals(exists)) {
@@ -667,7 +667,7 @@ public class ClickingStepDefinitions {
 					Constants.MOUSE_MOVE_STEPS);
 
 				element.click();
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (!" if it exists".equals(exists)) {
@@ -698,7 +698,7 @@ public class ClickingStepDefinitions {
 
 			for (int i = 0; i < fixedTimes; ++i) {
 				browserInteropUtils.acceptAlert(webDriver);
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final TimeoutException | NoAlertPresentException ex) {
 			if (StringUtils.isBlank(exists)) {
@@ -729,7 +729,7 @@ public class ClickingStepDefinitions {
 
 			for (int i = 0; i < fixedTimes; ++i) {
 				browserInteropUtils.cancelAlert(webDriver);
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final TimeoutException | NoAlertPresentException ex) {
 			if (StringUtils.isBlank(exists)) {
@@ -870,7 +870,7 @@ public class ClickingStepDefinitions {
 
 				js.executeScript("window.open(arguments[0].getAttribute('href'),'_blank');", element);
 
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (StringUtils.isBlank(exists)) {
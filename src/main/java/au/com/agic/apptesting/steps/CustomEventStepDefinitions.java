@@ -70,7 +70,7 @@ public class CustomEventStepDefinitions {
 				+ "		   true"
 				+ "    );"
 				+ "    arguments[0].dispatchEvent(ev);", element);
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -116,7 +116,7 @@ public class CustomEventStepDefinitions {
 				+ "    );"
 				+ "    arguments[0].dispatchEvent(ev);", element);
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -16,8 +16,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
-
 /**
  * Gherkin steps used to extract data from the web page.
  *
@@ -110,11 +108,8 @@ public class DataExtractionStepDefinitions {
 				selectorValue,
 				State.getFeatureStateForThread());
 
-			final Map<String, String> dataSet = State.getFeatureStateForThread().getDataSet();
 			final String value = element.getAttribute(attribute).trim();
-			dataSet.put(destinationAlias, value);
-
-			State.getFeatureStateForThread().setDataSet(dataSet);
+			State.getFeatureStateForThread().putDataSetValue(destinationAlias, value);
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -160,9 +155,7 @@ public class DataExtractionStepDefinitions {
 				Constants.ELEMENT_WAIT_SLEEP_TIMEOUT);
 			final WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(by));
 
-			final Map<String, String> dataSet = State.getFeatureStateForThread().getDataSet();
-			dataSet.put(destinationAlias, element.getAttribute(attribute).trim());
-			State.getFeatureStateForThread().setDataSet(dataSet);
+			State.getFeatureStateForThread().putDataSetValue(destinationAlias, element.getAttribute(attribute).trim());
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -196,9 +189,7 @@ public class DataExtractionStepDefinitions {
 				selectorValue,
 				State.getFeatureStateForThread());
 
-			final Map<String, String> dataSet = State.getFeatureStateForThread().getDataSet();
-			dataSet.put(destinationAlias, element.getText().trim());
-			State.getFeatureStateForThread().setDataSet(dataSet);
+			State.getFeatureStateForThread().putDataSetValue(destinationAlias, element.getText().trim());
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -242,9 +233,7 @@ public class DataExtractionStepDefinitions {
 				Constants.ELEMENT_WAIT_SLEEP_TIMEOUT);
 			final WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(by));
 
-			final Map<String, String> dataSet = State.getFeatureStateForThread().getDataSet();
-			dataSet.put(destinationAlias, element.getText().trim());
-			State.getFeatureStateForThread().setDataSet(dataSet);
+			State.getFeatureStateForThread().putDataSetValue(destinationAlias, element.getText().trim());
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -285,9 +274,7 @@ public class DataExtractionStepDefinitions {
 				"return arguments[0].textContent.trim();",
 				element).toString();
 
-			final Map<String, String> dataSet = State.getFeatureStateForThread().getDataSet();
-			dataSet.put(destinationAlias, text.trim());
-			State.getFeatureStateForThread().setDataSet(dataSet);
+			State.getFeatureStateForThread().putDataSetValue(destinationAlias, text.trim());
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -337,9 +324,7 @@ public class DataExtractionStepDefinitions {
 				"return arguments[0].textContent.trim();",
 				element).toString();
 
-			final Map<String, String> dataSet = State.getFeatureStateForThread().getDataSet();
-			dataSet.put(destinationAlias, text.trim());
-			State.getFeatureStateForThread().setDataSet(dataSet);
+			State.getFeatureStateForThread().putDataSetValue(destinationAlias, text.trim());
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -379,9 +364,7 @@ public class DataExtractionStepDefinitions {
 				? select.getFirstSelectedOption().getText()
 				: select.getFirstSelectedOption().getAttribute("value");
 
-			final Map<String, String> dataSet = State.getFeatureStateForThread().getDataSet();
-			dataSet.put(destinationAlias, extractedValue);
-			State.getFeatureStateForThread().setDataSet(dataSet);
+			State.getFeatureStateForThread().putDataSetValue(destinationAlias, extractedValue);
 
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(exists)) {
@@ -425,9 +408,7 @@ public class DataExtractionStepDefinitions {
 				? select.getFirstSelectedOption().getText()
 				: select.getFirstSelectedOption().getAttribute("value");
 
-			final Map<String, String> dataSet = State.getFeatureStateForThread().getDataSet();
-			dataSet.put(destinationAlias, extractedValue);
-			State.getFeatureStateForThread().setDataSet(dataSet);
+			State.getFeatureStateForThread().putDataSetValue(destinationAlias, extractedValue);
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -86,7 +86,7 @@ public class DropDownStepDefinitions {
 
 			browserInteropUtils.selectFromDropDownList(webDriver, element, selection);
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -145,7 +145,7 @@ public class DropDownStepDefinitions {
 
 			browserInteropUtils.selectFromDropDownList(webDriver, element, selection);
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -196,7 +196,7 @@ public class DropDownStepDefinitions {
 
 			final Select select = new Select(element);
 			select.selectByIndex(Integer.parseInt(selection));
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -254,7 +254,7 @@ public class DropDownStepDefinitions {
 
 			final Select select = new Select(element);
 			select.selectByIndex(Integer.parseInt(selection));
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
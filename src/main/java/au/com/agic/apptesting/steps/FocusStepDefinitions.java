@@ -71,7 +71,7 @@ public class FocusStepDefinitions {
 				Constants.MOUSE_MOVE_STEPS);
 
 			browserInteropUtils.focusOnElement(webDriver, element);
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -115,7 +115,7 @@ public class FocusStepDefinitions {
 				Constants.MOUSE_MOVE_STEPS);
 
 			browserInteropUtils.focusOnElement(webDriver, element);
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -57,7 +57,7 @@ public class FrameStepDefinition {
 	public void switchToDefaultContent() {
 		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 		webDriver.switchTo().defaultContent();
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 
 
@@ -65,6 +65,6 @@ public class FrameStepDefinition {
 		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 		final WebElement webElement = webDriver.findElement(by);
 		webDriver.switchTo().frame(webElement);
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 }
@@ -64,9 +64,7 @@ public class InitialisationStepDefinitions {
 	 */
 	@Given("^(?:I set )?the alias mappings")
 	public void pageObjectMappings(final Map<String, String> aliasTable) {
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.putAll(aliasTable);
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValues(aliasTable);
 	}
 
 	/**
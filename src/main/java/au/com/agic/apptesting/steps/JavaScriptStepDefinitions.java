@@ -10,7 +10,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -66,9 +65,7 @@ public class JavaScriptStepDefinitions {
 
 			final Object result = js.executeScript(javaScript, aliases);
 
-			final Map<String, String> dataSet = State.getFeatureStateForThread().getDataSet();
-			dataSet.put(alias, result != null ? result.toString() : "");
-			State.getFeatureStateForThread().setDataSet(dataSet);
+			State.getFeatureStateForThread().putDataSetValue(alias, result != null ? result.toString() : "");
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
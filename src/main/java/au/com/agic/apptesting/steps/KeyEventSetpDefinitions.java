@@ -1,6 +1,7 @@
 package au.com.agic.apptesting.steps;
 
 import au.com.agic.apptesting.State;
+import au.com.agic.apptesting.utils.BrowserInteropUtils;
 import au.com.agic.apptesting.utils.GetBy;
 import au.com.agic.apptesting.utils.JavaScriptRunner;
 import au.com.agic.apptesting.utils.SimpleWebElementInteraction;
@@ -17,6 +18,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+
 /**
  * Gherkin steps for simulating key presses and other key events.
  *
@@ -34,6 +37,8 @@ public class KeyEventSetpDefinitions {
 	private SimpleWebElementInteraction simpleWebElementInteraction;
 	@Autowired
 	private JavaScriptRunner javaScriptRunner;
+	@Autowired
+	private BrowserInteropUtils browserInteropUtils;
 
 	/**
 	 * Press the CTRL-A keys to the active element. This step is known to have issues
@@ -46,7 +51,7 @@ public class KeyEventSetpDefinitions {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final WebElement element = webDriver.switchTo().activeElement();
 			element.sendKeys(Keys.chord(Keys.CONTROL, "a"));
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -65,7 +70,7 @@ public class KeyEventSetpDefinitions {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final WebElement element = webDriver.switchTo().activeElement();
 			element.sendKeys(Keys.chord(Keys.COMMAND, "a"));
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -89,7 +94,7 @@ public class KeyEventSetpDefinitions {
 			} else {
 				element.sendKeys(Keys.chord(Keys.CONTROL, "a"));
 			}
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -109,12 +114,13 @@ public class KeyEventSetpDefinitions {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final WebElement element = webDriver.switchTo().activeElement();
 
-			for (int i = 0; i < ObjectUtils.defaultIfNull(times, 1); ++i) {
-				element.sendKeys(Keys.DELETE);
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultKeyStrokeDelay());
-			}
+			browserInteropUtils.typeKeys(
+				webDriver,
+				element,
+				Collections.nCopies(ObjectUtils.defaultIfNull(times, 1), Keys.DELETE),
+				State.getFeatureStateForThread().getDefaultKeyStrokeDelay());
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -133,7 +139,7 @@ public class KeyEventSetpDefinitions {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final WebElement element = webDriver.switchTo().activeElement();
 			element.sendKeys(Keys.TAB);
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -152,7 +158,7 @@ public class KeyEventSetpDefinitions {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final WebElement element = webDriver.switchTo().activeElement();
 			element.sendKeys(Keys.ARROW_DOWN);
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -171,7 +177,7 @@ public class KeyEventSetpDefinitions {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final WebElement element = webDriver.switchTo().activeElement();
 			element.sendKeys(Keys.ARROW_UP);
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -190,7 +196,7 @@ public class KeyEventSetpDefinitions {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final WebElement element = webDriver.switchTo().activeElement();
 			element.sendKeys(Keys.ARROW_LEFT);
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -209,7 +215,7 @@ public class KeyEventSetpDefinitions {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final WebElement element = webDriver.switchTo().activeElement();
 			element.sendKeys(Keys.ARROW_RIGHT);
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -228,12 +234,13 @@ public class KeyEventSetpDefinitions {
 		try {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final WebElement element = webDriver.switchTo().activeElement();
-			for (int i = 0; i < ObjectUtils.defaultIfNull(times, 1); ++i) {
-				element.sendKeys(Keys.BACK_SPACE);
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultKeyStrokeDelay());
-			}
+			browserInteropUtils.typeKeys(
+				webDriver,
+				element,
+				Collections.nCopies(ObjectUtils.defaultIfNull(times, 1), Keys.BACK_SPACE),
+				State.getFeatureStateForThread().getDefaultKeyStrokeDelay());
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -252,7 +259,7 @@ public class KeyEventSetpDefinitions {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final WebElement element = webDriver.switchTo().activeElement();
 			element.sendKeys(Keys.ENTER);
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
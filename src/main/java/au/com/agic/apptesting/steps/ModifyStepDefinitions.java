@@ -17,7 +17,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.Map;
 
 /**
  * Contains Gherkin step definitions for modifying aliased values.
@@ -47,9 +46,7 @@ public class ModifyStepDefinitions {
 	public void removeCharsInAlias(final String alias, final String regex) {
 		final String value = State.getFeatureStateForThread().getDataSet().get(alias);
 		final String fixedValue = value.replaceAll(regex, "");
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, fixedValue);
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, fixedValue);
 	}
 
 	/**
@@ -64,9 +61,7 @@ public class ModifyStepDefinitions {
 	public void replaceCharsInAlias(final String alias, final String regex, final String replacement) {
 		final String value = State.getFeatureStateForThread().getDataSet().get(alias);
 		final String fixedValue = value.replaceAll(regex, replacement);
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, fixedValue);
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, fixedValue);
 	}
 
 	/**
@@ -81,9 +76,7 @@ public class ModifyStepDefinitions {
 	public void replaceFirstCharsInAlias(final String alias, final String regex, final String replacement) {
 		final String value = State.getFeatureStateForThread().getDataSet().get(alias);
 		final String fixedValue = value.replaceFirst(regex, replacement);
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, fixedValue);
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, fixedValue);
 	}
 
 	/**
@@ -100,9 +93,7 @@ public class ModifyStepDefinitions {
 			? State.getFeatureStateForThread().getDataSet().get(prepend)
 			: prepend;
 
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, prependValue + value);
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, prependValue + value);
 	}
 
 	/**
@@ -119,9 +110,7 @@ public class ModifyStepDefinitions {
 			? State.getFeatureStateForThread().getDataSet().get(append)
 			: append;
 
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, value + appendValue);
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, value + appendValue);
 	}
 
 	/**
@@ -133,9 +122,7 @@ public class ModifyStepDefinitions {
 		final String value = State.getFeatureStateForThread().getDataSet().get(alias);
 		final String trimmedValue = value.trim();
 
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, trimmedValue);
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, trimmedValue);
 	}
 
 	/**
@@ -148,9 +135,7 @@ public class ModifyStepDefinitions {
 		final String value = State.getFeatureStateForThread().getDataSet().get(alias);
 		final String uppercase = value.toUpperCase();
 
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, uppercase);
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, uppercase);
 	}
 
 	/**
@@ -163,9 +148,7 @@ public class ModifyStepDefinitions {
 		final String value = State.getFeatureStateForThread().getDataSet().get(alias);
 		final String uppercase = value.toLowerCase();
 
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, uppercase);
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, uppercase);
 	}
 
 	/**
@@ -178,9 +161,7 @@ public class ModifyStepDefinitions {
 	public void copyAlias(final String source, final String destination) {
 		final String value = State.getFeatureStateForThread().getDataSet().get(source);
 
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(destination, value);
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(destination, value);
 	}
 
 	/**
@@ -198,7 +179,6 @@ public class ModifyStepDefinitions {
 		final String alias) {
 
 		final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(format);
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
 
 		LocalDateTime date = LocalDateTime.now();
 
@@ -219,8 +199,7 @@ public class ModifyStepDefinitions {
 			date = date.plus(offset, chronoUnit);
 		}
 
-		dataset.put(alias, dateFormatter.format(date));
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, dateFormatter.format(date));
 	}
 
 	/**
@@ -241,9 +220,7 @@ public class ModifyStepDefinitions {
 
 		final BigDecimal result = new BigDecimal(value).subtract(new BigDecimal(subtractValue));
 
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, result.toString());
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, result.toString());
 	}
 
 	/**
@@ -264,9 +241,7 @@ public class ModifyStepDefinitions {
 
 		final BigDecimal result = new BigDecimal(value).add(new BigDecimal(addValue));
 
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, result.toString());
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, result.toString());
 	}
 
 	/**
@@ -287,9 +262,7 @@ public class ModifyStepDefinitions {
 
 		final BigDecimal result = new BigDecimal(value).multiply(new BigDecimal(multiplyValue));
 
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, result.toString());
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, result.toString());
 	}
 
 	/**
@@ -310,9 +283,7 @@ public class ModifyStepDefinitions {
 
 		final BigDecimal result = new BigDecimal(value).divide(new BigDecimal(divideValue));
 
-		final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-		dataset.put(alias, result.toString());
-		State.getFeatureStateForThread().setDataSet(dataset);
+		State.getFeatureStateForThread().putDataSetValue(alias, result.toString());
 	}
 
 	/**
@@ -332,9 +303,7 @@ public class ModifyStepDefinitions {
 			State.getFeatureStateForThread());
 
 		if (Double.parseDouble(value) < Double.parseDouble(fixedMaxValue)) {
-			final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-			dataset.put(alias, fixedMaxValue);
-			State.getFeatureStateForThread().setDataSet(dataset);
+			State.getFeatureStateForThread().putDataSetValue(alias, fixedMaxValue);
 		}
 	}
 
@@ -355,9 +324,7 @@ public class ModifyStepDefinitions {
 			State.getFeatureStateForThread());
 
 		if (Double.parseDouble(fixedMinValue) < Double.parseDouble(value)) {
-			final Map<String, String> dataset = State.getFeatureStateForThread().getDataSet();
-			dataset.put(alias, fixedMinValue);
-			State.getFeatureStateForThread().setDataSet(dataset);
+			State.getFeatureStateForThread().putDataSetValue(alias, fixedMinValue);
 		}
 	}
 
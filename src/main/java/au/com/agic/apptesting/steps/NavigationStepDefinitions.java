@@ -33,7 +33,7 @@ public class NavigationStepDefinitions {
 		try {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			webDriver.navigate().back();
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			/*
 				Safari doesn't support navigation:
@@ -55,7 +55,7 @@ public class NavigationStepDefinitions {
 		try {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			webDriver.navigate().forward();
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			/*
 				Safari doesn't support navigation:
@@ -77,7 +77,7 @@ public class NavigationStepDefinitions {
 		try {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			webDriver.navigate().refresh();
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			/*
 				Safari doesn't support navigation:
@@ -102,6 +102,6 @@ public class NavigationStepDefinitions {
 
 		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 		((JavascriptExecutor) webDriver).executeScript("window.location.hash='#" + hashValue + "'");
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 }
@@ -55,7 +55,7 @@ public class OpenStepDefinitions {
 			final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 			final String urlValue = autoAliasUtils.getValue(url, StringUtils.isNotBlank(alias), State.getFeatureStateForThread());
 			webDriver.get(urlValue);
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(timeout)) {
 				throw ex;
@@ -107,7 +107,7 @@ public class OpenStepDefinitions {
 				webDriver.get(url);
 			}
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(timeout)) {
 				throw ex;
@@ -3,29 +3,41 @@ package au.com.agic.apptesting.steps;
 import au.com.agic.apptesting.State;
 import au.com.agic.apptesting.constants.Constants;
 import au.com.agic.apptesting.utils.AutoAliasUtils;
+import au.com.agic.apptesting.utils.CookieSnapshotCache;
 import au.com.agic.apptesting.utils.ProxyDetails;
+import au.com.agic.apptesting.utils.RequestRule;
 import au.com.agic.apptesting.utils.impl.BrowsermobProxyUtilsImpl;
+import au.com.agic.apptesting.utils.impl.HarStreamWriterImpl;
+import au.com.agic.apptesting.utils.impl.RequestRuleFilter;
+import au.com.agic.apptesting.utils.impl.StreamingHarFilter;
+import au.com.agic.apptesting.utils.impl.UrlAccessFilter;
 import cucumber.api.java.en.When;
 import io.netty.handler.codec.http.HttpRequest;
-import io.netty.handler.codec.http.HttpResponse;
 import io.vavr.control.Try;
 import net.lightbody.bmp.BrowserMobProxy;
 import net.lightbody.bmp.core.har.Har;
-import net.lightbody.bmp.filters.RequestFilter;
 import net.lightbody.bmp.proxy.CaptureType;
-import net.lightbody.bmp.util.HttpMessageContents;
-import net.lightbody.bmp.util.HttpMessageInfo;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.Cookie;
-import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkState;
 
@@ -40,10 +52,16 @@ import static com.google.common.base.Preconditions.checkState;
 public class ProxyStepDefinitions {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ProxyStepDefinitions.class);
+	private static final String HEADER_RULE_PREFIX = "header:";
+	private static final String AWSELB_RULE_PREFIX = "awselb:";
+	private static final String BLOCK_LIST_COMMENT = "#";
 
 	@Autowired
 	private AutoAliasUtils autoAliasUtils;
 
+	@Autowired
+	private CookieSnapshotCache cookieSnapshotCache;
+
 	/**
 	 * EWnable HAR logging
 	 */
@@ -65,6 +83,64 @@ public class ProxyStepDefinitions {
 			});
 	}
 
+	/**
+	 * Enable HAR logging that writes each transaction to disk as it happens. Unlike the regular
+	 * HAR logging, transactions are not held in memory, so this is suitable for long running tests.
+	 * The HAR file is saved in the report directory, and is completed when the proxy is shut down.
+	 * Running this step again starts a new HAR file.
+	 * @param url An optional regular expression that the URL of a transaction must match to be logged
+	 * @param contentType An optional regular expression that the content type of a request or response
+	 *                    must match for its body to be logged
+	 * @param maxBodySize The optional maximum number of bytes of each body that is logged. Set this to 0
+	 *                    to log no bodies at all.
+	 */
+	@When("^I enable streaming HAR logging"
+		+ "(?: for URLs matching \"(.*?)\")?"
+		+ "(?: with bodies of content types matching \"(.*?)\")?"
+		+ "(?: capped at \"(\\d+)\" bytes)?$")
+	public void enableStreamingHar(final String url, final String contentType, final Integer maxBodySize) {
+		final Optional<ProxyDetails<?>> proxy =
+			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
+
+		proxy.ifPresent(proxyDetails -> proxyDetails.getInterface()
+			.map(BrowserMobProxy.class::cast)
+			.ifPresent(x -> {
+				final File file = new File(
+					State.getFeatureStateForThread().getReportDirectory()
+						+ "/"
+						+ Constants.HAR_FILE_NAME_PREFIX
+						+ "-stream-"
+						+ new SimpleDateFormat(Constants.FILE_DATE_FORMAT).format(new Date())
+						+ "."
+						+ Constants.HAR_FILE_NAME_EXTENSION);
+
+				getStreamingHarFilter(proxyDetails, x).start(
+					new HarStreamWriterImpl(file, Constants.HAR_STREAM_QUEUE_SIZE),
+					url,
+					contentType,
+					maxBodySize == null ? Constants.HAR_STREAM_MAX_BODY_SIZE : maxBodySize);
+			}));
+	}
+
+	/**
+	 * The streaming HAR filters are added to a proxy once, and then reused
+	 */
+	private StreamingHarFilter getStreamingHarFilter(
+			final ProxyDetails<?> proxyDetails,
+			final BrowserMobProxy browserMobProxy) {
+		synchronized (proxyDetails) {
+			final Map<String, Object> properties = proxyDetails.getProperties();
+			if (!properties.containsKey(BrowsermobProxyUtilsImpl.STREAMING_HAR)) {
+				final StreamingHarFilter filter = new StreamingHarFilter();
+				browserMobProxy.addRequestFilter(filter);
+				browserMobProxy.addResponseFilter(filter);
+				properties.put(BrowsermobProxyUtilsImpl.STREAMING_HAR, filter);
+				proxyDetails.setProperties(properties);
+			}
+			return StreamingHarFilter.class.cast(properties.get(BrowsermobProxyUtilsImpl.STREAMING_HAR));
+		}
+	}
+
 	/**
 	 * Saves a HAR file with the details of the transactions that have passed through BrowserMob.
 	 * This step is only required if you wish to save har files at particular points during the test.
@@ -85,6 +161,26 @@ public class ProxyStepDefinitions {
 		final Optional<ProxyDetails<?>> proxy =
 			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
 
+		final File file = new File(
+			State.getFeatureStateForThread().getReportDirectory()
+				+ "/"
+				+ fixedFilename);
+
+		/*
+			A streaming HAR file is completed in a copy, so logging can continue
+		 */
+		final boolean streamed = proxy
+			.map(ProxyDetails::getProperties)
+			.map(x -> x.get(BrowsermobProxyUtilsImpl.STREAMING_HAR))
+			.map(StreamingHarFilter.class::cast)
+			.filter(StreamingHarFilter::isStarted)
+			.map(x -> x.snapshot(file))
+			.orElse(false);
+
+		if (streamed) {
+			return;
+		}
+
 		proxy
 			.flatMap(ProxyDetails::getInterface)
 			.map(BrowserMobProxy.class::cast)
@@ -95,10 +191,6 @@ public class ProxyStepDefinitions {
 					har != null,
 					"You need to add the step \"I enable HAR logging\" before saving the HAR file");
 
-				final File file = new File(
-					State.getFeatureStateForThread().getReportDirectory()
-						+ "/"
-						+ fixedFilename);
 				har.writeTo(file);
 			}));
 	}
@@ -111,15 +203,11 @@ public class ProxyStepDefinitions {
 	 */
 	@When("^I block access to the URL regex \"(.*?)\" with response \"(\\d+)\"$")
 	public void blockUrl(final String url, final Integer response) {
-		final Optional<ProxyDetails<?>> proxy =
-			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
-
-		proxy
-			.flatMap(ProxyDetails::getInterface)
-			.map(BrowserMobProxy.class::cast)
-			.ifPresent(x -> {
-				x.blacklistRequests(url, response);
-			});
+		getUrlAccessFilter().ifPresent(x -> x.block(
+			Thread.currentThread().getName(),
+			Collections.singletonList(url),
+			response,
+			Optional.empty()));
 	}
 
 	/**
@@ -131,51 +219,70 @@ public class ProxyStepDefinitions {
 	 */
 	@When("^I block access to the URL regex \"(.*?)\" of the type \"(.*?)\" with response \"(\\d+)\"$")
 	public void blockUrl(final String url, final String type, final Integer response) {
-		final Optional<ProxyDetails<?>> proxy =
-			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
+		getUrlAccessFilter().ifPresent(x -> x.block(
+			Thread.currentThread().getName(),
+			Collections.singletonList(url),
+			response,
+			Optional.of(type)));
+	}
 
-		proxy
-			.flatMap(ProxyDetails::getInterface)
-			.map(BrowserMobProxy.class::cast)
-			.ifPresent(x -> {
-				x.blacklistRequests(url, response, type);
-			});
+	/**
+	 * Block access to all urls that match any of the regexes in a file. The file has one regex
+	 * per line. Blank lines and lines starting with a hash are ignored. This is an efficient way
+	 * to block large lists of advertising and analytics URLs.
+	 *
+	 * @param alias    If this word is found in the step, it means the filename is found from the
+	 *                 data set.
+	 * @param filename The file that holds the regular expressions
+	 * @param response The response code to send back when a matching URL is accessed
+	 */
+	@When("^I block access to the URL regexes in the file( alias)? \"(.*?)\" with response \"(\\d+)\"$")
+	public void blockUrlsFromFile(final String alias, final String filename, final Integer response)
+		throws IOException {
+
+		final String fixedFilename = autoAliasUtils.getValue(
+			filename,
+			StringUtils.isNotBlank(alias),
+			State.getFeatureStateForThread());
+
+		final List<String> urls = FileUtils.readLines(new File(fixedFilename), StandardCharsets.UTF_8)
+			.stream()
+			.map(String::trim)
+			.filter(StringUtils::isNotBlank)
+			.filter(x -> !x.startsWith(BLOCK_LIST_COMMENT))
+			.collect(Collectors.toList());
+
+		getUrlAccessFilter().ifPresent(x -> x.block(
+			Thread.currentThread().getName(),
+			urls,
+			response,
+			Optional.empty()));
 	}
 
 	/**
-	 * Allow access to all urls that match the regex
+	 * Allows access to urls that match a regex. Any other url is blocked.
 	 *
-	 * @param response      The response code for all whitelisted urls
+	 * @param response The response code to send back when a url that has not been allowed is accessed
 	 */
 	@When("^I enable the whitelist with responding with \"(\\d+)\" for unmatched requests$")
 	public void enableWhitelist(final Integer response) {
-		final Optional<ProxyDetails<?>> proxy =
-			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
-
-		proxy
-			.flatMap(ProxyDetails::getInterface)
-			.map(BrowserMobProxy.class::cast)
-			.ifPresent(x -> {
-				x.enableEmptyWhitelist(response);
-			});
+		getUrlAccessFilter().ifPresent(x -> x.enableAllowList(Thread.currentThread().getName(), response));
 	}
 
 	/**
 	 * Allow access to all urls that match the regex
 	 *
-	 * @param url      A regular expression that matches URLs to be allowed
+	 * @param url A regular expression that matches URLs to be allowed
 	 */
 	@When("^I allow access to the URL regex \"(.*?)\"$")
 	public void allowUrl(final String url) {
-		final Optional<ProxyDetails<?>> proxy =
-			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
+		getUrlAccessFilter().ifPresent(x -> x.allow(Thread.currentThread().getName(), url));
+	}
 
-		proxy
-			.flatMap(ProxyDetails::getInterface)
-			.map(BrowserMobProxy.class::cast)
-			.ifPresent(x -> {
-				x.addWhitelistPattern(url);
-			});
+	private Optional<UrlAccessFilter> getUrlAccessFilter() {
+		return State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME)
+			.map(x -> x.getProperties().get(BrowsermobProxyUtilsImpl.URL_ACCESS))
+			.map(UrlAccessFilter.class::cast);
 	}
 
 	/**
@@ -184,132 +291,126 @@ public class ProxyStepDefinitions {
 	 * instance that didn't generate the initial session, and so the request fails. This step allows us to
 	 * remove these duplicated cookies from the request.
 	 *
+	 * The proxy reads the cookies from a snapshot that is refreshed after navigation, click and
+	 * login steps, rather than asking the browser while it is waiting on the request.
+	 *
 	 * @param url The regex that matches URLs that should have duplicate AWSELB cookies removed
 	 */
 	@When("^I (?:remove|delete) root AWSELB cookie from the request to the URL regex \"(.*?)\"$")
 	public void stripHeaders(final String url) {
-		final Optional<ProxyDetails<?>> proxy =
-			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
-
 		/*
 			Get the name of the thread running the test
 		 */
 		final String threadName = Thread.currentThread().getName();
+		final Pattern urlPattern = Pattern.compile(url);
 
+		cookieSnapshotCache.track(threadName);
+		cookieSnapshotCache.refresh(threadName, State.getThreadDesiredCapabilityMap().getWebDriverForThread());
 
-		proxy
-			.flatMap(ProxyDetails::getInterface)
-			.map(BrowserMobProxy.class::cast)
-			.ifPresent(x -> {
-				x.addRequestFilter(new RequestFilter() {
-					@Override
-					public HttpResponse filterRequest(
-						final HttpRequest request,
-						final HttpMessageContents contents,
-						final HttpMessageInfo messageInfo) {
-						if (messageInfo.getOriginalRequest().getUri().matches(url)) {
-							final Optional<String> cookies =
-								Optional.ofNullable(request.headers().get("Cookie"));
-
-						/*
-							Only proceed if we have supplied some cookies
-						 */
-							if (cookies.isPresent()) {
-							/*
-								Find the root context cookie
-							 */
-								final WebDriver webDriver =
-									State
-										.getThreadDesiredCapabilityMap()
-										.getWebDriverForThread(threadName, true);
-
-								final Optional<Cookie> awselb =
-									webDriver.manage().getCookies()
-										.stream()
-										.filter(x -> "AWSELB".equals(x.getName()))
-										.filter(x -> "/".equals(x.getPath()))
-										.findFirst();
-
-							/*
-								If we have a root context cookie,
-								remove it from the request
-							 */
-								if (awselb.isPresent()) {
-
-									LOGGER.info(
-										"WEBAPPTESTER-INFO-0002: "
-											+ "Removing AWSELB cookie with value {}",
-										awselb.get().getValue());
-
-									final String newCookie =
-										cookies.get().replaceAll(awselb.get().getName()
-												+ "="
-												+ awselb.get().getValue() + ";"
-												+ "( "
-												+ "GMT=; "
-												+ "\\d+-\\w+-\\d+=\\d+:\\d+:\\d+;"
-												+ ")?",
-											"");
-
-									request.headers().set("Cookie", newCookie);
-								}
-
-								final int awsElbCookieCount = StringUtils.countMatches(
-									request.headers().get("Cookie"),
-									"AWSELB");
-
-								if (awsElbCookieCount != 1) {
-									LOGGER.info(
-										"WEBAPPTESTER-INFO-0003: "
-											+ "{} AWSELB cookies found",
-										awsElbCookieCount);
-								}
-							}
-
-						}
-
-						return null;
-					}
-				});
-			});
+		putRequestRule(AWSELB_RULE_PREFIX + url, (request, messageInfo) -> {
+			if (urlPattern.matcher(messageInfo.getOriginalRequest().getUri()).matches()) {
+				removeRootAwselbCookie(request, threadName);
+			}
+		});
+	}
+
+	private void removeRootAwselbCookie(final HttpRequest request, final String threadName) {
+		final Optional<String> cookies =
+			Optional.ofNullable(request.headers().get("Cookie"));
+
+		/*
+			Only proceed if we have supplied some cookies
+		 */
+		if (cookies.isPresent()) {
+			/*
+				Find the root context cookie
+			 */
+			final Optional<Cookie> awselb =
+				cookieSnapshotCache.getCookies(threadName)
+					.stream()
+					.filter(x -> "AWSELB".equals(x.getName()))
+					.filter(x -> "/".equals(x.getPath()))
+					.findFirst();
+
+			/*
+				If we have a root context cookie,
+				remove it from the request
+			 */
+			if (awselb.isPresent()) {
+
+				LOGGER.info(
+					"WEBAPPTESTER-INFO-0002: "
+						+ "Removing AWSELB cookie with value {}",
+					awselb.get().getValue());
+
+				final String newCookie =
+					cookies.get().replaceAll(awselb.get().getName()
+							+ "="
+							+ awselb.get().getValue() + ";"
+							+ "( "
+							+ "GMT=; "
+							+ "\\d+-\\w+-\\d+=\\d+:\\d+:\\d+;"
+							+ ")?",
+						"");
+
+				request.headers().set("Cookie", newCookie);
+			}
+
+			final int awsElbCookieCount = StringUtils.countMatches(
+				request.headers().get("Cookie"),
+				"AWSELB");
+
+			if (awsElbCookieCount != 1) {
+				LOGGER.info(
+					"WEBAPPTESTER-INFO-0003: "
+						+ "{} AWSELB cookies found",
+					awsElbCookieCount);
+			}
+		}
 	}
 
 	/**
-	 * Set new or modify an existing HTTP header
+	 * Set new or modify an existing HTTP header. This replaces any earlier step that set or
+	 * removed the same header.
 	 *
 	 * @param headerName HTTP header name
 	 * @param headerValue HTTP header value
 	 */
 	@When("^I set header \"([^\"]*)\" with value \"([^\"]*)\"$")
 	public void changeHeader(final String headerName, final String headerValue) {
-		final Optional<ProxyDetails<?>> proxy =
-			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
-
-		proxy
-			.flatMap(ProxyDetails::getInterface)
-			.map(BrowserMobProxy.class::cast)
-			.ifPresent(x -> x.addRequestFilter((request, contents, messageInfo) -> {
-				request.headers().set(headerName, headerValue);
-				return null;
-			}));
+		putRequestRule(
+			HEADER_RULE_PREFIX + headerName.toLowerCase(Locale.ROOT),
+			(request, messageInfo) -> request.headers().set(headerName, headerValue));
 	}
 
 	/**
-	 * Remove HTTP header
+	 * Remove HTTP header. This replaces any earlier step that set or removed the same header.
 	 *
 	 * @param headerName HTTP header name
 	 */
 	@When("^I remove header \"([^\"]*)\"$")
 	public void removeHeader(final String headerName) {
-		final Optional<ProxyDetails<?>> proxy =
-			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
+		putRequestRule(
+			HEADER_RULE_PREFIX + headerName.toLowerCase(Locale.ROOT),
+			(request, messageInfo) -> request.headers().remove(headerName));
+	}
 
-		proxy
-			.flatMap(ProxyDetails::getInterface)
-			.map(BrowserMobProxy.class::cast)
-			.ifPresent(x -> x.addRequestFilter((request, contents, messageInfo) -> {
-				request.headers().remove(headerName);
-				return null;
-			}));
+	/**
+	 * Undo the header changes and AWSELB cookie removal made by earlier steps in this thread
+	 */
+	@When("^I clear all request rules$")
+	public void clearRequestRules() {
+		getRequestRuleFilter().ifPresent(x -> x.clearRules(Thread.currentThread().getName()));
+		cookieSnapshotCache.untrack(Thread.currentThread().getName());
+	}
+
+	private void putRequestRule(final String key, final RequestRule rule) {
+		getRequestRuleFilter().ifPresent(x -> x.putRule(Thread.currentThread().getName(), key, rule));
+	}
+
+	private Optional<RequestRuleFilter> getRequestRuleFilter() {
+		return State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME)
+			.map(x -> x.getProperties().get(BrowsermobProxyUtilsImpl.REQUEST_RULES))
+			.map(RequestRuleFilter.class::cast);
 	}
 }
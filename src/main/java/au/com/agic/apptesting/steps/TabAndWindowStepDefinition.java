@@ -36,7 +36,7 @@ public class TabAndWindowStepDefinition {
 		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 		final List<String> tabs2 = new ArrayList<>(webDriver.getWindowHandles());
 		webDriver.switchTo().window(tabs2.get(Integer.parseInt(tabIndex)));
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 
 	/**
@@ -52,7 +52,7 @@ public class TabAndWindowStepDefinition {
 				.filter(e -> !e.equals(webDriver.getWindowHandle()))
 				.forEach(e -> webDriver.switchTo().window(e));
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -82,7 +82,7 @@ public class TabAndWindowStepDefinition {
 				throw new BrowserWindowException("You can only use this step when there is more than one tab or window.");
 			}
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final Exception ex) {
 			if (StringUtils.isBlank(ignoreErrors)) {
 				throw ex;
@@ -96,7 +96,7 @@ public class TabAndWindowStepDefinition {
 	@When("I maximi(?:s|z)e the window")
 	public void maximiseWindow() {
 		browserInteropUtils.maximizeWindow();
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 
 	/**
@@ -108,7 +108,7 @@ public class TabAndWindowStepDefinition {
 	@When("I set the window size to \"(\\d+)x(\\d+)\"")
 	public void setWindowSize(final Integer width, final Integer height) {
 		browserInteropUtils.setWindowSize(width, height);
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 
 }
@@ -5,7 +5,11 @@ import au.com.agic.apptesting.constants.Constants;
 import au.com.agic.apptesting.exception.WebElementException;
 import au.com.agic.apptesting.utils.*;
 import au.com.agic.apptesting.utils.impl.MouseMovementUtilsImpl;
+import cucumber.api.DataTable;
 import cucumber.api.java.en.When;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -17,7 +21,9 @@ import org.springframework.stereotype.Component;
 
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.List;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkState;
 
@@ -43,9 +49,15 @@ public class TextEntryStepDefinitions {
 	private MouseMovementUtilsImpl mouseMovementUtils;
 	@Autowired
 	private BrowserInteropUtils browserInteropUtils;
+	@Autowired
+	private FormPopulator formPopulator;
 
 	private static final Pattern BLANK_OR_MASKED_RE = Pattern.compile("^(_|\\s)+$");
 	private static final Pattern SINGLE_QUOTE_RE = Pattern.compile("'");
+	private static final String FIELD_COLUMN = "field";
+	private static final String VALUE_COLUMN = "value";
+	private static final String FIELD_ALIAS_COLUMN = "field alias";
+	private static final String VALUE_ALIAS_COLUMN = "value alias";
 
 	/**
 	 * Clears the contents of an element using simple selection
@@ -75,7 +87,7 @@ public class TextEntryStepDefinitions {
 			Constants.MOUSE_MOVE_STEPS);
 
 		element.clear();
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 
 	/**
@@ -106,7 +118,7 @@ public class TextEntryStepDefinitions {
 			Constants.MOUSE_MOVE_STEPS);
 
 		element.clear();
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 
 	/**
@@ -137,7 +149,7 @@ public class TextEntryStepDefinitions {
 
 		final JavascriptExecutor js = (JavascriptExecutor) webDriver;
 		js.executeScript("arguments[0].value='';", element);
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 
 	/**
@@ -169,7 +181,7 @@ public class TextEntryStepDefinitions {
 
 		final JavascriptExecutor js = (JavascriptExecutor) webDriver;
 		js.executeScript("arguments[0].value='';", element);
-		sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+		sleepUtils.sleepAfterAction();
 	}
 
 
@@ -219,7 +231,7 @@ public class TextEntryStepDefinitions {
 
 			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultKeyStrokeDelay());
 			element.submit();
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -279,7 +291,7 @@ public class TextEntryStepDefinitions {
 
 			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultKeyStrokeDelay());
 			element.submit();
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -352,9 +364,9 @@ public class TextEntryStepDefinitions {
 
 				checkState(textValue != null, "the aliased text value does not exist");
 
-				browserInteropUtils.populateElement(webDriver, element, textValue);
+				browserInteropUtils.populateElement(webDriver, element, textValue, fixedDelay);
 
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
@@ -435,9 +447,9 @@ public class TextEntryStepDefinitions {
 
 				checkState(textValue != null, "the aliased text value does not exist");
 
-				browserInteropUtils.populateElement(webDriver, element, textValue);
+				browserInteropUtils.populateElement(webDriver, element, textValue, fixedDelay);
 
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(exists)) {
@@ -446,6 +458,70 @@ public class TextEntryStepDefinitions {
 		}
 	}
 
+	/**
+	 * Populates a number of fields at once. The fields are found and populated with a single request
+	 * to the browser, which replaces the value of each field and fires the input and change events.
+	 * Individual key presses are not simulated, so use the other populate steps for fields that
+	 * respond to key events. <p> The table has a header row naming the columns. The "field" column
+	 * holds the value used to find the field, which is matched in the same way as the simple populate
+	 * steps, and the "value" column holds the value to populate it with. The optional "field alias"
+	 * and "value alias" columns can be set to "true" to read the field and value from the data set.
+	 * <pre>
+	 * | field     | value      | value alias |
+	 * | firstName | First Name | true        |
+	 * | country   | Australia  |             |
+	 * </pre>
+	 *
+	 * @param exists If this text is set, fields that could not be populated are logged rather than
+	 *               failing the step.
+	 * @param fields The table of fields and values
+	 */
+	@When("^I populate the following fields( if they exist)?:?$")
+	public void populateFieldsStep(final String exists, final DataTable fields) {
+		final FeatureState featureState = State.getFeatureStateForThread();
+
+		final List<Tuple2<String, String>> fixedFields = fields.asMaps(String.class, String.class).stream()
+			.map(x -> Tuple.of(
+				getTableValue(x.get(FIELD_COLUMN), x.get(FIELD_ALIAS_COLUMN), featureState),
+				getTableValue(x.get(VALUE_COLUMN), x.get(VALUE_ALIAS_COLUMN), featureState)))
+			.collect(Collectors.toList());
+
+		checkState(fixedFields.stream().allMatch(x -> StringUtils.isNotBlank(x._1)),
+			"every row needs a field");
+
+		final List<Tuple2<String, String>> failures = formPopulator.populate(
+			State.getThreadDesiredCapabilityMap().getWebDriverForThread(),
+			fixedFields,
+			featureState.getDefaultWait());
+
+		if (!failures.isEmpty()) {
+			final String message = "The following fields could not be populated\n" + failures.stream()
+				.map(x -> x._1 + ": " + x._2)
+				.collect(Collectors.joining("\n"));
+
+			if (StringUtils.isBlank(exists)) {
+				throw new WebElementException(message);
+			}
+
+			LOGGER.info(message);
+		}
+
+		sleepUtils.sleepAfterAction();
+	}
+
+	/**
+	 * Blank values are returned as they are, so a field can be populated with an empty value
+	 */
+	private String getTableValue(final String value, final String alias, final FeatureState featureState) {
+		if (StringUtils.isBlank(value)) {
+			return StringUtils.defaultString(value);
+		}
+
+		final String fixedValue = autoAliasUtils.getValue(value, BooleanUtils.toBoolean(alias), featureState);
+		checkState(fixedValue != null, "the aliased value " + value + " does not exist");
+		return fixedValue;
+	}
+
 	/**
 	 * Populates an element with a random number
 	 *
@@ -507,7 +583,7 @@ public class TextEntryStepDefinitions {
 			// Simulate key presses
 			browserInteropUtils.populateElement(webDriver, element, random.toString());
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -587,7 +663,7 @@ public class TextEntryStepDefinitions {
 			// Simulate key presses
 			browserInteropUtils.populateElement(webDriver, element, random.toString());
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -646,7 +722,7 @@ public class TextEntryStepDefinitions {
 					+ SINGLE_QUOTE_RE.matcher(textValue).replaceAll("\\'")
 					+ "';", element);
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -707,7 +783,7 @@ public class TextEntryStepDefinitions {
 					+ SINGLE_QUOTE_RE.matcher(textValue).replaceAll("\\'")
 					+ "';", element);
 
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -785,7 +861,7 @@ public class TextEntryStepDefinitions {
 
 				browserInteropUtils.populateElement(webDriver, element, textValue.toString());
 
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+				sleepUtils.sleepAfterAction();
 			}
 		} catch (final TimeoutException ex) {
 			if (StringUtils.isBlank(exists)) {
@@ -11,7 +11,6 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
 import cucumber.api.java.en.Then;
 import cucumber.api.java.en.When;
-import net.lightbody.bmp.util.HttpMessageInfo;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.junit.Assert;
@@ -45,6 +44,8 @@ public class ValidationStepDefinitions {
 	private GetBy getBy;
 	@Autowired
 	private SimpleWebElementInteraction simpleWebElementInteraction;
+	@Autowired
+	private PageTextSearch pageTextSearch;
 
 	/**
 	 * Verify the title in the browser
@@ -93,7 +94,7 @@ public class ValidationStepDefinitions {
 				.split(element.getAttribute("class"));
 
 			Assert.assertTrue(Iterables.contains(split, className));
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final WebElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -146,7 +147,7 @@ public class ValidationStepDefinitions {
 				.split(element.getAttribute("class"));
 
 			Assert.assertTrue(Iterables.contains(split, className));
-			sleepUtils.sleep(State.getFeatureStateForThread().getDefaultSleep());
+			sleepUtils.sleepAfterAction();
 		} catch (final TimeoutException | NoSuchElementException ex) {
 			if (StringUtils.isBlank(exists)) {
 				throw ex;
@@ -259,31 +260,19 @@ public class ValidationStepDefinitions {
 	 * range 400 - 599, we output those as an error.
 	 * @param qualifier can be used to specify if errors were expected or not
 	 */
-	@SuppressWarnings("unchecked")
 	@Then("(?:I verify(?: that)? )?there were (no|some) HTTP errors")
 	public void verifyHttpCodes(final String qualifier) {
-		final Optional<ProxyDetails<?>> browserMob =
-			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
-
-		if (browserMob.isPresent()) {
-			if (browserMob.get().getProperties().containsKey(BrowsermobProxyUtilsImpl.INVALID_REQUESTS)) {
-				final List<HttpMessageInfo> responses =
-					(List<HttpMessageInfo>) browserMob.get()
-						.getProperties().get(BrowsermobProxyUtilsImpl.INVALID_REQUESTS);
-
-				if ("no".equals(qualifier) && !responses.isEmpty()) {
-					final StringBuilder message =
-						new StringBuilder("The following URLs returned HTTP errors\n");
-
-					responses.stream().forEach(x -> {
-						message.append(x.getOriginalUrl());
-						message.append("\n");
-					});
-
-					throw new HttpResponseException(message.toString());
-				} else if ("some".equals(qualifier) && responses.isEmpty()) {
-					throw new HttpResponseException("No HTTP errors were found");
-				}
+		final Optional<HttpErrorTracker> tracker = getHttpErrorTracker();
+
+		if (tracker.isPresent()) {
+			final String threadName = Thread.currentThread().getName();
+			final long errorCount = tracker.get().getErrorCount(threadName);
+
+			if ("no".equals(qualifier) && errorCount != 0) {
+				throw new HttpResponseException(
+					getHttpErrorMessage(tracker.get().getErrors(threadName), errorCount));
+			} else if ("some".equals(qualifier) && errorCount == 0) {
+				throw new HttpResponseException("No HTTP errors were found");
 			}
 		}
 	}
@@ -293,32 +282,42 @@ public class ValidationStepDefinitions {
 	 * range 400 - 599, we report them. Note that we don't throw an error, so the scenario won't
 	 * fail
 	 */
-	@SuppressWarnings("unchecked")
 	@Then("I report any HTTP errors")
 	public void reportHttpCodes() {
-		final Optional<ProxyDetails<?>> browserMob =
-			State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME);
+		final Optional<HttpErrorTracker> tracker = getHttpErrorTracker();
 
-		if (browserMob.isPresent()) {
-			if (browserMob.get().getProperties().containsKey(BrowsermobProxyUtilsImpl.INVALID_REQUESTS)) {
-				final List<HttpMessageInfo> responses =
-					(List<HttpMessageInfo>) browserMob.get()
-						.getProperties().get(BrowsermobProxyUtilsImpl.INVALID_REQUESTS);
+		if (tracker.isPresent()) {
+			final String threadName = Thread.currentThread().getName();
+			final long errorCount = tracker.get().getErrorCount(threadName);
 
-				if (!responses.isEmpty()) {
+			if (errorCount != 0) {
+				LOGGER.info(getHttpErrorMessage(tracker.get().getErrors(threadName), errorCount));
+			}
+		}
+	}
 
-					final StringBuilder message =
-						new StringBuilder("The following URLs returned HTTP errors\n");
+	private Optional<HttpErrorTracker> getHttpErrorTracker() {
+		return State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME)
+			.map(x -> x.getProperties().get(BrowsermobProxyUtilsImpl.INVALID_REQUESTS))
+			.map(HttpErrorTracker.class::cast);
+	}
 
-					responses.stream().forEach(x -> {
-						message.append(x.getOriginalUrl());
-						message.append("\n");
-					});
+	private String getHttpErrorMessage(final List<HttpErrorRecord> errors, final long errorCount) {
+		final StringBuilder message =
+			new StringBuilder("The following URLs returned HTTP errors\n");
 
-					LOGGER.info(message.toString());
-				}
-			}
+		errors.forEach(x -> {
+			message.append(x.getUrl());
+			message.append("\n");
+		});
+
+		if (errorCount > errors.size()) {
+			message.append("... and ");
+			message.append(errorCount - errors.size());
+			message.append(" earlier errors\n");
 		}
+
+		return message.toString();
 	}
 
 	/**
@@ -331,15 +330,11 @@ public class ValidationStepDefinitions {
 		final String fixedtext = autoAliasUtils.getValue(text, StringUtils.isNotBlank(alias), State.getFeatureStateForThread());
 
 		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
-		/*
-			getText() can fail here, we we use the innerText attribute instead.
-			https://github.com/AutoGeneral/IridiumApplicationTesting/issues/109
-		 */
-		final String pageText =
-			webDriver.findElement(By.tagName("body")).getAttribute("innerText");
-
-		if (!pageText.contains(fixedtext)) {
-			throw new ValidationException("Could not find the text \"" + fixedtext + "\" on the page with text " + pageText);
+		final PageTextMatch match = pageTextSearch.findText(webDriver, fixedtext);
+
+		if (!match.isFound()) {
+			throw new ValidationException("Could not find the text \"" + fixedtext + "\" on the page, where "
+				+ match.getDescription());
 		}
 	}
 
@@ -353,14 +348,11 @@ public class ValidationStepDefinitions {
 		final String fixedRegex = autoAliasUtils.getValue(regex, StringUtils.isNotBlank(alias), State.getFeatureStateForThread());
 
 		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
+		final PageTextMatch match = pageTextSearch.findRegex(webDriver, fixedRegex);
 
-		final Pattern pattern = Pattern.compile(fixedRegex);
-
-		final String pageText =
-			webDriver.findElement(By.tagName("body")).getAttribute("innerText");
-
-		if (!pattern.matcher(pageText).find()) {
-			throw new ValidationException("Could not find the regex \"" + fixedRegex + "\" on the page with text " + pageText);
+		if (!match.isFound()) {
+			throw new ValidationException("Could not find the regex \"" + fixedRegex + "\" on the page, where "
+				+ match.getDescription());
 		}
 	}
 
@@ -374,11 +366,11 @@ public class ValidationStepDefinitions {
 		final String fixedtext = autoAliasUtils.getValue(text, StringUtils.isNotBlank(alias), State.getFeatureStateForThread());
 
 		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
-		final String pageText =
-			webDriver.findElement(By.tagName("body")).getAttribute("innerText");
+		final PageTextMatch match = pageTextSearch.findText(webDriver, fixedtext);
 
-		if (pageText.contains(fixedtext)) {
-			throw new ValidationException("Found the text \"" + fixedtext + "\" on the page with text " + pageText);
+		if (match.isFound()) {
+			throw new ValidationException("Found the text \"" + fixedtext + "\" on the page, where "
+				+ match.getDescription());
 		}
 	}
 
@@ -392,14 +384,11 @@ public class ValidationStepDefinitions {
 		final String fixedRegex = autoAliasUtils.getValue(regex, StringUtils.isNotBlank(alias), State.getFeatureStateForThread());
 
 		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
+		final PageTextMatch match = pageTextSearch.findRegex(webDriver, fixedRegex);
 
-		final Pattern pattern = Pattern.compile(fixedRegex);
-
-		final String pageText =
-			webDriver.findElement(By.tagName("body")).getAttribute("innerText");
-
-		if (pattern.matcher(pageText).find()) {
-			throw new ValidationException("Found the regex \"" + fixedRegex + "\" on the page with text " + pageText);
+		if (match.isFound()) {
+			throw new ValidationException("Found the regex \"" + fixedRegex + "\" on the page, where "
+				+ match.getDescription());
 		}
 	}
 
@@ -18,7 +18,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.regex.Pattern;
+import java.util.Optional;
 
 /**
  * This class contains Gherkin steps that define wait conditions.
@@ -34,6 +34,8 @@ public class WaitStepDefinitions {
 	@Autowired
 	private SleepUtils sleepUtils;
 	@Autowired
+	private WaitUtils waitUtils;
+	@Autowired
 	private GetBy getBy;
 	@Autowired
 	private AutoAliasUtils autoAliasUtils;
@@ -41,6 +43,14 @@ public class WaitStepDefinitions {
 	private SimpleWebElementInteraction simpleWebElementInteraction;
 	@Autowired
 	private BrowserInteropUtils browserInteropUtils;
+	@Autowired
+	private NetworkIdleUtils networkIdleUtils;
+	@Autowired
+	private DomStabilityUtils domStabilityUtils;
+	@Autowired
+	private PageTextSearch pageTextSearch;
+	@Autowired
+	private SystemPropertyUtils systemPropertyUtils;
 
 	/**
 	 * Pauses the execution of the test script for the given number of seconds
@@ -783,39 +793,23 @@ public class WaitStepDefinitions {
 	 * @param text          The text to find on the page, or the alias to the text
 	 * @param ignoreTimeout If this text is present in the step, the step will silently fail if the
 	 *                      requested page text could not be found
-	 * @throws InterruptedException Thread.sleep was interrupted
 	 */
 	@Then("^I wait \"(\\d+)\" seconds for the page to contain the text( alias)? \"(.*?)\"(,? ignoring timeouts?)?")
-	public void verifyPageContent(final Integer wait, final String alias, final String text, final String ignoreTimeout) throws InterruptedException {
+	public void verifyPageContent(final Integer wait, final String alias, final String text, final String ignoreTimeout) {
 		final String fixedText = autoAliasUtils.getValue(text, StringUtils.isNotBlank(alias), State.getFeatureStateForThread());
 
 		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 
-		final long start = System.currentTimeMillis();
-
-		String pageText = null;
-
-		do {
-			/*
-				getText() can fail here, we we use the innerText attribute instead.
-				https://github.com/AutoGeneral/IridiumApplicationTesting/issues/109
-			 */
-			 pageText = webDriver.findElement(By.tagName("body")).getAttribute("innerText");
-
-			if (pageText != null && pageText.contains(fixedText)) {
-				return;
-			}
-
-			Thread.sleep(Constants.TIME_SLICE);
+		final PageTextMatch[] match = {null};
 
-		}
-		while (System.currentTimeMillis() - start < wait * Constants.MILLISECONDS_PER_SECOND);
+		final WaitResult<Boolean> result = waitUtils.waitUntil(wait * MILLISECONDS_PER_SECOND, () -> {
+			match[0] = pageTextSearch.findText(webDriver, fixedText);
+			return match[0].isFound();
+		});
 
-		if (StringUtils.isBlank(ignoreTimeout)) {
-			throw new ValidationException("Could not find the text \"" + fixedText + "\" on the page with the text:\n"
-				+ pageText + "\n"
-				+ "and page source:\n"
-				+ webDriver.getPageSource());
+		if (!result.isSuccessful() && StringUtils.isBlank(ignoreTimeout)) {
+			throw new ValidationException("Could not find the text \"" + fixedText + "\" on the page after "
+				+ result.getSummary() + ", where " + match[0].getDescription());
 		}
 	}
 
@@ -827,32 +821,22 @@ public class WaitStepDefinitions {
 	 * @param text          The text to find on the page, or the alias to the text
 	 * @param ignoreTimeout If this text is present in the step, the step will silently fail if the
 	 *                      requested page regex could not be found
-	 * @throws InterruptedException Thread.sleep was interrupted
 	 */
 	@Then("^I wait \"(\\d+)\" seconds for the page to contain the regex( alias)? \"(.*?)\"(,? ignoring timeouts?)?")
-	public void verifyPageRegexContent(final Integer wait, final String alias, final String text, final String ignoreTimeout) throws InterruptedException {
+	public void verifyPageRegexContent(final Integer wait, final String alias, final String text, final String ignoreTimeout) {
 		final String fixedRegex = autoAliasUtils.getValue(text, StringUtils.isNotBlank(alias), State.getFeatureStateForThread());
-		final Pattern pattern = Pattern.compile(fixedRegex);
-
 		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
 
-		final long start = System.currentTimeMillis();
-
-		do {
-			final String pageText =
-				webDriver.findElement(By.tagName("body")).getText();
-
-			if (pattern.matcher(pageText).find()) {
-				return;
-			}
+		final PageTextMatch[] match = {null};
 
-			Thread.sleep(Constants.TIME_SLICE);
+		final WaitResult<Boolean> result = waitUtils.waitUntil(wait * MILLISECONDS_PER_SECOND, () -> {
+			match[0] = pageTextSearch.findRegex(webDriver, fixedRegex);
+			return match[0].isFound();
+		});
 
-		}
-		while (System.currentTimeMillis() - start < wait * Constants.MILLISECONDS_PER_SECOND);
-
-		if (StringUtils.isBlank(ignoreTimeout)) {
-			throw new ValidationException("Could not find the regular expression \"" + fixedRegex + "\" on the page");
+		if (!result.isSuccessful() && StringUtils.isBlank(ignoreTimeout)) {
+			throw new ValidationException("Could not find the regular expression \"" + fixedRegex + "\" on the page after "
+				+ result.getSummary() + ", where " + match[0].getDescription());
 		}
 	}
 
@@ -876,4 +860,75 @@ public class WaitStepDefinitions {
 			}
 		}
 	}
+
+	/**
+	 * Waits a period of time for the BrowserMob proxy to have no requests in flight. URLs
+	 * matching the regular expressions in the networkIdleIgnore system property, like long
+	 * polling requests, are not counted.
+	 *
+	 * @param waitDuration    The maximum amount of time to wait for
+	 * @param idleTime        The number of milliseconds that no requests have to be in flight. Defaults
+	 *                        to the networkIdleTime system property.
+	 * @param ignoringTimeout Include this string to ignore a timeout waiting for the network
+	 */
+	@When("^I wait \"(\\d+)\" seconds for the network to be idle(?: for \"(\\d+)\" milliseconds)?(,? ignoring timeouts?)?$")
+	public void waitForNetworkIdle(final Integer waitDuration, final Integer idleTime, final String ignoringTimeout) {
+		final long fixedIdleTime = idleTime == null
+			? systemPropertyUtils.getPropertyAsInt(Constants.NETWORK_IDLE_TIME, Constants.DEFAULT_NETWORK_IDLE_TIME)
+			: idleTime;
+
+		final Optional<WaitResult<Boolean>> result =
+			networkIdleUtils.waitForNetworkIdle(fixedIdleTime, waitDuration * MILLISECONDS_PER_SECOND);
+
+		if (!result.isPresent()) {
+			LOGGER.info("WEBAPPTESTER-INFO-0018: The BrowserMob proxy is not running, "
+				+ "so network activity can not be monitored");
+		} else if (!result.get().isSuccessful() && StringUtils.isBlank(ignoringTimeout)) {
+			throw new ValidationException("The network was not idle for " + fixedIdleTime + " milliseconds after "
+				+ result.get().getSummary());
+		}
+	}
+
+	/**
+	 * Waits a period of time for the page to stop changing, or for an element to be added to the page.
+	 * The wait happens inside the browser, so it is a single request to the browser however long it takes.
+	 *
+	 * @param waitDuration    The maximum amount of time to wait for
+	 * @param quietTime       The number of milliseconds that the page has to go without changing. Defaults
+	 *                        to the domQuietTime system property.
+	 * @param alias           If this word is found in the step, it means the selectorValue is found from the
+	 *                        data set.
+	 * @param selectorValue   An optional css selector that ends the wait as soon as it matches an element.
+	 *                        If alias was set, this value is found from the data set. Otherwise it is a
+	 *                        literal value.
+	 * @param ignoringTimeout Include this string to ignore a timeout waiting for the page
+	 */
+	@When("^I wait \"(\\d+)\" seconds for the page to stop changing(?: for \"(\\d+)\" milliseconds)?"
+		+ "(?: or (?:a|an|the) element with (?:a|an|the) css selector( alias)? of \"([^\"]*)\" to be present)?"
+		+ "(,? ignoring timeouts?)?$")
+	public void waitForStableDom(
+		final Integer waitDuration,
+		final Integer quietTime,
+		final String alias,
+		final String selectorValue,
+		final String ignoringTimeout) {
+
+		final long fixedQuietTime = quietTime == null
+			? systemPropertyUtils.getPropertyAsInt(Constants.DOM_QUIET_TIME, Constants.DEFAULT_DOM_QUIET_TIME)
+			: quietTime;
+
+		final Optional<String> selector = Optional.ofNullable(selectorValue)
+			.map(x -> autoAliasUtils.getValue(x, StringUtils.isNotBlank(alias), State.getFeatureStateForThread()));
+
+		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
+		final WaitResult<DomStabilityUtils.Outcome> result = domStabilityUtils.waitForStableDom(
+			webDriver,
+			fixedQuietTime,
+			selector,
+			waitDuration * MILLISECONDS_PER_SECOND);
+
+		if (!result.isSuccessful() && StringUtils.isBlank(ignoringTimeout)) {
+			throw new ValidationException("The page was still changing after " + result.getSummary());
+		}
+	}
 }
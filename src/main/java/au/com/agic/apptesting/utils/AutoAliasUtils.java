@@ -8,8 +8,10 @@ import javax.validation.constraints.NotNull;
 public interface AutoAliasUtils {
 
 	/**
-	 * 
-	 * @param value The value passed in, which could represent an alias or a raw value
+	 * Values that are not aliases may be templates that reference aliases, like
+	 * "${firstName}-${id}". The placeholders in templates are replaced with the alias values.
+	 *
+	 * @param value The value passed in, which could represent an alias, a template or a raw value
 	 * @param forceAlias true if the alias must be used, and false if the use of the alias is
 	 *                   determined by the FeatureState
 	 * @param featureState The statue of the feature
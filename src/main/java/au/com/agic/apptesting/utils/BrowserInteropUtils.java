@@ -5,6 +5,7 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
 import javax.validation.constraints.NotNull;
+import java.util.List;
 
 /**
  * We need to test for certain conditions between the various browsers to account for compatibility
@@ -92,7 +93,7 @@ public interface BrowserInteropUtils {
 	void setWindowSize(final int width, final int height);
 
 	/**
-	 * Send the keys to the element
+	 * Send the keys to the element, using the default keystroke delay of the feature
 	 *
 	 * @param webDriver The webdriver
 	 * @param element   The element to populate
@@ -102,4 +103,35 @@ public interface BrowserInteropUtils {
 		@NotNull final WebDriver webDriver,
 		@NotNull final WebElement element,
 		@NotNull final String value);
+
+	/**
+	 * Send the keys to the element
+	 *
+	 * @param webDriver The webdriver
+	 * @param element   The element to populate
+	 * @param value     The value to enter into the element
+	 * @param delay     The number of milliseconds to pause between each character
+	 */
+	void populateElement(
+		@NotNull final WebDriver webDriver,
+		@NotNull final WebElement element,
+		@NotNull final String value,
+		final long delay);
+
+	/**
+	 * Sends a sequence of keys to the element. Without a delay the keys are sent with one command.
+	 * With a delay the first key is sent to the element, and the rest are sent as a single chain of
+	 * actions with a pause between each key, so the browser is only contacted twice however
+	 * many keys there are.
+	 *
+	 * @param webDriver The webdriver
+	 * @param element   The element to send the keys to
+	 * @param keys      The keys to send, in order
+	 * @param delay     The number of milliseconds to pause between each key
+	 */
+	void typeKeys(
+		@NotNull final WebDriver webDriver,
+		@NotNull final WebElement element,
+		@NotNull final List<? extends CharSequence> keys,
+		final long delay);
 }
@@ -0,0 +1,51 @@
+package au.com.agic.apptesting.utils;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import javax.validation.constraints.NotNull;
+import java.util.Set;
+
+/**
+ * Holds a copy of the browser cookies for each test thread, so the proxy threads can read
+ * them without making a WebDriver request while the browser is waiting on the proxy.
+ * The snapshots are refreshed by the test threads themselves.
+ */
+public interface CookieSnapshotCache {
+
+	/**
+	 * Starts keeping a snapshot of the cookies for a test thread
+	 *
+	 * @param threadName The name of the test thread
+	 */
+	void track(@NotNull String threadName);
+
+	/**
+	 * Stops keeping a snapshot of the cookies for a test thread
+	 *
+	 * @param threadName The name of the test thread
+	 */
+	void untrack(@NotNull String threadName);
+
+	/**
+	 * @param threadName The name of the test thread
+	 * @return true if the cookies of the test thread are being tracked
+	 */
+	boolean isTracked(@NotNull String threadName);
+
+	/**
+	 * Replaces the snapshot with the cookies currently held by the browser. This must be called
+	 * from the test thread, and does nothing if the thread is not tracked.
+	 *
+	 * @param threadName The name of the test thread
+	 * @param webDriver  The browser used by the test thread
+	 */
+	void refresh(@NotNull String threadName, @NotNull WebDriver webDriver);
+
+	/**
+	 * @param threadName The name of the test thread
+	 * @return The cookies held by the browser when the snapshot was last refreshed
+	 */
+	@NotNull
+	Set<Cookie> getCookies(@NotNull String threadName);
+}
@@ -0,0 +1,43 @@
+package au.com.agic.apptesting.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+
+/**
+ * A service that waits inside the browser for the page to stop changing. The wait is made
+ * with a single call to the browser, rather than polling the browser until a condition is met.
+ */
+public interface DomStabilityUtils {
+
+	/**
+	 * The reason a wait for the page finished
+	 */
+	enum Outcome {
+		/**
+		 * The page did not change for the quiet time
+		 */
+		QUIET,
+		/**
+		 * An element matching the selector was found
+		 */
+		SELECTOR_FOUND
+	}
+
+	/**
+	 * Waits until the page has not changed for the quiet time, or until an element matching the
+	 * selector is in the page.
+	 *
+	 * @param webDriver The web driver to wait with
+	 * @param quietTime The time in milliseconds that the page has to go without changing
+	 * @param selector  An optional css selector that ends the wait as soon as it matches an element
+	 * @param timeout   The maximum time to wait in milliseconds
+	 * @return The result of the wait, which is empty if the page was still changing when the wait timed out
+	 */
+	WaitResult<Outcome> waitForStableDom(
+		@NotNull WebDriver webDriver,
+		long quietTime,
+		@NotNull Optional<String> selector,
+		long timeout);
+}
@@ -0,0 +1,37 @@
+package au.com.agic.apptesting.utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * A service that keeps browser driver servers (like chromedriver and geckodriver) running between
+ * browser sessions, so a new driver process is not started for every browser.
+ */
+public interface DriverServiceManager {
+	/**
+	 * Creates a Chrome session against the shared chromedriver process, which supports many
+	 * concurrent sessions
+	 *
+	 * @param capabilities The capabilities, including the Chrome options, of the new session
+	 * @return The new web driver
+	 */
+	@NotNull
+	WebDriver createChromeDriver(@NotNull Capabilities capabilities);
+
+	/**
+	 * Creates a Firefox session against an idle geckodriver process. Geckodriver only supports one
+	 * session at a time, so the processes are pooled and returned when the session is quit.
+	 *
+	 * @param capabilities The capabilities, including the Firefox options, of the new session
+	 * @return The new web driver
+	 */
+	@NotNull
+	WebDriver createFirefoxDriver(@NotNull Capabilities capabilities);
+
+	/**
+	 * Stops all the driver processes. They will be started again if another session is requested.
+	 */
+	void shutdown();
+}
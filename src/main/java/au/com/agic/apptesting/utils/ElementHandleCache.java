@@ -0,0 +1,33 @@
+package au.com.agic.apptesting.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+
+/**
+ * A cache of the elements recently found by the current thread, so steps that work with the
+ * same element one after the other don't have to find it again. A cached element is checked
+ * with a single request to the browser before it is returned.
+ */
+public interface ElementHandleCache {
+
+	/**
+	 * @param webDriver The web driver that found the element
+	 * @param value     The value used to find the element, with any alias already resolved
+	 * @param condition The state that the element has to be in
+	 * @return The cached element, or an empty result if the element was not cached, has been
+	 * removed from the page, belongs to another page, frame or window, or does not match the condition
+	 */
+	Optional<LocatedElement> get(
+		@NotNull WebDriver webDriver,
+		@NotNull String value,
+		@NotNull ElementLocator.Condition condition);
+
+	/**
+	 * @param webDriver The web driver that found the element
+	 * @param value     The value used to find the element, with any alias already resolved
+	 * @param element   The element that was found
+	 */
+	void put(@NotNull WebDriver webDriver, @NotNull String value, @NotNull LocatedElement element);
+}
@@ -0,0 +1,61 @@
+package au.com.agic.apptesting.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import javax.validation.constraints.NotNull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A service that tries a number of location methods against a page in a single request
+ * to the browser, returning the first element that matched.
+ */
+public interface ElementLocator {
+
+	/**
+	 * The location methods tried by the steps that find an element by a single value
+	 */
+	List<String> DEFAULT_LOCATION_METHODS = Collections.unmodifiableList(Arrays.asList(
+		GetBy.ID,
+		GetBy.CLASS,
+		GetBy.CSS_SELECTOR,
+		GetBy.NAME,
+		GetBy.TEXT,
+		GetBy.VALUE,
+		GetBy.XPATH));
+
+	/**
+	 * The state that an element has to be in before it is returned
+	 */
+	enum Condition {
+		/**
+		 * The element exists in the DOM
+		 */
+		PRESENT,
+		/**
+		 * The element exists in the DOM and is displayed
+		 */
+		VISIBLE,
+		/**
+		 * The element is displayed and enabled
+		 */
+		CLICKABLE
+	}
+
+	/**
+	 * Makes a single attempt to find an element. This method does not wait.
+	 *
+	 * @param webDriver  The web driver to search with
+	 * @param strategies The location methods to try, in order, as the constants defined in GetBy
+	 * @param value      The value to find the element with. Any alias must already have been resolved.
+	 * @param condition  The state that the element has to be in to be matched
+	 * @return The first element that matched, or an empty result if no element was matched
+	 */
+	Optional<LocatedElement> locate(
+		@NotNull WebDriver webDriver,
+		@NotNull List<String> strategies,
+		@NotNull String value,
+		@NotNull Condition condition);
+}
@@ -0,0 +1,39 @@
+package au.com.agic.apptesting.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+
+/**
+ * A service that finds the element used by the next step once the current step has finished
+ * sleeping after an action. The lookup runs on the test thread after the sleep, so it does not
+ * overlap the sleep, and the element is checked again before the next step uses it.
+ */
+public interface ElementPrefetcher {
+
+	/**
+	 * Sleeps, finding the element used by the next step at the end of the sleep. The full sleep
+	 * is always taken, so the page has the same time to respond as it does without prefetching.
+	 *
+	 * @param sleep how long in milliseconds to pause the thread for
+	 */
+	void sleepAndPrefetch(long sleep);
+
+	/**
+	 * Returns the element found for the step that is running. The element is only returned once,
+	 * and only to the step that follows the one that found it. The element is checked with a
+	 * single request to the browser before it is returned, because the page may have changed
+	 * since it was found.
+	 *
+	 * @param webDriver The web driver used by the step
+	 * @param value     The value used to find the element, with any alias already resolved
+	 * @param condition The state that the element has to be in
+	 * @return The element, or an empty result if no element was found for the value, or the
+	 * element is no longer attached to the page or does not match the condition
+	 */
+	Optional<LocatedElement> takePrefetched(
+		@NotNull WebDriver webDriver,
+		@NotNull String value,
+		@NotNull ElementLocator.Condition condition);
+}
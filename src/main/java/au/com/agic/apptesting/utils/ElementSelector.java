@@ -0,0 +1,107 @@
+package au.com.agic.apptesting.utils;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.validation.constraints.NotNull;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A value used to find an element, which can start with a prefix like "css:" or "xpath:" to
+ * name the one location method that is used to find it. Values without a prefix are found by
+ * trying each of the default location methods.
+ * <p>
+ * Prefixes are only read when the elementSelectorPrefixes system property is set to true, because
+ * existing values like "name: John" would otherwise change meaning. When prefixes are read, a value
+ * that starts with a backslash followed by a prefix, like "\name: John", is used without the
+ * backslash and found by trying each of the default location methods.
+ */
+public final class ElementSelector {
+	/**
+	 * The prefixes that name a location method, mapped to the constants defined in GetBy
+	 */
+	public static final Map<String, String> PREFIXES;
+	/**
+	 * Placed before a prefix to use it as part of the value
+	 */
+	public static final String ESCAPE = "\\";
+
+	static {
+		final Map<String, String> prefixes = new LinkedHashMap<>();
+		prefixes.put("id:", GetBy.ID);
+		prefixes.put("class:", GetBy.CLASS);
+		prefixes.put("css:", GetBy.CSS_SELECTOR);
+		prefixes.put("name:", GetBy.NAME);
+		prefixes.put("text:", GetBy.TEXT);
+		prefixes.put("value:", GetBy.VALUE);
+		prefixes.put("xpath:", GetBy.XPATH);
+		PREFIXES = Collections.unmodifiableMap(prefixes);
+	}
+
+	private final String value;
+	private final Optional<String> strategy;
+
+	private ElementSelector(final String value, final Optional<String> strategy) {
+		this.value = value;
+		this.strategy = strategy;
+	}
+
+	/**
+	 * @param value           The value used to find the element, with any alias already resolved
+	 * @param prefixesEnabled true if the value can start with a prefix or an escaped prefix, and
+	 *                        false if the value is always used as is
+	 * @return The selector
+	 */
+	public static ElementSelector parse(@NotNull final String value, final boolean prefixesEnabled) {
+		checkNotNull(value);
+
+		if (!prefixesEnabled) {
+			return new ElementSelector(value, Optional.empty());
+		}
+
+		if (value.startsWith(ESCAPE)
+				&& PREFIXES.keySet().stream().anyMatch(prefix -> value.startsWith(prefix, ESCAPE.length()))) {
+			return new ElementSelector(value.substring(ESCAPE.length()), Optional.empty());
+		}
+
+		for (final Map.Entry<String, String> prefix : PREFIXES.entrySet()) {
+			if (value.startsWith(prefix.getKey())
+					&& StringUtils.isNotBlank(value.substring(prefix.getKey().length()))) {
+				return new ElementSelector(
+					value.substring(prefix.getKey().length()),
+					Optional.of(prefix.getValue()));
+			}
+		}
+
+		return new ElementSelector(value, Optional.empty());
+	}
+
+	/**
+	 * @return The value with any prefix removed
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * @return The location method named by the prefix, or an empty result if there was no prefix
+	 */
+	public Optional<String> getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * @param defaultStrategies The location methods to use if there was no prefix
+	 * @return The location method named by the prefix, or the default location methods
+	 */
+	public List<String> getStrategies(@NotNull final List<String> defaultStrategies) {
+		checkNotNull(defaultStrategies);
+
+		return strategy.map(Collections::singletonList).orElse(defaultStrategies);
+	}
+}
@@ -14,8 +14,7 @@ import java.util.Optional;
 public interface FeatureState {
 
 	default FeatureState getFeatureStateForThread() {
-		return State.getThreadDesiredCapabilityMap().getDesiredCapabilitiesForThread(
-			Thread.currentThread().getName());
+		return State.getFeatureStateForThread();
 	}
 
 	/**
@@ -49,7 +48,8 @@ public interface FeatureState {
 	Optional<UrlMapping> getUrlDetails();
 
 	/**
-	 * @return The data set associated with this instance of the test
+	 * @return The data set associated with this instance of the test. The returned map can't be
+	 * modified, and does not change when values are saved to the data set.
 	 */
 	Map<String, String> getDataSet();
 
@@ -58,6 +58,19 @@ public interface FeatureState {
 	 */
 	void setDataSet(Map<String, String> dataSet);
 
+	/**
+	 * Saves a value to the data set, replacing any existing value with the same key
+	 * @param key The key of the value
+	 * @param value The value
+	 */
+	void putDataSetValue(@NotNull String key, String value);
+
+	/**
+	 * Saves values to the data set, replacing any existing values with the same keys
+	 * @param values The values to save
+	 */
+	void putDataSetValues(@NotNull Map<String, String> values);
+
 	/**
 	 * @return true if there was a failed scenario, and false otherwise
 	 */
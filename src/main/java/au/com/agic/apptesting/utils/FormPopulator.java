@@ -0,0 +1,29 @@
+package au.com.agic.apptesting.utils;
+
+import io.vavr.Tuple2;
+import org.openqa.selenium.WebDriver;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * A service that populates a number of form fields with a single request to the browser
+ */
+public interface FormPopulator {
+	/**
+	 * Finds each field with the default location methods and sets its value, firing the input and
+	 * change events that typing would have fired. Text fields, text areas and drop down lists
+	 * are supported. Fields are only populated once every field has been found, or once the
+	 * wait time is up, in which case the fields that were found are populated.
+	 *
+	 * @param webDriver The web driver to populate the fields with
+	 * @param fields    The fields to populate in order, as the value used to find the field and the value
+	 *                  to populate it with. Any aliases must already have been resolved.
+	 * @param waitTime  The number of seconds to wait for the fields to be found
+	 * @return The fields that could not be populated, as the value used to find the field and the reason
+	 */
+	List<Tuple2<String, String>> populate(
+		@NotNull WebDriver webDriver,
+		@NotNull List<Tuple2<String, String>> fields,
+		long waitTime);
+}
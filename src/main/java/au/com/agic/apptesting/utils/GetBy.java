@@ -28,4 +28,15 @@ public interface GetBy {
 		boolean valueAlias,
 		String value,
 		FeatureState featureState);
+
+	/**
+	 * Map common selectors to Selenium selection objects
+	 *
+	 * @param selector   The name of the selector
+	 * @param fixedValue The value to use with the selector. Any alias must already have been resolved.
+	 * @return The Selenium selection object
+	 */
+	By getBy(
+		String selector,
+		String fixedValue);
 }
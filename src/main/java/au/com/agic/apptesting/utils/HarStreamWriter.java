@@ -0,0 +1,42 @@
+package au.com.agic.apptesting.utils;
+
+import net.lightbody.bmp.core.har.HarEntry;
+
+import javax.validation.constraints.NotNull;
+import java.io.File;
+
+/**
+ * Writes HAR entries to disk as they are captured, so long running tests do not hold
+ * every request and response in memory.
+ */
+public interface HarStreamWriter extends AutoCloseable {
+
+	/**
+	 * Queues an entry to be written. If the queue is full the entry is dropped
+	 * rather than blocking the proxy.
+	 *
+	 * @param entry The entry to write
+	 * @return true if the entry was queued, and false if it was dropped
+	 */
+	boolean write(@NotNull HarEntry entry);
+
+	/**
+	 * Writes a complete HAR file containing every entry captured so far. Capturing
+	 * continues into the original file.
+	 *
+	 * @param file The file to save the HAR snapshot to
+	 */
+	void snapshot(@NotNull File file);
+
+	/**
+	 *
+	 * @return The number of entries that were dropped because the writer could not keep up
+	 */
+	long getDroppedCount();
+
+	/**
+	 * Writes any queued entries, completes the HAR file and releases the file handle
+	 */
+	@Override
+	void close();
+}
@@ -0,0 +1,97 @@
+package au.com.agic.apptesting.utils;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A compact record of a response in the 400 - 599 range that passed through a proxy
+ */
+public class HttpErrorRecord {
+	private final long sequence;
+	private final String url;
+	private final int status;
+	private final long timestamp;
+	private final String owner;
+
+	/**
+	 * @param sequence  The position of this record in the order that errors were recorded
+	 * @param url       The URL that returned the error
+	 * @param status    The HTTP response code
+	 * @param timestamp The time the response was received, in milliseconds since the epoch
+	 * @param owner     The name of the test thread that owns the proxy, or an empty result if
+	 *                  the proxy is shared by all threads
+	 */
+	public HttpErrorRecord(
+			final long sequence,
+			@NotNull final String url,
+			final int status,
+			final long timestamp,
+			@NotNull final Optional<String> owner) {
+		checkNotNull(url);
+		checkNotNull(owner);
+
+		this.sequence = sequence;
+		this.url = url;
+		this.status = status;
+		this.timestamp = timestamp;
+		this.owner = owner.orElse(null);
+	}
+
+	/**
+	 *
+	 * @return The position of this record in the order that errors were recorded
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 *
+	 * @return The URL that returned the error
+	 */
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 *
+	 * @return The HTTP response code
+	 */
+	public int getStatus() {
+		return status;
+	}
+
+	/**
+	 *
+	 * @return The time the response was received, in milliseconds since the epoch
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 *
+	 * @return The name of the test thread that owns the proxy, or an empty result if
+	 * the proxy is shared by all threads
+	 */
+	public Optional<String> getOwner() {
+		return Optional.ofNullable(owner);
+	}
+
+	@Override
+	public String toString() {
+		return status + " " + url;
+	}
+
+	/**
+	 *
+	 * @return A single tab separated line describing this record
+	 */
+	public String toLogLine() {
+		return timestamp + "\t" + StringUtils.defaultString(owner, "-") + "\t" + status + "\t" + url;
+	}
+}
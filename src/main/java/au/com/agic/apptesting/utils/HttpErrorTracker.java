@@ -0,0 +1,32 @@
+package au.com.agic.apptesting.utils;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Keeps track of the HTTP errors returned through a proxy. Memory use is bounded, so
+ * only the most recent errors are kept, but every error is counted.
+ */
+public interface HttpErrorTracker {
+
+	/**
+	 * Records an error response. This is called from the proxy threads, and does not block.
+	 *
+	 * @param url    The URL that returned the error
+	 * @param status The HTTP response code
+	 */
+	void record(@NotNull String url, int status);
+
+	/**
+	 * @param threadName The name of the test thread
+	 * @return The most recent errors that are visible to the test thread, oldest first
+	 */
+	List<HttpErrorRecord> getErrors(@NotNull String threadName);
+
+	/**
+	 * @param threadName The name of the test thread
+	 * @return The total number of errors visible to the test thread, including those
+	 * that are no longer held in memory
+	 */
+	long getErrorCount(@NotNull String threadName);
+}
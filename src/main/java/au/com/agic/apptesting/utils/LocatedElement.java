@@ -0,0 +1,42 @@
+package au.com.agic.apptesting.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openqa.selenium.WebElement;
+
+import javax.validation.constraints.NotNull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An element that was found by the element locator, along with the location method
+ * that found it
+ */
+public class LocatedElement {
+	private final WebElement element;
+	private final String strategy;
+
+	public LocatedElement(@NotNull final WebElement element, @NotNull final String strategy) {
+		checkNotNull(element);
+		checkArgument(StringUtils.isNotBlank(strategy));
+
+		this.element = element;
+		this.strategy = strategy;
+	}
+
+	/**
+	 *
+	 * @return The element that was found
+	 */
+	public WebElement getElement() {
+		return element;
+	}
+
+	/**
+	 *
+	 * @return The location method that found the element, as one of the constants defined in GetBy
+	 */
+	public String getStrategy() {
+		return strategy;
+	}
+}
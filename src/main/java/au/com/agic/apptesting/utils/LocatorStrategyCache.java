@@ -0,0 +1,43 @@
+package au.com.agic.apptesting.utils;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Remembers the location method that found each value, so the same location method can be
+ * tried first the next time the value is used. The cache is shared by every test thread, and
+ * can be saved so later runs start with what was learned.
+ */
+public interface LocatorStrategyCache {
+
+	/**
+	 * @param value             The value used to find the element
+	 * @param defaultStrategies The location methods to try, in order, as the constants defined in GetBy
+	 * @return The location methods with the one that last found the value moved to the front
+	 */
+	List<String> getStrategies(@NotNull String value, @NotNull List<String> defaultStrategies);
+
+	/**
+	 * Records the location method that found an element
+	 *
+	 * @param value    The value used to find the element
+	 * @param strategy The location method that found the element
+	 */
+	void recordStrategy(@NotNull String value, @NotNull String strategy);
+
+	/**
+	 * Records that an element was found with a location method named by a prefix, bypassing the cache
+	 */
+	void recordExplicitStrategy();
+
+	/**
+	 * @return A summary of the number of values in the cache and the hit rate
+	 */
+	String getStatistics();
+
+	/**
+	 * Saves the cache so it can be loaded by the next run. This does nothing if the cache
+	 * was not created with a file.
+	 */
+	void save();
+}
@@ -0,0 +1,17 @@
+package au.com.agic.apptesting.utils;
+
+import java.util.Optional;
+
+/**
+ * A service that waits for the requests made through the BrowserMob proxy to finish
+ */
+public interface NetworkIdleUtils {
+	/**
+	 * Waits until the proxy has had no requests in flight for the idle time
+	 *
+	 * @param idleTime The time in milliseconds that no requests have to be in flight
+	 * @param timeout  The maximum time to wait in milliseconds
+	 * @return The result of the wait, or an empty result if the BrowserMob proxy is not running
+	 */
+	Optional<WaitResult<Boolean>> waitForNetworkIdle(long idleTime, long timeout);
+}
@@ -0,0 +1,58 @@
+package au.com.agic.apptesting.utils;
+
+import javax.validation.constraints.NotNull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The result of searching the text of a page. Only a short snippet of the page text is
+ * kept, so the result can be included in error messages.
+ */
+public class PageTextMatch {
+	private final boolean found;
+	private final String snippet;
+	private final int pageLength;
+
+	public PageTextMatch(final boolean found, @NotNull final String snippet, final int pageLength) {
+		checkNotNull(snippet);
+		checkArgument(pageLength >= 0);
+
+		this.found = found;
+		this.snippet = snippet;
+		this.pageLength = pageLength;
+	}
+
+	/**
+	 *
+	 * @return true if the text was found on the page
+	 */
+	public boolean isFound() {
+		return found;
+	}
+
+	/**
+	 *
+	 * @return The text around the match if the text was found, or the start of the page text if it was not
+	 */
+	public String getSnippet() {
+		return snippet;
+	}
+
+	/**
+	 *
+	 * @return The number of characters in the page text
+	 */
+	public int getPageLength() {
+		return pageLength;
+	}
+
+	/**
+	 *
+	 * @return A description of the snippet that can be added to an error message
+	 */
+	public String getDescription() {
+		return (found ? "the text around the match was" : "the page text starts with")
+			+ " \"" + snippet + "\" (" + pageLength + " characters in total)";
+	}
+}
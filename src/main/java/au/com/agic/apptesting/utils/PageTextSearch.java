@@ -0,0 +1,28 @@
+package au.com.agic.apptesting.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * A service that searches the text of a page inside the browser, so only the
+ * result of the search is sent back
+ */
+public interface PageTextSearch {
+	/**
+	 * @param webDriver The web driver whose page is searched
+	 * @param text      The text to find
+	 * @return The result of the search
+	 */
+	PageTextMatch findText(@NotNull WebDriver webDriver, @NotNull String text);
+
+	/**
+	 * Regular expressions that JavaScript can't evaluate the same way as Java are
+	 * matched against the page text in the JVM instead.
+	 *
+	 * @param webDriver The web driver whose page is searched
+	 * @param regex     The Java regular expression to find
+	 * @return The result of the search
+	 */
+	PageTextMatch findRegex(@NotNull WebDriver webDriver, @NotNull String regex);
+}
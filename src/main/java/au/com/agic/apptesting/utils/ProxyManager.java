@@ -27,4 +27,27 @@ public interface ProxyManager {
 	 * @param reportOutput The directory holding report output
 	 */
 	void stopProxies(@NotNull List<ProxyDetails<?>> proxies, final String reportOutput);
+
+	/**
+	 * Create the proxies used by a single test thread. When the proxyPerThread system property is
+	 * set, each thread gets its own BrowserMob proxy, so the rules and HAR files of one thread don't
+	 * affect any other thread. Otherwise the global proxies are shared by every thread.
+	 * @param globalProxies The proxies returned by configureProxies()
+	 * @return The proxies to be used by the thread
+	 */
+	List<ProxyDetails<?>> configureThreadProxies(@NotNull List<ProxyDetails<?>> globalProxies);
+
+	/**
+	 * Gracefully shutdown the proxies that were created for a single test thread. This may be
+	 * called by another thread, like the main thread stopping any test threads that are left.
+	 * @param threadName The name of the test thread that the proxies belong to
+	 * @param threadProxies The proxies returned by configureThreadProxies()
+	 * @param globalProxies The proxies returned by configureProxies(), which are left running
+	 * @param reportOutput The directory holding report output
+	 */
+	void stopThreadProxies(
+		@NotNull String threadName,
+		@NotNull List<ProxyDetails<?>> threadProxies,
+		@NotNull List<ProxyDetails<?>> globalProxies,
+		String reportOutput);
 }
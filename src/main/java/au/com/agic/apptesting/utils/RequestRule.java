@@ -0,0 +1,19 @@
+package au.com.agic.apptesting.utils;
+
+import io.netty.handler.codec.http.HttpRequest;
+import net.lightbody.bmp.util.HttpMessageInfo;
+
+/**
+ * A change made to requests passing through the BrowserMob proxy
+ */
+@FunctionalInterface
+public interface RequestRule {
+
+	/**
+	 * Applies the rule to a request. This is called from the proxy threads.
+	 *
+	 * @param request     The request that can be modified
+	 * @param messageInfo The details of the original request
+	 */
+	void apply(HttpRequest request, HttpMessageInfo messageInfo);
+}
@@ -0,0 +1,31 @@
+package au.com.agic.apptesting.utils;
+
+import io.netty.handler.codec.http.FullHttpResponse;
+
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+
+/**
+ * Saves the responses returned by the backend, and returns them again when the same requests
+ * are made in a later run. Requests that are made more than once get their responses back
+ * in the order they were recorded.
+ */
+public interface ResponseRecordingStore {
+
+	/**
+	 * Saves the next response for a request
+	 *
+	 * @param key         The key that identifies the request
+	 * @param description A description of the request, saved with the response to make the
+	 *                    recordings easier to read
+	 * @param response    The response returned by the backend
+	 */
+	void save(@NotNull String key, @NotNull String description, @NotNull FullHttpResponse response);
+
+	/**
+	 * @param key The key that identifies the request
+	 * @return The next recorded response for the request. Once every response has been replayed,
+	 * the last one is returned again. An empty result is returned if no responses were recorded.
+	 */
+	Optional<FullHttpResponse> next(@NotNull String key);
+}
@@ -0,0 +1,50 @@
+package au.com.agic.apptesting.utils;
+
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A service that runs the Cucumber test combinations concurrently, and keeps track of
+ * how many of them completed and how many failed.
+ */
+public interface RunScheduler {
+
+	/**
+	 * Queues a test run. The first runs to be scheduled have their start offset from each other
+	 * so the browsers don't all launch at once, but scheduling never blocks the caller.
+	 *
+	 * @param run The test run, which returns true if it succeeded and false if it failed
+	 * @return A future that is completed with the outcome of the run
+	 */
+	CompletableFuture<Boolean> schedule(@NotNull Supplier<Boolean> run);
+
+	/**
+	 * @param listener A callback that is notified as each run completes. It is passed true if
+	 *                 the run succeeded, and false otherwise.
+	 */
+	void addCompletionListener(@NotNull Consumer<Boolean> listener);
+
+	/**
+	 * Blocks until every scheduled run has completed
+	 *
+	 * @return The number of runs that failed
+	 */
+	int awaitCompletion();
+
+	/**
+	 * @return The number of runs that have completed
+	 */
+	int getCompletedCount();
+
+	/**
+	 * @return The number of runs that completed with errors
+	 */
+	int getFailureCount();
+
+	/**
+	 * Stops the threads used to run the tests
+	 */
+	void shutdown();
+}
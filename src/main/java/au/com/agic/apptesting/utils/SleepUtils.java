@@ -9,4 +9,13 @@ public interface SleepUtils {
 	 * @param sleep how long in milliseconds to pause the thread for
      */
 	void sleep(long sleep);
+
+	/**
+	 * Pauses after a step has interacted with the page, to give the page time to respond.
+	 * This is the default sleep time of the feature, unless the waitForNetworkIdle or
+	 * waitForDomStable system properties are set, in which case the thread waits for the
+	 * network to be idle and then for the page to stop changing. If the prefetchElements system
+	 * property is set, the element used by the next step is found after the default sleep.
+	 */
+	void sleepAfterAction();
 }
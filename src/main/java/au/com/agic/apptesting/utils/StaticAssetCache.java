@@ -0,0 +1,37 @@
+package au.com.agic.apptesting.utils;
+
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpRequest;
+
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+
+/**
+ * A response cache shared by all the BrowserMob proxies. Every new browser starts with an
+ * empty cache, so without this each browser downloads the same scripts, styles, fonts and
+ * images again.
+ */
+public interface StaticAssetCache {
+
+	/**
+	 * @param request The request from the browser
+	 * @param url     The full URL of the request
+	 * @return A fresh copy of a cached response, or an empty result if the request has to be
+	 * sent to the server
+	 */
+	Optional<FullHttpResponse> get(@NotNull HttpRequest request, @NotNull String url);
+
+	/**
+	 * Saves the response if the request and response headers allow it to be cached
+	 *
+	 * @param request  The request from the browser
+	 * @param url      The full URL of the request
+	 * @param response The response from the server
+	 */
+	void put(@NotNull HttpRequest request, @NotNull String url, @NotNull FullHttpResponse response);
+
+	/**
+	 * Removes all cached responses, and releases any files used by the cache
+	 */
+	void clear();
+}
@@ -0,0 +1,69 @@
+package au.com.agic.apptesting.utils;
+
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The outcome of a wait, including how long the wait actually took
+ *
+ * @param <T> The type of the value that was waited for
+ */
+public class WaitResult<T> {
+	private final Optional<T> value;
+	private final long elapsedNanos;
+	private final int attempts;
+
+	public WaitResult(@NotNull final Optional<T> value, final long elapsedNanos, final int attempts) {
+		checkNotNull(value);
+		checkArgument(elapsedNanos >= 0);
+		checkArgument(attempts >= 0);
+
+		this.value = value;
+		this.elapsedNanos = elapsedNanos;
+		this.attempts = attempts;
+	}
+
+	/**
+	 *
+	 * @return The value that was found, or an empty result if the wait timed out
+	 */
+	public Optional<T> getValue() {
+		return value;
+	}
+
+	/**
+	 *
+	 * @return true if the value was found before the deadline
+	 */
+	public boolean isSuccessful() {
+		return value.isPresent();
+	}
+
+	/**
+	 *
+	 * @return The time spent waiting in milliseconds, as measured by a monotonic clock
+	 */
+	public long getElapsedMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+	}
+
+	/**
+	 *
+	 * @return The number of times the condition was checked
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+
+	/**
+	 *
+	 * @return A short description of the wait for use in log and exception messages
+	 */
+	public String getSummary() {
+		return String.format("%.1f seconds and %d attempts", elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1), attempts);
+	}
+}
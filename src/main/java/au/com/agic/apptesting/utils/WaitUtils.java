@@ -0,0 +1,33 @@
+package au.com.agic.apptesting.utils;
+
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A service for waiting on a condition until a deadline. The deadline is measured with a monotonic
+ * clock, so the time spent checking the condition counts towards the wait.
+ */
+public interface WaitUtils {
+	/**
+	 * Checks the condition until it returns a value or the deadline has passed. The condition is always
+	 * checked at least once, and once more when the deadline is reached. The pause between checks
+	 * starts short and grows to a maximum.
+	 *
+	 * @param timeout   The maximum time to wait in milliseconds
+	 * @param condition The condition to check. An empty result means the condition has not been met yet.
+	 * @param <T>       The type of the value that is waited for
+	 * @return The result of the wait, including the time that was actually spent
+	 */
+	<T> WaitResult<T> waitFor(long timeout, @NotNull Supplier<Optional<T>> condition);
+
+	/**
+	 * Checks the condition until it is true or the deadline has passed.
+	 *
+	 * @param timeout   The maximum time to wait in milliseconds
+	 * @param condition The condition to check
+	 * @return The result of the wait, including the time that was actually spent
+	 */
+	WaitResult<Boolean> waitUntil(long timeout, @NotNull BooleanSupplier condition);
+}
@@ -0,0 +1,40 @@
+package au.com.agic.apptesting.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * A pool of web drivers that are created ahead of time, and reset and reused instead of being quit
+ */
+public interface WebDriverPool {
+	/**
+	 * Starts creating browsers in the background until the pool holds the configured number of
+	 * idle browsers
+	 */
+	void warm();
+
+	/**
+	 * @return An idle web driver from the pool, or a newly created web driver if the pool was empty
+	 */
+	@NotNull
+	WebDriver acquire();
+
+	/**
+	 * Returns a web driver to the pool. The driver is reset in the background, and quit if the
+	 * reset fails or the pool is already full.
+	 *
+	 * @param webDriver The web driver that is no longer being used
+	 */
+	void release(@NotNull WebDriver webDriver);
+
+	/**
+	 * @return A summary of the pool size, hit rate and the time taken to reset and create browsers
+	 */
+	String getStatistics();
+
+	/**
+	 * Quits all the idle web drivers
+	 */
+	void shutdown();
+}
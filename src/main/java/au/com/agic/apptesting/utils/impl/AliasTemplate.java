@@ -0,0 +1,150 @@
+package au.com.agic.apptesting.utils.impl;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A value that references aliases with the syntax ${alias}, like "${firstName}-${id}".
+ * The value is parsed once into a list of literal text and alias names, so evaluating the
+ * template is a lookup for each alias and a single string build.
+ *
+ * A placeholder is left in the result unchanged if the alias does not exist. Use $${alias}
+ * to include the text ${alias} without it being treated as a placeholder.
+ */
+public final class AliasTemplate {
+	private static final String START = "${";
+	private static final String ESCAPED_START = "$${";
+	private static final char END = '}';
+
+	/**
+	 * Alternating literal text and alias names, starting and ending with literal text
+	 */
+	private final String[] parts;
+	private final int literalLength;
+
+	private AliasTemplate(final String[] parts) {
+		this.parts = parts;
+
+		int length = 0;
+		for (int i = 0; i < parts.length; i += 2) {
+			length += parts[i].length();
+		}
+		this.literalLength = length;
+	}
+
+	/**
+	 * @param value A value that may hold placeholders
+	 * @return true if the value may hold placeholders. This is a cheap test used to
+	 * avoid compiling plain values.
+	 */
+	public static boolean mayBeTemplate(@NotNull final String value) {
+		checkNotNull(value);
+
+		return value.contains(START);
+	}
+
+	/**
+	 * @param value The template
+	 * @return The compiled template
+	 */
+	public static AliasTemplate compile(@NotNull final String value) {
+		checkNotNull(value);
+
+		final List<String> parts = new ArrayList<>();
+		final StringBuilder literal = new StringBuilder();
+		int index = 0;
+
+		while (index < value.length()) {
+			if (value.startsWith(ESCAPED_START, index)) {
+				literal.append(START);
+				index += ESCAPED_START.length();
+				continue;
+			}
+
+			if (value.startsWith(START, index)) {
+				final int end = value.indexOf(END, index + START.length());
+				if (end != -1 && end != index + START.length()) {
+					parts.add(literal.toString());
+					parts.add(value.substring(index + START.length(), end));
+					literal.setLength(0);
+					index = end + 1;
+					continue;
+				}
+			}
+
+			literal.append(value.charAt(index));
+			++index;
+		}
+
+		parts.add(literal.toString());
+		return new AliasTemplate(parts.toArray(new String[parts.size()]));
+	}
+
+	/**
+	 * @return true if the template has at least one placeholder
+	 */
+	public boolean hasPlaceholders() {
+		return parts.length > 1;
+	}
+
+	/**
+	 * @return The names of the aliases referenced by the template
+	 */
+	public List<String> getAliases() {
+		final List<String> aliases = new ArrayList<>();
+		for (int i = 1; i < parts.length; i += 2) {
+			aliases.add(parts[i]);
+		}
+		return aliases;
+	}
+
+	/**
+	 * @param aliases The alias values
+	 * @return The template with the placeholders replaced by the alias values
+	 */
+	public String evaluate(@NotNull final Map<String, String> aliases) {
+		checkNotNull(aliases);
+
+		return evaluate(aliases, false).get();
+	}
+
+	/**
+	 * @param aliases The alias values
+	 * @return The template with the placeholders replaced by the alias values, or an empty
+	 * result if any of the aliases do not exist
+	 */
+	public Optional<String> evaluateStrict(@NotNull final Map<String, String> aliases) {
+		checkNotNull(aliases);
+
+		return evaluate(aliases, true);
+	}
+
+	private Optional<String> evaluate(final Map<String, String> aliases, final boolean strict) {
+		if (!hasPlaceholders()) {
+			return Optional.of(parts[0]);
+		}
+
+		final StringBuilder result = new StringBuilder(literalLength + (parts.length / 2) * 16);
+		result.append(parts[0]);
+
+		for (int i = 1; i < parts.length; i += 2) {
+			final String value = aliases.get(parts[i]);
+			if (value != null) {
+				result.append(value);
+			} else if (strict) {
+				return Optional.empty();
+			} else {
+				result.append(START).append(parts[i]).append(END);
+			}
+
+			result.append(parts[i + 1]);
+		}
+
+		return Optional.of(result.toString());
+	}
+}
@@ -2,6 +2,9 @@ package au.com.agic.apptesting.utils.impl;
 
 import au.com.agic.apptesting.utils.AutoAliasUtils;
 import au.com.agic.apptesting.utils.FeatureState;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
@@ -16,6 +19,15 @@ import static com.google.common.base.Preconditions.*;
  */
 @Component
 public class AutoAliasUtilsImpl implements AutoAliasUtils {
+	/**
+	 * The number of compiled templates to keep. Templates come from step text, so
+	 * this is enough for the templates used by any one feature.
+	 */
+	private static final int MAX_TEMPLATES = 1000;
+
+	private final LoadingCache<String, AliasTemplate> templates = CacheBuilder.newBuilder()
+		.maximumSize(MAX_TEMPLATES)
+		.build(CacheLoader.from(AliasTemplate::compile));
 
 	@Override
 	public String getValue(
@@ -27,17 +39,35 @@ public class AutoAliasUtilsImpl implements AutoAliasUtils {
 		checkNotNull(featureState);
 
 		if (featureState.getAutoAlias() || forceAlias) {
-			final Optional<String> aliasedValue = featureState.getDataSet().entrySet().stream()
-				.filter(x -> value.equals(x.getKey()))
-				.map(Map.Entry::getValue)
-				.filter(StringUtils::isNotBlank)
-				.findFirst();
-
-			if (forceAlias) {
-				checkState(aliasedValue.isPresent(), "Alias is blank");
+			final Map<String, String> dataSet = featureState.getDataSet();
+			final Optional<String> aliasedValue = Optional.ofNullable(dataSet.get(value))
+				.filter(StringUtils::isNotBlank);
+
+			if (aliasedValue.isPresent()) {
+				return aliasedValue.get();
+			}
+
+			/*
+				A value that is not an alias may be a template like ${firstName}-${id}
+			 */
+			if (AliasTemplate.mayBeTemplate(value)) {
+				final AliasTemplate template = templates.getUnchecked(value);
+
+				if (!forceAlias) {
+					return template.evaluate(dataSet);
+				}
+
+				if (template.hasPlaceholders()) {
+					final Optional<String> templateValue = template.evaluateStrict(dataSet);
+					checkState(
+						templateValue.isPresent(),
+						"One of the aliases %s referenced by the template does not exist",
+						template.getAliases());
+					return templateValue.get();
+				}
 			}
 
-			return aliasedValue.orElse(value);
+			checkState(!forceAlias, "Alias is blank");
 		}
 
 		return value;
@@ -7,6 +7,7 @@ import cucumber.api.java.Before;
 import io.vavr.control.Try;
 import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.*;
+import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -17,8 +18,12 @@ import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Component;
 
 import javax.validation.constraints.NotNull;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -39,9 +44,6 @@ public class BrowserInteropUtilsImpl implements BrowserInteropUtils {
 	@Autowired
 	private RetryService retryService;
 
-	@Autowired
-	private SleepUtils sleepUtils;
-
 	private boolean disableInterop() {
 		return systemPropertyUtils.getPropertyAsBoolean(Constants.DISABLE_INTEROP, false);
 	}
@@ -354,25 +356,64 @@ public class BrowserInteropUtilsImpl implements BrowserInteropUtils {
 		@NotNull final WebElement element,
 		@NotNull final String value) {
 
+		populateElement(webDriver, element, value, State.getFeatureStateForThread().getDefaultKeyStrokeDelay());
+	}
+
+	@Override
+	public void populateElement(
+		@NotNull final WebDriver webDriver,
+		@NotNull final WebElement element,
+		@NotNull final String value,
+		final long delay) {
+
+		checkNotNull(value);
+
+		if (delay == 0) {
+			typeKeys(webDriver, element, Collections.singletonList(value), delay);
+		} else {
+			typeKeys(
+				webDriver,
+				element,
+				value.codePoints().mapToObj(x -> new String(Character.toChars(x))).collect(Collectors.toList()),
+				delay);
+		}
+	}
+
+	@Override
+	public void typeKeys(
+		@NotNull final WebDriver webDriver,
+		@NotNull final WebElement element,
+		@NotNull final List<? extends CharSequence> keys,
+		final long delay) {
+
 		checkNotNull(webDriver);
 		checkNotNull(element);
-		checkNotNull(value);
+		checkNotNull(keys);
+		checkArgument(delay >= 0);
 
-		if (State.getFeatureStateForThread().getDefaultKeyStrokeDelay() == 0) {
+		if (keys.isEmpty()) {
+			return;
+		}
+
+		if (delay == 0) {
 			/*
 				If there is no delay, just send the text
 			 */
-			element.sendKeys(value);
-		} else {
-			/*
-				Otherwise delay each keystroke
-			 */
-			for (final Character character : value.toCharArray()) {
-				sleepUtils.sleep(State.getFeatureStateForThread().getDefaultKeyStrokeDelay());
-				element.sendKeys(character.toString());
-			}
+			element.sendKeys(keys.toArray(new CharSequence[0]));
+			return;
 		}
-	}
 
-}
+		/*
+			Sending the first key to the element focuses it and leaves the cursor at the end
+			of the existing text, which is where the remaining keys are typed by the action chain.
+			The pauses happen in the browser, so the chain is a single request.
+		 */
+		element.sendKeys(keys.get(0));
 
+		if (keys.size() > 1) {
+			final Actions actions = new Actions(webDriver);
+			keys.subList(1, keys.size()).forEach(x -> actions.pause(delay).sendKeys(x));
+			actions.perform();
+		}
+	}
+}
@@ -1,11 +1,15 @@
 package au.com.agic.apptesting.utils.impl;
 
 import au.com.agic.apptesting.constants.Constants;
+import au.com.agic.apptesting.exception.ConfigurationException;
 import au.com.agic.apptesting.exception.ProxyException;
 import au.com.agic.apptesting.utils.*;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import io.netty.handler.codec.http.HttpResponse;
 import net.lightbody.bmp.BrowserMobProxy;
 import net.lightbody.bmp.BrowserMobProxyServer;
+import net.lightbody.bmp.filters.RequestFilterAdapter;
 import net.lightbody.bmp.filters.ResponseFilter;
 import net.lightbody.bmp.proxy.auth.AuthType;
 import net.lightbody.bmp.util.HttpMessageContents;
@@ -18,10 +22,13 @@ import org.slf4j.LoggerFactory;
 import javax.validation.constraints.NotNull;
 import java.io.File;
 import java.net.InetSocketAddress;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -34,13 +41,50 @@ public class BrowsermobProxyUtilsImpl implements LocalProxyUtils<BrowserMobProxy
 	public static final String PROXY_NAME = "BROWSERMOB";
 	/**
 	 * This is the name of the key that will be saved in ProxyDetails properties
-	 * that keeps track of any error responses that have been passed through the
-	 * proxy.
+	 * that holds the HttpErrorTracker that keeps track of any error responses that
+	 * have been passed through the proxy.
 	 */
 	public static final String INVALID_REQUESTS = "Invalid Requests";
+	/**
+	 * This is the name of the key that will be saved in ProxyDetails properties
+	 * that holds the StreamingHarFilter added to the proxy, if any.
+	 */
+	public static final String STREAMING_HAR = "Streaming HAR";
+	/**
+	 * This is the name of the key that will be saved in ProxyDetails properties
+	 * that holds the RequestRuleFilter used to modify requests.
+	 */
+	public static final String REQUEST_RULES = "Request Rules";
+	/**
+	 * This is the name of the key that will be saved in ProxyDetails properties
+	 * that holds the UrlAccessFilter used to block and allow requests.
+	 */
+	public static final String URL_ACCESS = "URL Access";
+	/**
+	 * This is the name of the key that will be saved in ProxyDetails properties
+	 * that holds the RecordReplayFilter, if responses are being recorded or replayed.
+	 */
+	public static final String RECORD_REPLAY = "Record Replay";
+	/**
+	 * This is the name of the key that will be saved in ProxyDetails properties
+	 * that holds the InFlightRequestTracker used to wait for the network to be idle.
+	 */
+	public static final String IN_FLIGHT_REQUESTS = "In Flight Requests";
 	private static final Logger LOGGER = LoggerFactory.getLogger(BrowsermobProxyUtilsImpl.class);
 	private static final SystemPropertyUtils SYSTEM_PROPERTY_UTILS = new SystemPropertyUtilsImpl();
 	private static final EnableDisableListUtils ENABLE_DISABLE_LIST_UTILS = new EnableDisableListUtilsImpl();
+	/**
+	 * The static asset cache is shared by every proxy, including those started for each thread
+	 */
+	private static final Supplier<StaticAssetCache> STATIC_ASSET_CACHE =
+		Suppliers.memoize(BrowsermobProxyUtilsImpl::createStaticAssetCache);
+	/**
+	 * Recordings made through the proxy shared by all threads are kept together, so the responses
+	 * for a request are replayed in the order they were recorded no matter which thread made it
+	 */
+	private static final Supplier<ResponseRecordingStore> RESPONSE_RECORDING_STORE =
+		Suppliers.memoize(BrowsermobProxyUtilsImpl::createResponseRecordingStore);
+	private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
 
 	private static final int START_HTTP_ERROR = 400;
 	private static final int END_HTTP_ERROR = 599;
@@ -56,21 +100,7 @@ public class BrowsermobProxyUtilsImpl implements LocalProxyUtils<BrowserMobProxy
 		checkNotNull(upstreamProxy);
 
 		try {
-			final String proxyName =
-				SYSTEM_PROPERTY_UTILS.getProperty(Constants.START_INTERNAL_PROXY);
-
-			/*
-				BrowserMob is enabled by default unless it is specifically
-				disabled
-			 */
-			final boolean enabled = StringUtils.isBlank(proxyName)
-				|| ENABLE_DISABLE_LIST_UTILS.enabled(
-					proxyName,
-					PROXY_NAME,
-					true,
-					true);
-
-			if (enabled) {
+			if (isEnabled()) {
 				return Optional.of(startBrowsermobProxy(upstreamProxy));
 			}
 
@@ -80,6 +110,25 @@ public class BrowsermobProxyUtilsImpl implements LocalProxyUtils<BrowserMobProxy
 		}
 	}
 
+	/**
+	 * @return true if the BrowserMob proxy should be started
+	 */
+	public boolean isEnabled() {
+		final String proxyName =
+			SYSTEM_PROPERTY_UTILS.getProperty(Constants.START_INTERNAL_PROXY);
+
+		/*
+			BrowserMob is enabled by default unless it is specifically
+			disabled
+		 */
+		return StringUtils.isBlank(proxyName)
+			|| ENABLE_DISABLE_LIST_UTILS.enabled(
+				proxyName,
+				PROXY_NAME,
+				true,
+				true);
+	}
+
 	/**
 	 * Starts the Browsermob Proxy
 	 *
@@ -129,16 +178,233 @@ public class BrowsermobProxyUtilsImpl implements LocalProxyUtils<BrowserMobProxy
 		final ProxyDetails<BrowserMobProxy> proxyDetails =
 			new ProxyDetailsImpl<>(browserMobProxy.getPort(), true, PROXY_NAME, browserMobProxy);
 
-		trackErrorResponses(browserMobProxy, proxyDetails);
+		/*
+			Proxies started by a test thread belong to that thread. Errors and request
+			rules through the proxy shared by all threads can't be attributed to any one thread.
+		 */
+		final Optional<String> owner = Optional.of(Thread.currentThread().getName())
+			.filter(x -> x.startsWith(Constants.THREAD_NAME_PREFIX));
+
+		trackErrorResponses(browserMobProxy, proxyDetails, owner);
+		addRequestRules(browserMobProxy, proxyDetails, owner);
+		addUrlAccessLists(browserMobProxy, proxyDetails, owner);
+
+		final Optional<RecordReplayFilter.Mode> recordReplayMode = getRecordReplayMode();
+		recordReplayMode.ifPresent(mode -> addRecordReplay(browserMobProxy, proxyDetails, mode, owner));
+
+		/*
+			addRequestFilter() runs the newest filter first, so the cache is added as the
+			last filter instead. This means requests are only answered from the cache
+			once they have been blocked or modified by the other filters. Responses
+			from the cache would not be recorded, so the cache is not used when
+			recording or replaying.
+		 */
+		if (!recordReplayMode.isPresent()
+			&& SYSTEM_PROPERTY_UTILS.getPropertyAsBoolean(Constants.STATIC_ASSET_CACHE, false)) {
+			final StaticAssetCacheFilter staticAssetCacheFilter =
+				new StaticAssetCacheFilter(STATIC_ASSET_CACHE.get());
+			browserMobProxy.addLastHttpFilterFactory(new RequestFilterAdapter.FilterSource(staticAssetCacheFilter));
+			browserMobProxy.addResponseFilter(staticAssetCacheFilter);
+		}
+
+		trackInFlightRequests(browserMobProxy, proxyDetails);
 
 		return proxyDetails;
 	}
 
-	@SuppressWarnings("unchecked")
-	private void trackErrorResponses(
+	/**
+	 * The tracker is added after every other filter, so it only counts requests that go to the network
+	 */
+	private void trackInFlightRequests(
 		final BrowserMobProxy proxy,
 		final ProxyDetails<BrowserMobProxy> proxyDetails) {
 
+		final List<String> ignoredUrls = Arrays.stream(StringUtils.defaultString(
+				SYSTEM_PROPERTY_UTILS.getProperty(Constants.NETWORK_IDLE_IGNORE)).split(","))
+			.map(String::trim)
+			.filter(StringUtils::isNotBlank)
+			.collect(Collectors.toList());
+
+		final InFlightRequestTracker tracker = new InFlightRequestTracker(
+			ignoredUrls,
+			SYSTEM_PROPERTY_UTILS.getPropertyAsInt(
+				Constants.NETWORK_IDLE_TIMEOUT,
+				Constants.DEFAULT_NETWORK_IDLE_TIMEOUT));
+
+		synchronized (proxyDetails) {
+			final Map<String, Object> properties = proxyDetails.getProperties();
+			properties.put(IN_FLIGHT_REQUESTS, tracker);
+			proxyDetails.setProperties(properties);
+		}
+
+		proxy.addLastHttpFilterFactory(tracker);
+	}
+
+	private static Optional<RecordReplayFilter.Mode> getRecordReplayMode() {
+		return Optional.ofNullable(SYSTEM_PROPERTY_UTILS.getProperty(Constants.PROXY_RECORD_REPLAY))
+			.filter(StringUtils::isNotBlank)
+			.map(x -> {
+				try {
+					return RecordReplayFilter.Mode.valueOf(x.trim().toUpperCase(Locale.ROOT));
+				} catch (final IllegalArgumentException ex) {
+					throw new ConfigurationException(
+						"The " + Constants.PROXY_RECORD_REPLAY + " system property must be record or replay");
+				}
+			});
+	}
+
+	private static ResponseRecordingStore createResponseRecordingStore() {
+		return createResponseRecordingStore(Optional.empty());
+	}
+
+	/**
+	 * @param owner The thread that owns the proxy, whose recordings are kept in their own
+	 *              directory. Threads run at the same time, so one thread's requests would
+	 *              otherwise change the order that another thread's responses are replayed in.
+	 */
+	private static ResponseRecordingStore createResponseRecordingStore(@NotNull final Optional<String> owner) {
+		final File directory = new File(StringUtils.defaultIfBlank(
+			SYSTEM_PROPERTY_UTILS.getProperty(Constants.PROXY_RECORDING_DIRECTORY),
+			Constants.DEFAULT_PROXY_RECORDING_DIRECTORY));
+
+		return new ResponseRecordingStoreImpl(
+			owner.map(x -> new File(directory, x)).orElse(directory),
+			getRecordReplayMode().filter(RecordReplayFilter.Mode.RECORD::equals).isPresent());
+	}
+
+	private void addRecordReplay(
+		final BrowserMobProxy proxy,
+		final ProxyDetails<BrowserMobProxy> proxyDetails,
+		final RecordReplayFilter.Mode mode,
+		final Optional<String> owner) {
+
+		final String matchError = "The " + Constants.PROXY_REPLAY_MATCH
+			+ " system property must be a comma separated list of method, url and body";
+		final Set<RecordReplayFilter.Match> match = Arrays.stream(StringUtils.defaultIfBlank(
+				SYSTEM_PROPERTY_UTILS.getProperty(Constants.PROXY_REPLAY_MATCH),
+				Constants.DEFAULT_PROXY_REPLAY_MATCH).split(","))
+			.map(String::trim)
+			.filter(StringUtils::isNotBlank)
+			.map(x -> {
+				try {
+					return RecordReplayFilter.Match.valueOf(x.toUpperCase(Locale.ROOT));
+				} catch (final IllegalArgumentException ex) {
+					throw new ConfigurationException(matchError);
+				}
+			})
+			.collect(Collectors.toSet());
+
+		if (match.isEmpty()) {
+			throw new ConfigurationException(matchError);
+		}
+
+		final List<String> passthrough = Arrays.stream(StringUtils.defaultString(
+				SYSTEM_PROPERTY_UTILS.getProperty(Constants.PROXY_REPLAY_PASSTHROUGH)).split(","))
+			.map(String::trim)
+			.filter(StringUtils::isNotBlank)
+			.collect(Collectors.toList());
+
+		final RecordReplayFilter recordReplayFilter =
+			new RecordReplayFilter(
+				mode,
+				owner.isPresent() ? createResponseRecordingStore(owner) : RESPONSE_RECORDING_STORE.get(),
+				match,
+				passthrough);
+
+		synchronized (proxyDetails) {
+			final Map<String, Object> properties = proxyDetails.getProperties();
+			properties.put(RECORD_REPLAY, recordReplayFilter);
+			proxyDetails.setProperties(properties);
+		}
+
+		/*
+			addRequestFilter() runs the newest filter first, so the filter is added as the last
+			filter instead. Requests are only recorded or replayed once they have been
+			blocked or modified by the other filters.
+		 */
+		proxy.addLastHttpFilterFactory(new RequestFilterAdapter.FilterSource(recordReplayFilter));
+		proxy.addResponseFilter(recordReplayFilter);
+	}
+
+	private static StaticAssetCache createStaticAssetCache() {
+		return new StaticAssetCacheImpl(
+			SYSTEM_PROPERTY_UTILS.getPropertyAsInt(
+				Constants.STATIC_ASSET_CACHE_MEMORY,
+				Constants.DEFAULT_STATIC_ASSET_CACHE_MEMORY) * BYTES_PER_MEGABYTE,
+			Optional.ofNullable(SYSTEM_PROPERTY_UTILS.getProperty(Constants.STATIC_ASSET_CACHE_DIRECTORY))
+				.filter(StringUtils::isNotBlank)
+				.map(File::new),
+			SYSTEM_PROPERTY_UTILS.getPropertyAsInt(
+				Constants.STATIC_ASSET_CACHE_DISK,
+				Constants.DEFAULT_STATIC_ASSET_CACHE_DISK) * BYTES_PER_MEGABYTE);
+	}
+
+	/**
+	 * The block and allow lists are implemented by one filter. addRequestFilter() runs the newest
+	 * filter first, so this filter is added after the request rules, which means it runs before
+	 * them and blocked requests are not modified.
+	 */
+	private void addUrlAccessLists(
+		final BrowserMobProxy proxy,
+		final ProxyDetails<BrowserMobProxy> proxyDetails,
+		final Optional<String> owner) {
+
+		final UrlAccessFilter urlAccessFilter = new UrlAccessFilter(owner);
+
+		synchronized (proxyDetails) {
+			final Map<String, Object> properties = proxyDetails.getProperties();
+			properties.put(URL_ACCESS, urlAccessFilter);
+			proxyDetails.setProperties(properties);
+		}
+
+		proxy.addRequestFilter(urlAccessFilter);
+	}
+
+	/**
+	 * The request rule filter is added once, and the steps add and remove rules from it
+	 */
+	private void addRequestRules(
+		final BrowserMobProxy proxy,
+		final ProxyDetails<BrowserMobProxy> proxyDetails,
+		final Optional<String> owner) {
+
+		final RequestRuleFilter requestRuleFilter = new RequestRuleFilter(owner);
+
+		synchronized (proxyDetails) {
+			final Map<String, Object> properties = proxyDetails.getProperties();
+			properties.put(REQUEST_RULES, requestRuleFilter);
+			proxyDetails.setProperties(properties);
+		}
+
+		proxy.addRequestFilter(requestRuleFilter);
+	}
+
+	private void trackErrorResponses(
+		final BrowserMobProxy proxy,
+		final ProxyDetails<BrowserMobProxy> proxyDetails,
+		final Optional<String> owner) {
+
+		final Optional<File> spillFile = Optional.ofNullable(
+			SYSTEM_PROPERTY_UTILS.getProperty(Constants.HTTP_ERROR_SPILL_FILE))
+			.filter(StringUtils::isNotBlank)
+			.map(File::new);
+
+		final HttpErrorTracker tracker = new HttpErrorTrackerImpl(
+			owner,
+			SYSTEM_PROPERTY_UTILS.getPropertyAsInt(
+				Constants.HTTP_ERROR_BUFFER_SIZE,
+				Constants.DEFAULT_HTTP_ERROR_BUFFER_SIZE),
+			spillFile);
+
+		/*
+			The tracker is saved once, so the proxy threads never need to lock the proxy details
+		 */
+		synchronized (proxyDetails) {
+			final Map<String, Object> properties = proxyDetails.getProperties();
+			properties.put(INVALID_REQUESTS, tracker);
+			proxyDetails.setProperties(properties);
+		}
+
 		proxy.addResponseFilter(new ResponseFilter() {
 			@Override
 			public void filterResponse(
@@ -151,17 +417,9 @@ public class BrowsermobProxyUtilsImpl implements LocalProxyUtils<BrowserMobProxy
 				 */
 				if (response.getStatus().code() >= START_HTTP_ERROR
 					&& response.getStatus().code() <= END_HTTP_ERROR) {
-
-					synchronized (proxyDetails) {
-						final Map<String, Object> properties = proxyDetails.getProperties();
-						if (!properties.containsKey(INVALID_REQUESTS)) {
-							properties.put(
-								INVALID_REQUESTS,
-								new ArrayList<HttpMessageInfo>());
-						}
-						ArrayList.class.cast(properties.get(INVALID_REQUESTS)).add(messageInfo);
-						proxyDetails.setProperties(properties);
-					}
+					tracker.record(
+						StringUtils.defaultString(messageInfo.getOriginalUrl()),
+						response.getStatus().code());
 				}
 			}
 		});
@@ -0,0 +1,66 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.CookieSnapshotCache;
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.lang3.StringUtils;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.NotNull;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A cookie snapshot cache that replaces each snapshot as a whole, so readers never lock.
+ * Each test thread has its own Spring context, so the snapshots are shared by every instance,
+ * which lets the thread's proxies be stopped by another thread.
+ */
+@Component
+public class CookieSnapshotCacheImpl implements CookieSnapshotCache {
+	private static final Map<String, Set<Cookie>> SNAPSHOTS = new ConcurrentHashMap<>();
+
+	@Override
+	public void track(@NotNull final String threadName) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+
+		SNAPSHOTS.putIfAbsent(threadName, Collections.emptySet());
+	}
+
+	@Override
+	public void untrack(@NotNull final String threadName) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+
+		SNAPSHOTS.remove(threadName);
+	}
+
+	@Override
+	public boolean isTracked(@NotNull final String threadName) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+
+		return SNAPSHOTS.containsKey(threadName);
+	}
+
+	@Override
+	public void refresh(@NotNull final String threadName, @NotNull final WebDriver webDriver) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+		checkNotNull(webDriver);
+
+		if (isTracked(threadName)) {
+			final Set<Cookie> cookies = ImmutableSet.copyOf(webDriver.manage().getCookies());
+			SNAPSHOTS.computeIfPresent(threadName, (key, existing) -> cookies);
+		}
+	}
+
+	@Override
+	public Set<Cookie> getCookies(@NotNull final String threadName) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+
+		return SNAPSHOTS.getOrDefault(threadName, Collections.emptySet());
+	}
+}
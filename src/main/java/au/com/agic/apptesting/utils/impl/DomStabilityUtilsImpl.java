@@ -0,0 +1,192 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.DomStabilityUtils;
+import au.com.agic.apptesting.utils.WaitResult;
+import au.com.agic.apptesting.utils.WaitUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.NotNull;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An implementation of the DOM stability service that installs a MutationObserver and
+ * waits for it with executeAsyncScript(). Browsers without MutationObserver fall back
+ * to polling the page source.
+ */
+@Component
+public class DomStabilityUtilsImpl implements DomStabilityUtils {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DomStabilityUtilsImpl.class);
+
+	/**
+	 * The script is passed the quiet time, the timeout and the selector. It calls back with the
+	 * name of an Outcome, TIMEOUT if the page was still changing, or UNSUPPORTED if the browser
+	 * has no MutationObserver.
+	 */
+	private static final String WAIT_SCRIPT = "var quietTime = arguments[0];\n"
+		+ "var timeout = arguments[1];\n"
+		+ "var selector = arguments[2];\n"
+		+ "var callback = arguments[arguments.length - 1];\n"
+		+ "function found() {\n"
+		+ "    try {\n"
+		+ "        return !!selector && !!document.querySelector(selector);\n"
+		+ "    } catch (ex) {\n"
+		+ "        return false;\n"
+		+ "    }\n"
+		+ "}\n"
+		+ "if (found()) {\n"
+		+ "    callback('SELECTOR_FOUND');\n"
+		+ "    return;\n"
+		+ "}\n"
+		+ "if (typeof MutationObserver === 'undefined') {\n"
+		+ "    callback('UNSUPPORTED');\n"
+		+ "    return;\n"
+		+ "}\n"
+		+ "var done = false;\n"
+		+ "var quietTimer = null;\n"
+		+ "var deadlineTimer = null;\n"
+		+ "var observer = null;\n"
+		+ "function finish(result) {\n"
+		+ "    if (done) return;\n"
+		+ "    done = true;\n"
+		+ "    observer.disconnect();\n"
+		+ "    clearTimeout(quietTimer);\n"
+		+ "    clearTimeout(deadlineTimer);\n"
+		+ "    callback(result);\n"
+		+ "}\n"
+		+ "function restartQuietTimer() {\n"
+		+ "    clearTimeout(quietTimer);\n"
+		+ "    quietTimer = setTimeout(function() { finish('QUIET'); }, quietTime);\n"
+		+ "}\n"
+		+ "observer = new MutationObserver(function() {\n"
+		+ "    if (found()) {\n"
+		+ "        finish('SELECTOR_FOUND');\n"
+		+ "    } else {\n"
+		+ "        restartQuietTimer();\n"
+		+ "    }\n"
+		+ "});\n"
+		+ "observer.observe(document.documentElement, "
+		+ "{childList: true, subtree: true, attributes: true, characterData: true});\n"
+		+ "restartQuietTimer();\n"
+		+ "deadlineTimer = setTimeout(function() { finish('TIMEOUT'); }, timeout);";
+
+	/**
+	 * The script has its own deadline, so the driver's deadline is only a backstop
+	 */
+	private static final long SCRIPT_TIMEOUT_MARGIN = 5000;
+	/**
+	 * The script timeout set on each browser. Setting the timeout is a request to the browser,
+	 * and Selenium can't read it back, so it is only set again when a wait needs a longer one.
+	 * Browsers are shared between threads by the pool, so this is shared too.
+	 */
+	private static final Cache<WebDriver, Long> SCRIPT_TIMEOUTS = CacheBuilder.newBuilder()
+		.weakKeys()
+		.build();
+	private static final String UNSUPPORTED = "UNSUPPORTED";
+	private static final String TIMEOUT = "TIMEOUT";
+
+	@Autowired
+	private WaitUtils waitUtils;
+
+	@Override
+	public WaitResult<Outcome> waitForStableDom(
+			@NotNull final WebDriver webDriver,
+			final long quietTime,
+			@NotNull final Optional<String> selector,
+			final long timeout) {
+
+		checkNotNull(webDriver);
+		checkArgument(quietTime >= 0);
+		checkNotNull(selector);
+		checkArgument(timeout >= 0);
+
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			return pollForStableDom(webDriver, quietTime, selector, timeout);
+		}
+
+		final long start = System.nanoTime();
+
+		try {
+			final long scriptTimeout = timeout + SCRIPT_TIMEOUT_MARGIN;
+			final Long currentScriptTimeout = SCRIPT_TIMEOUTS.getIfPresent(webDriver);
+			if (currentScriptTimeout == null || currentScriptTimeout < scriptTimeout) {
+				webDriver.manage().timeouts().setScriptTimeout(scriptTimeout, TimeUnit.MILLISECONDS);
+				SCRIPT_TIMEOUTS.put(webDriver, scriptTimeout);
+			}
+
+			final Object result = ((JavascriptExecutor) webDriver).executeAsyncScript(
+				WAIT_SCRIPT,
+				quietTime,
+				timeout,
+				selector.orElse(""));
+
+			if (!UNSUPPORTED.equals(result)) {
+				final Optional<Outcome> outcome = Optional.ofNullable(result)
+					.map(Object::toString)
+					.filter(x -> !TIMEOUT.equals(x))
+					.map(Outcome::valueOf);
+
+				return new WaitResult<>(outcome, System.nanoTime() - start, 1);
+			}
+		} catch (final WebDriverException ex) {
+			/*
+				The script is abandoned if the browser navigates to a new page while it waits.
+				Polling will carry on the wait with the new page.
+			 */
+			LOGGER.debug("Failed to wait for the page with a MutationObserver. Falling back to polling.", ex);
+		}
+
+		final long remaining = timeout - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		return pollForStableDom(webDriver, quietTime, selector, Math.max(0, remaining));
+	}
+
+	/**
+	 * Waits by comparing the page source between polls
+	 */
+	private WaitResult<Outcome> pollForStableDom(
+			final WebDriver webDriver,
+			final long quietTime,
+			final Optional<String> selector,
+			final long timeout) {
+
+		final long[] lastChange = {System.nanoTime()};
+		final String[] lastSource = {null};
+
+		return waitUtils.waitFor(timeout, () -> {
+			try {
+				if (selector.isPresent() && !webDriver.findElements(By.cssSelector(selector.get())).isEmpty()) {
+					return Optional.of(Outcome.SELECTOR_FOUND);
+				}
+
+				final String source = webDriver.getPageSource();
+				if (!Objects.equals(source, lastSource[0])) {
+					lastSource[0] = source;
+					lastChange[0] = System.nanoTime();
+					return Optional.empty();
+				}
+
+				return System.nanoTime() - lastChange[0] >= TimeUnit.MILLISECONDS.toNanos(quietTime)
+					? Optional.of(Outcome.QUIET)
+					: Optional.empty();
+			} catch (final WebDriverException ex) {
+				/*
+					The page may be part way through loading
+				 */
+				return Optional.empty();
+			}
+		});
+	}
+}
@@ -0,0 +1,157 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.exception.DriverException;
+import au.com.agic.apptesting.utils.DriverServiceManager;
+import com.google.common.collect.ImmutableMap;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.service.DriverService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An implementation of the driver service manager. Sessions are created with a plain RemoteWebDriver
+ * pointing at the driver process, because the browser specific drivers stop their driver process
+ * when the session is quit.
+ */
+public class DriverServiceManagerImpl implements DriverServiceManager {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DriverServiceManagerImpl.class);
+
+	/**
+	 * Shares pooled HTTP connections between all the sessions
+	 */
+	private final HttpClient.Factory httpClientFactory = HttpClient.Factory.createDefault();
+
+	private ChromeDriverService chromeDriverService;
+
+	/**
+	 * Geckodriver processes that are not running a session
+	 */
+	private final Queue<GeckoDriverService> idleGeckoDriverServices = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Every geckodriver process that was started, so they can all be stopped
+	 */
+	private final Set<GeckoDriverService> geckoDriverServices = ConcurrentHashMap.newKeySet();
+
+	public DriverServiceManagerImpl() {
+		Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+	}
+
+	@NotNull
+	@Override
+	public WebDriver createChromeDriver(@NotNull final Capabilities capabilities) {
+		checkNotNull(capabilities);
+
+		return new RemoteWebDriver(
+			new HttpCommandExecutor(ImmutableMap.of(), getChromeDriverService().getUrl(), httpClientFactory),
+			capabilities);
+	}
+
+	@NotNull
+	@Override
+	public WebDriver createFirefoxDriver(@NotNull final Capabilities capabilities) {
+		checkNotNull(capabilities);
+
+		final GeckoDriverService service = acquireGeckoDriverService();
+
+		try {
+			return new RemoteWebDriver(
+				new HttpCommandExecutor(ImmutableMap.of(), service.getUrl(), httpClientFactory),
+				capabilities) {
+				@Override
+				public void quit() {
+					try {
+						super.quit();
+					} finally {
+						releaseGeckoDriverService(service);
+					}
+				}
+			};
+		} catch (final RuntimeException ex) {
+			/*
+				Don't reuse a process that failed to start a session
+			 */
+			stopService(service);
+			geckoDriverServices.remove(service);
+			throw ex;
+		}
+	}
+
+	@Override
+	public synchronized void shutdown() {
+		if (chromeDriverService != null) {
+			stopService(chromeDriverService);
+			chromeDriverService = null;
+		}
+
+		idleGeckoDriverServices.clear();
+		geckoDriverServices.forEach(this::stopService);
+		geckoDriverServices.clear();
+	}
+
+	private synchronized ChromeDriverService getChromeDriverService() {
+		if (chromeDriverService == null || !chromeDriverService.isRunning()) {
+			LOGGER.info("WEBAPPTESTER-INFO-0014: Starting shared chromedriver process");
+			chromeDriverService = startService(ChromeDriverService.createDefaultService());
+		}
+
+		return chromeDriverService;
+	}
+
+	private GeckoDriverService acquireGeckoDriverService() {
+		for (GeckoDriverService service = idleGeckoDriverServices.poll();
+			 service != null;
+			 service = idleGeckoDriverServices.poll()) {
+			if (service.isRunning()) {
+				return service;
+			}
+			geckoDriverServices.remove(service);
+		}
+
+		LOGGER.info("WEBAPPTESTER-INFO-0015: Starting geckodriver process");
+		final GeckoDriverService service = startService(GeckoDriverService.createDefaultService());
+		geckoDriverServices.add(service);
+		return service;
+	}
+
+	private void releaseGeckoDriverService(final GeckoDriverService service) {
+		/*
+			Services that were stopped by shutdown() are not returned to the pool
+		 */
+		if (geckoDriverServices.contains(service) && service.isRunning()) {
+			idleGeckoDriverServices.add(service);
+		}
+	}
+
+	private <T extends DriverService> T startService(final T service) {
+		try {
+			service.start();
+			return service;
+		} catch (final IOException ex) {
+			throw new DriverException("Failed to start the driver process", ex);
+		}
+	}
+
+	private void stopService(final DriverService service) {
+		try {
+			service.stop();
+		} catch (final Exception ignored) {
+			// do nothing and continue stopping the other services
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.ElementHandleCache;
+import au.com.agic.apptesting.utils.ElementLocator;
+import au.com.agic.apptesting.utils.LocatedElement;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.NotNull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An implementation of the element handle cache that keeps the elements most recently found
+ * by each thread. An element is only returned if a script confirms that it is still attached to
+ * the document of the current window and frame, and matches the condition. Navigating to a new
+ * page replaces the document, so the elements of the old page are never returned.
+ */
+@Component
+public class ElementHandleCacheImpl implements ElementHandleCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ElementHandleCacheImpl.class);
+
+	/**
+	 * The number of elements each thread keeps
+	 */
+	private static final int MAX_ELEMENTS = 32;
+
+	/**
+	 * The script is passed the element and the condition, and returns true if the element can be used
+	 */
+	private static final String PROBE_SCRIPT = ElementLocatorImpl.LOCATE_FUNCTIONS
+		+ "var element = arguments[0];\n"
+		+ "return !!element\n"
+		+ "    && element.ownerDocument === document\n"
+		+ "    && document.documentElement.contains(element)\n"
+		+ "    && matches(element, arguments[1]);";
+
+	private static final ThreadLocal<Handles> HANDLES = new ThreadLocal<>();
+
+	@Override
+	public Optional<LocatedElement> get(
+			@NotNull final WebDriver webDriver,
+			@NotNull final String value,
+			@NotNull final ElementLocator.Condition condition) {
+
+		checkNotNull(webDriver);
+		checkNotNull(value);
+		checkNotNull(condition);
+
+		final Handles handles = HANDLES.get();
+		if (handles == null || handles.webDriver != webDriver) {
+			return Optional.empty();
+		}
+
+		final LocatedElement element = handles.elements.get(value);
+		if (element == null) {
+			return Optional.empty();
+		}
+
+		if (isUsable(webDriver, value, element, condition)) {
+			return Optional.of(element);
+		}
+
+		handles.elements.remove(value);
+		return Optional.empty();
+	}
+
+	@Override
+	public void put(
+			@NotNull final WebDriver webDriver,
+			@NotNull final String value,
+			@NotNull final LocatedElement element) {
+
+		checkNotNull(webDriver);
+		checkNotNull(value);
+		checkNotNull(element);
+
+		/*
+			A new browser makes every cached element useless
+		 */
+		if (HANDLES.get() == null || HANDLES.get().webDriver != webDriver) {
+			HANDLES.set(new Handles(webDriver));
+		}
+
+		HANDLES.get().elements.put(value, element);
+	}
+
+	/**
+	 * Checks an element that was found earlier with a single request to the browser
+	 *
+	 * @param webDriver The web driver that found the element
+	 * @param value     The value used to find the element, which is only used for logging
+	 * @param element   The element that was found
+	 * @param condition The state that the element has to be in
+	 * @return true if the element is still attached to the document of the current window and
+	 * frame, and matches the condition
+	 */
+	static boolean isUsable(
+			@NotNull final WebDriver webDriver,
+			@NotNull final String value,
+			@NotNull final LocatedElement element,
+			@NotNull final ElementLocator.Condition condition) {
+
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			return false;
+		}
+
+		try {
+			return Boolean.TRUE.equals(((JavascriptExecutor) webDriver).executeScript(
+				PROBE_SCRIPT,
+				element.getElement(),
+				condition.name()));
+		} catch (final WebDriverException ex) {
+			/*
+				Elements from a page that has been navigated away from are reported as stale
+			 */
+			LOGGER.debug("Element \"{}\" could not be checked", value, ex);
+			return false;
+		}
+	}
+
+	private static final class Handles {
+		private final WebDriver webDriver;
+		private final Map<String, LocatedElement> elements =
+			new LinkedHashMap<String, LocatedElement>(MAX_ELEMENTS, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(final Map.Entry<String, LocatedElement> eldest) {
+					return size() > MAX_ELEMENTS;
+				}
+			};
+
+		Handles(final WebDriver webDriver) {
+			this.webDriver = webDriver;
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.ElementLocator;
+import au.com.agic.apptesting.utils.GetBy;
+import au.com.agic.apptesting.utils.LocatedElement;
+import org.apache.commons.lang3.StringUtils;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An implementation of the element locator that evaluates every location method inside the
+ * browser with one call to executeScript(). Location methods that the browser can not evaluate
+ * itself (like xpath in IE) fall back to the standard WebDriver API.
+ */
+@Component
+public class ElementLocatorImpl implements ElementLocator {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ElementLocatorImpl.class);
+
+	/**
+	 * Functions that find elements inside the browser. locate() takes the list of location methods,
+	 * the value and the condition, and returns an array holding the matched element, the location
+	 * method that matched it, and the list of location methods that could not be evaluated in this
+	 * browser. These functions are shared with the other services that find elements in a script.
+	 */
+	static final String LOCATE_FUNCTIONS = "function xpathLiteral(s) {\n"
+		+ "    if (s.indexOf(\"'\") === -1) return \"'\" + s + \"'\";\n"
+		+ "    if (s.indexOf('\"') === -1) return '\"' + s + '\"';\n"
+		+ "    return \"concat('\" + s.split(\"'\").join(\"', \\\"'\\\", '\") + \"')\";\n"
+		+ "}\n"
+		+ "function byXPath(xpath) {\n"
+		+ "    return document.evaluate(xpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)"
+		+ ".singleNodeValue;\n"
+		+ "}\n"
+		+ "function byValue(value) {\n"
+		+ "    var elements = document.querySelectorAll('[value]');\n"
+		+ "    for (var i = 0; i < elements.length; ++i) {\n"
+		+ "        if (elements[i].getAttribute('value') === value) return elements[i];\n"
+		+ "    }\n"
+		+ "    return null;\n"
+		+ "}\n"
+		+ "function find(strategy, value) {\n"
+		+ "    switch (strategy) {\n"
+		+ "        case '" + GetBy.ID + "': return document.getElementById(value);\n"
+		+ "        case '" + GetBy.CLASS + "': return document.querySelector('.' + value);\n"
+		+ "        case '" + GetBy.CSS_SELECTOR + "': return document.querySelector(value);\n"
+		+ "        case '" + GetBy.NAME + "': return document.getElementsByName(value)[0] || null;\n"
+		+ "        case '" + GetBy.VALUE + "': return byValue(value);\n"
+		+ "        case '" + GetBy.TEXT + "': return byXPath('//*[text()[normalize-space(.)=' + xpathLiteral(value) + ']]');\n"
+		+ "        case '" + GetBy.XPATH + "': return byXPath(value);\n"
+		+ "    }\n"
+		+ "    return null;\n"
+		+ "}\n"
+		+ "function isVisible(element) {\n"
+		+ "    if (element.tagName === 'OPTION' || element.tagName === 'OPTGROUP') {\n"
+		+ "        var select = element.parentNode;\n"
+		+ "        while (select && select.tagName !== 'SELECT') select = select.parentNode;\n"
+		+ "        return !!select && isVisible(select);\n"
+		+ "    }\n"
+		+ "    if (!(element.offsetWidth || element.offsetHeight || element.getClientRects().length)) return false;\n"
+		+ "    var style = window.getComputedStyle(element);\n"
+		+ "    if (style.visibility === 'hidden' || style.visibility === 'collapse') return false;\n"
+		+ "    for (var parent = element; parent && parent.nodeType === 1; parent = parent.parentNode) {\n"
+		+ "        if (window.getComputedStyle(parent).opacity === '0') return false;\n"
+		+ "    }\n"
+		+ "    return true;\n"
+		+ "}\n"
+		+ "function matches(element, condition) {\n"
+		+ "    if (!element || element.nodeType !== 1) return false;\n"
+		+ "    if (condition === 'PRESENT') return true;\n"
+		+ "    if (!isVisible(element)) return false;\n"
+		+ "    return condition !== 'CLICKABLE' || element.disabled !== true;\n"
+		+ "}\n"
+		+ "function locate(strategies, value, condition) {\n"
+		+ "    var unsupported = [];\n"
+		+ "    for (var i = 0; i < strategies.length; ++i) {\n"
+		+ "        var strategy = strategies[i];\n"
+		+ "        if ((strategy === '" + GetBy.XPATH + "' || strategy === '" + GetBy.TEXT + "') && !document.evaluate) {\n"
+		+ "            unsupported.push(strategy);\n"
+		+ "            continue;\n"
+		+ "        }\n"
+		+ "        var element = null;\n"
+		+ "        try {\n"
+		+ "            element = find(strategy, value);\n"
+		+ "        } catch (ex) {\n"
+		+ "            /* an invalid selector is treated as no match */\n"
+		+ "        }\n"
+		+ "        if (matches(element, condition)) return [element, strategy, unsupported];\n"
+		+ "    }\n"
+		+ "    return [null, null, unsupported];\n"
+		+ "}\n";
+
+	/**
+	 * The script is passed the value, the list of location methods and the condition
+	 */
+	private static final String LOCATE_SCRIPT = LOCATE_FUNCTIONS
+		+ "return locate(arguments[1], arguments[0], arguments[2]);";
+
+	private static final int RESULT_ELEMENT = 0;
+	private static final int RESULT_STRATEGY = 1;
+	private static final int RESULT_UNSUPPORTED = 2;
+
+	@Autowired
+	private GetBy getBy;
+
+	@Override
+	public Optional<LocatedElement> locate(
+			@NotNull final WebDriver webDriver,
+			@NotNull final List<String> strategies,
+			@NotNull final String value,
+			@NotNull final Condition condition) {
+
+		checkNotNull(webDriver);
+		checkNotNull(strategies);
+		checkArgument(StringUtils.isNotBlank(value));
+		checkNotNull(condition);
+
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			return locateWithWebDriver(webDriver, strategies, value, condition);
+		}
+
+		try {
+			final Object result = ((JavascriptExecutor) webDriver).executeScript(
+				LOCATE_SCRIPT,
+				value,
+				strategies,
+				condition.name());
+
+			if (!(result instanceof List)) {
+				return locateWithWebDriver(webDriver, strategies, value, condition);
+			}
+
+			final List<?> resultList = (List<?>) result;
+
+			if (resultList.get(RESULT_ELEMENT) instanceof WebElement) {
+				return Optional.of(new LocatedElement(
+					(WebElement) resultList.get(RESULT_ELEMENT),
+					resultList.get(RESULT_STRATEGY).toString()));
+			}
+
+			final List<String> unsupported = new ArrayList<>();
+			((List<?>) resultList.get(RESULT_UNSUPPORTED)).forEach(x -> unsupported.add(x.toString()));
+
+			return unsupported.isEmpty()
+				? Optional.empty()
+				: locateWithWebDriver(webDriver, unsupported, value, condition);
+		} catch (final WebDriverException ex) {
+			/*
+				Scripts can fail while a page is loading, or if the browser has
+				JavaScript disabled. Either way the WebDriver API may still work.
+			 */
+			LOGGER.debug("Failed to locate element with JavaScript. Falling back to WebDriver.", ex);
+			return locateWithWebDriver(webDriver, strategies, value, condition);
+		}
+	}
+
+	/**
+	 * Locates the element one location method at a time using the standard WebDriver API
+	 */
+	private Optional<LocatedElement> locateWithWebDriver(
+			final WebDriver webDriver,
+			final List<String> strategies,
+			final String value,
+			final Condition condition) {
+
+		for (final String strategy : strategies) {
+			try {
+				final Optional<WebElement> element = webDriver.findElements(getBy.getBy(strategy, value))
+					.stream()
+					.findFirst()
+					.filter(x -> matches(x, condition));
+
+				if (element.isPresent()) {
+					return Optional.of(new LocatedElement(element.get(), strategy));
+				}
+			} catch (final WebDriverException ignored) {
+				/*
+					Invalid selectors and stale elements are treated as no match
+				 */
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	private boolean matches(final WebElement element, final Condition condition) {
+		if (condition == Condition.PRESENT) {
+			return true;
+		}
+
+		if (!element.isDisplayed()) {
+			return false;
+		}
+
+		return condition != Condition.CLICKABLE || element.isEnabled();
+	}
+}
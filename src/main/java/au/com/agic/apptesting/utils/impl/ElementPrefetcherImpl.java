@@ -0,0 +1,161 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.State;
+import au.com.agic.apptesting.constants.Constants;
+import au.com.agic.apptesting.utils.AutoAliasUtils;
+import au.com.agic.apptesting.utils.ElementLocator;
+import au.com.agic.apptesting.utils.ElementPrefetcher;
+import au.com.agic.apptesting.utils.ElementSelector;
+import au.com.agic.apptesting.utils.FeatureState;
+import au.com.agic.apptesting.utils.LocatedElement;
+import au.com.agic.apptesting.utils.SystemPropertyUtils;
+import io.vavr.control.Try;
+import org.apache.commons.lang3.StringUtils;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An implementation of the element prefetcher that reads the next step from the
+ * ScenarioStepTracker plugin. The element is found on the test thread at the end of the sleep,
+ * because a WebDriver can not be used by two threads at once.
+ *
+ * The staleness token of a prefetched element is the index of the step that found it. The
+ * element is only handed to the step that follows, so any other step in between discards it.
+ */
+@Component
+public class ElementPrefetcherImpl implements ElementPrefetcher {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ElementPrefetcherImpl.class);
+
+	/**
+	 * Matches the way most steps refer to an element, like: the element found by alias "login"
+	 */
+	private static final Pattern ELEMENT_REFERENCE =
+		Pattern.compile("(?:^|\\s)(?:a|an|the)(?: element found by)?( alias)? \"([^\"]+)\"");
+
+	/**
+	 * The element found by the current thread, waiting for the next step
+	 */
+	private static final ThreadLocal<Prefetched> PREFETCHED = new ThreadLocal<>();
+
+	@Autowired
+	private ElementLocator elementLocator;
+	@Autowired
+	private AutoAliasUtils autoAliasUtils;
+	@Autowired
+	private SystemPropertyUtils systemPropertyUtils;
+
+	@Override
+	public void sleepAndPrefetch(final long sleep) {
+		checkArgument(sleep >= 0);
+
+		PREFETCHED.remove();
+
+		Try.run(() -> Thread.sleep(sleep));
+
+		final Optional<String> value = ScenarioStepTracker.getNextStep().flatMap(this::getElementValue);
+		if (!value.isPresent()) {
+			return;
+		}
+
+		final ElementSelector selector = ElementSelector.parse(
+			value.get(),
+			systemPropertyUtils.getPropertyAsBoolean(Constants.ELEMENT_SELECTOR_PREFIXES, false));
+		final List<String> strategies = !selector.getStrategy().isPresent()
+			&& systemPropertyUtils.getPropertyAsBoolean(Constants.ADAPTIVE_LOCATOR_CACHE, false)
+			? State.getLocatorStrategyCache().getStrategies(value.get(), ElementLocator.DEFAULT_LOCATION_METHODS)
+			: selector.getStrategies(ElementLocator.DEFAULT_LOCATION_METHODS);
+
+		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
+		final Optional<LocatedElement> element = elementLocator.locate(
+			webDriver,
+			strategies,
+			selector.getValue(),
+			ElementLocator.Condition.CLICKABLE);
+
+		element.ifPresent(x -> PREFETCHED.set(
+			new Prefetched(webDriver, value.get(), x, ScenarioStepTracker.getCurrentStep())));
+		LOGGER.debug("Prefetch of element \"{}\" for the next step {}",
+			value.get(), element.isPresent() ? "found the element" : "did not find the element");
+	}
+
+	@Override
+	public Optional<LocatedElement> takePrefetched(
+			@NotNull final WebDriver webDriver,
+			@NotNull final String value,
+			@NotNull final ElementLocator.Condition condition) {
+
+		checkNotNull(webDriver);
+		checkNotNull(value);
+		checkNotNull(condition);
+
+		final Prefetched prefetched = PREFETCHED.get();
+		PREFETCHED.remove();
+
+		if (prefetched == null
+				|| prefetched.webDriver != webDriver
+				|| !prefetched.value.equals(value)
+				|| prefetched.step + 1 != ScenarioStepTracker.getCurrentStep()) {
+			return Optional.empty();
+		}
+
+		/*
+			The element was clickable at the end of the sleep, but the page may have been
+			changed or replaced by the time the step runs
+		 */
+		if (!ElementHandleCacheImpl.isUsable(webDriver, value, prefetched.element, condition)) {
+			LOGGER.debug("Prefetched element \"{}\" can no longer be used", value);
+			return Optional.empty();
+		}
+
+		return Optional.of(prefetched.element);
+	}
+
+	/**
+	 * @param step The text of a step
+	 * @return The value that the step will find an element with, with any alias resolved
+	 */
+	private Optional<String> getElementValue(final String step) {
+		final Matcher matcher = ELEMENT_REFERENCE.matcher(step);
+		if (!matcher.find()) {
+			return Optional.empty();
+		}
+
+		final FeatureState featureState = State.getFeatureStateForThread();
+
+		/*
+			The step may not refer to an element at all, or may refer to an alias that the
+			step before it is yet to set. Either way, there is nothing to prefetch.
+		 */
+		return Try.of(() -> autoAliasUtils.getValue(
+				matcher.group(2),
+				StringUtils.isNotBlank(matcher.group(1)),
+				featureState))
+			.toJavaOptional();
+	}
+
+	private static final class Prefetched {
+		private final WebDriver webDriver;
+		private final String value;
+		private final LocatedElement element;
+		private final int step;
+
+		Prefetched(final WebDriver webDriver, final String value, final LocatedElement element, final int step) {
+			this.webDriver = webDriver;
+			this.value = value;
+			this.element = element;
+			this.step = step;
+		}
+	}
+}
@@ -10,6 +10,7 @@ import javax.validation.constraints.NotNull;
 import java.util.*;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Represents the details required by a feature to run
@@ -19,7 +20,7 @@ public class FeatureStateImpl implements FeatureState {
 	private int defaultKeyStrokeDelay = Constants.KEY_STROKE_DELAY;
 	private boolean autoAlias = true;
 	private final UrlMapping url;
-	private final Map<String, String> dataset = new HashMap<>();
+	private volatile LayeredDataSet dataset;
 	private final String reportDirectory;
 	private boolean failed;
 	private boolean failedScreenshot;
@@ -35,8 +36,7 @@ public class FeatureStateImpl implements FeatureState {
 		@NotNull final List<ProxyDetails<?>> proxies) {
 
 		this.url = url;
-		this.dataset.clear();
-		this.dataset.putAll(dataset);
+		this.dataset = LayeredDataSet.of(dataset);
 		this.reportDirectory = reportDirectory;
 		this.proxies = new ArrayList<>(proxies);
 	}
@@ -58,15 +58,28 @@ public class FeatureStateImpl implements FeatureState {
 
 	@Override
 	public Map<String, String> getDataSet() {
-		return new HashMap<>(dataset);
+		return dataset;
 	}
 
 	@Override
 	public void setDataSet(final Map<String, String> dataSet) {
-		dataset.clear();
-		if (dataSet != null) {
-			dataset.putAll(dataSet);
-		}
+		dataset = dataSet == null
+			? LayeredDataSet.empty()
+			: LayeredDataSet.of(new HashMap<>(dataSet));
+	}
+
+	@Override
+	public synchronized void putDataSetValue(@NotNull final String key, final String value) {
+		checkNotNull(key);
+
+		dataset = dataset.with(key, value);
+	}
+
+	@Override
+	public synchronized void putDataSetValues(@NotNull final Map<String, String> values) {
+		checkNotNull(values);
+
+		dataset = dataset.withAll(values);
 	}
 
 	@Override
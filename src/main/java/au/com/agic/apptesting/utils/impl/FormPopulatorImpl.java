@@ -0,0 +1,220 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.constants.Constants;
+import au.com.agic.apptesting.utils.BrowserInteropUtils;
+import au.com.agic.apptesting.utils.ElementLocator;
+import au.com.agic.apptesting.utils.FormPopulator;
+import au.com.agic.apptesting.utils.LocatedElement;
+import au.com.agic.apptesting.utils.WaitResult;
+import au.com.agic.apptesting.utils.WaitUtils;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An implementation of the form populator that finds and populates every field inside
+ * the browser with one call to executeScript()
+ */
+@Component
+public class FormPopulatorImpl implements FormPopulator {
+	/**
+	 * The script is passed the list of fields, the location methods, and a flag that allows some fields
+	 * to be populated when others are missing. It returns an array holding a flag that is true if the
+	 * fields were populated, and the list of fields that failed as their index and the reason.
+	 */
+	private static final String POPULATE_SCRIPT = ElementLocatorImpl.LOCATE_FUNCTIONS
+		+ "var fields = arguments[0];\n"
+		+ "var strategies = arguments[1];\n"
+		+ "var partial = arguments[2];\n"
+		+ "var textInputs = ['text', 'password', 'email', 'number', 'search', 'tel', 'url', 'date', "
+		+ "'datetime-local', 'month', 'time', 'week', 'color', 'range'];\n"
+		+ "function fire(element, type) {\n"
+		+ "    var event;\n"
+		+ "    if (typeof Event === 'function') {\n"
+		+ "        event = new Event(type, {bubbles: true});\n"
+		+ "    } else {\n"
+		+ "        event = document.createEvent('HTMLEvents');\n"
+		+ "        event.initEvent(type, true, false);\n"
+		+ "    }\n"
+		+ "    element.dispatchEvent(event);\n"
+		+ "}\n"
+		+ "function setValue(element, text) {\n"
+		+ "    /* the native setter lets frameworks that track the value see the change */\n"
+		+ "    var proto = element.tagName === 'TEXTAREA' ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;\n"
+		+ "    var descriptor = Object.getOwnPropertyDescriptor(proto, 'value');\n"
+		+ "    if (descriptor && descriptor.set) {\n"
+		+ "        descriptor.set.call(element, text);\n"
+		+ "    } else {\n"
+		+ "        element.value = text;\n"
+		+ "    }\n"
+		+ "}\n"
+		+ "function selectOption(element, text) {\n"
+		+ "    for (var i = 0; i < element.options.length; ++i) {\n"
+		+ "        var option = element.options[i];\n"
+		+ "        if (option.text.replace(/^\\s+|\\s+$/g, '') === text || option.value === text) {\n"
+		+ "            element.selectedIndex = i;\n"
+		+ "            return true;\n"
+		+ "        }\n"
+		+ "    }\n"
+		+ "    return false;\n"
+		+ "}\n"
+		+ "function populate(element, text) {\n"
+		+ "    if (element.disabled) return 'the field is disabled';\n"
+		+ "    if (element.readOnly) return 'the field is read only';\n"
+		+ "    var isSelect = element.tagName === 'SELECT';\n"
+		+ "    var isText = element.tagName === 'TEXTAREA'\n"
+		+ "        || (element.tagName === 'INPUT' && textInputs.indexOf((element.type || 'text').toLowerCase()) !== -1);\n"
+		+ "    if (!isSelect && !isText) return 'the element is not a text field or drop down list';\n"
+		+ "    element.focus();\n"
+		+ "    if (isSelect) {\n"
+		+ "        if (!selectOption(element, text)) return 'the drop down list has no option \"' + text + '\"';\n"
+		+ "    } else {\n"
+		+ "        setValue(element, text);\n"
+		+ "    }\n"
+		+ "    fire(element, 'input');\n"
+		+ "    fire(element, 'change');\n"
+		+ "    element.blur();\n"
+		+ "    return null;\n"
+		+ "}\n"
+		+ "var elements = [];\n"
+		+ "var failures = [];\n"
+		+ "for (var i = 0; i < fields.length; ++i) {\n"
+		+ "    elements.push(locate(strategies, fields[i][0], 'VISIBLE')[0]);\n"
+		+ "    if (!elements[i]) failures.push([i, 'the field could not be found']);\n"
+		+ "}\n"
+		+ "if (failures.length !== 0 && !partial) return [false, failures];\n"
+		+ "for (var j = 0; j < fields.length; ++j) {\n"
+		+ "    if (!elements[j]) continue;\n"
+		+ "    try {\n"
+		+ "        var reason = populate(elements[j], fields[j][1]);\n"
+		+ "        if (reason) failures.push([j, reason]);\n"
+		+ "    } catch (ex) {\n"
+		+ "        failures.push([j, String(ex)]);\n"
+		+ "    }\n"
+		+ "}\n"
+		+ "return [true, failures];";
+
+	private static final int RESULT_POPULATED = 0;
+	private static final int RESULT_FAILURES = 1;
+	private static final int FAILURE_INDEX = 0;
+	private static final int FAILURE_REASON = 1;
+
+	@Autowired
+	private ElementLocator elementLocator;
+	@Autowired
+	private BrowserInteropUtils browserInteropUtils;
+	@Autowired
+	private WaitUtils waitUtils;
+
+	@Override
+	public List<Tuple2<String, String>> populate(
+			@NotNull final WebDriver webDriver,
+			@NotNull final List<Tuple2<String, String>> fields,
+			final long waitTime) {
+
+		checkNotNull(webDriver);
+		checkNotNull(fields);
+		checkArgument(waitTime >= 0);
+
+		if (fields.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			return populateWithWebDriver(webDriver, fields, waitTime);
+		}
+
+		final List<List<String>> scriptFields = fields.stream()
+			.map(x -> Arrays.asList(x._1, x._2))
+			.collect(Collectors.toList());
+
+		/*
+			Nothing is changed on the page until every field can be found, so fields are not
+			populated twice while the page is loading
+		 */
+		final WaitResult<List<Tuple2<String, String>>> result = waitUtils.waitFor(
+			waitTime * Constants.MILLISECONDS_PER_SECOND,
+			() -> runScript((JavascriptExecutor) webDriver, fields, scriptFields, false));
+
+		return result.getValue()
+			.orElseGet(() -> runScript((JavascriptExecutor) webDriver, fields, scriptFields, true)
+				.orElseGet(ArrayList::new));
+	}
+
+	private Optional<List<Tuple2<String, String>>> runScript(
+			final JavascriptExecutor js,
+			final List<Tuple2<String, String>> fields,
+			final List<List<String>> scriptFields,
+			final boolean partial) {
+
+		try {
+			final List<?> result = (List<?>) js.executeScript(
+				POPULATE_SCRIPT,
+				scriptFields,
+				ElementLocator.DEFAULT_LOCATION_METHODS,
+				partial);
+
+			if (!Boolean.TRUE.equals(result.get(RESULT_POPULATED))) {
+				return Optional.empty();
+			}
+
+			return Optional.of(((List<?>) result.get(RESULT_FAILURES)).stream()
+				.map(List.class::cast)
+				.map(x -> Tuple.of(
+					fields.get(((Number) x.get(FAILURE_INDEX)).intValue())._1,
+					x.get(FAILURE_REASON).toString()))
+				.collect(Collectors.toList()));
+		} catch (final WebDriverException ex) {
+			/*
+				Scripts can fail while a page is loading
+			 */
+			return partial
+				? Optional.of(fields.stream().map(x -> Tuple.of(x._1, ex.getMessage())).collect(Collectors.toList()))
+				: Optional.empty();
+		}
+	}
+
+	/**
+	 * Populates the fields one at a time with the standard WebDriver API
+	 */
+	private List<Tuple2<String, String>> populateWithWebDriver(
+			final WebDriver webDriver,
+			final List<Tuple2<String, String>> fields,
+			final long waitTime) {
+
+		final List<Tuple2<String, String>> failures = new ArrayList<>();
+
+		for (final Tuple2<String, String> field : fields) {
+			final WaitResult<LocatedElement> element = waitUtils.waitFor(
+				waitTime * Constants.MILLISECONDS_PER_SECOND,
+				() -> elementLocator.locate(
+					webDriver,
+					ElementLocator.DEFAULT_LOCATION_METHODS,
+					field._1,
+					ElementLocator.Condition.CLICKABLE));
+
+			if (element.isSuccessful()) {
+				element.getValue().get().getElement().clear();
+				browserInteropUtils.populateElement(webDriver, element.getValue().get().getElement(), field._2, 0);
+			} else {
+				failures.add(Tuple.of(field._1, "the field could not be found"));
+			}
+		}
+
+		return failures;
+	}
+}
@@ -26,6 +26,14 @@ public class GetByImpl implements GetBy {
 
 		final String fixedValue = autoAliasUtils.getValue(value, valueAlias, featureState);
 
+		return getBy(selector, fixedValue);
+	}
+
+	@Override
+	public By getBy(
+			final String selector,
+			final String fixedValue) {
+
 		if (ID.equals(selector)) {
 			return By.id(fixedValue);
 		}
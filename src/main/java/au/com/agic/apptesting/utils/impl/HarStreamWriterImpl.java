@@ -0,0 +1,197 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.exception.ProxyException;
+import au.com.agic.apptesting.utils.HarStreamWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.lightbody.bmp.core.har.HarEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A HAR writer that hands entries to a background thread through a bounded queue. The
+ * background thread appends each entry to the HAR file as soon as it is received, so
+ * memory use is limited to the size of the queue no matter how long the test runs.
+ */
+public class HarStreamWriterImpl implements HarStreamWriter {
+	private static final Logger LOGGER = LoggerFactory.getLogger(HarStreamWriterImpl.class);
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	private static final long POLL_TIMEOUT = 100;
+	private static final String HEADER = "{\"log\":{\"version\":\"1.2\","
+		+ "\"creator\":{\"name\":\"Iridium\",\"version\":\"\"},"
+		+ "\"pages\":[],\"entries\":[";
+	private static final String FOOTER = "]}}";
+
+	private final File file;
+	private final BlockingQueue<HarEntry> queue;
+	private final Writer writer;
+	private final Thread writerThread;
+	private final AtomicLong dropped = new AtomicLong();
+	/**
+	 * Released for each queued entry to wake the background thread. Entries stay in the queue
+	 * until they are written while holding the lock, so a snapshot never misses an entry that
+	 * the background thread has taken but not yet written.
+	 */
+	private final Semaphore queued = new Semaphore(0);
+	/**
+	 * Guards the file writer, which is shared between the background thread and snapshots
+	 */
+	private final Object lock = new Object();
+	private volatile boolean closed;
+	private boolean firstEntry = true;
+
+	/**
+	 * @param file      The file to stream the HAR entries to
+	 * @param queueSize The maximum number of entries held in memory waiting to be written
+	 */
+	public HarStreamWriterImpl(@NotNull final File file, final int queueSize) {
+		checkNotNull(file);
+		checkArgument(queueSize > 0);
+
+		this.file = file;
+		this.queue = new ArrayBlockingQueue<>(queueSize);
+
+		try {
+			this.writer = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(file),
+				StandardCharsets.UTF_8));
+			this.writer.write(HEADER);
+		} catch (final IOException ex) {
+			throw new ProxyException("Failed to create the HAR file " + file.getAbsolutePath(), ex);
+		}
+
+		this.writerThread = new Thread(this::writeEntries, "HarStreamWriter-" + file.getName());
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+	@Override
+	public boolean write(@NotNull final HarEntry entry) {
+		checkNotNull(entry);
+
+		/*
+			Entries are written from the proxy's network threads, so they are dropped
+			rather than waiting for space in the queue
+		 */
+		if (!closed && queue.offer(entry)) {
+			queued.release();
+			return true;
+		}
+
+		dropped.incrementAndGet();
+		return false;
+	}
+
+	@Override
+	public void snapshot(@NotNull final File snapshotFile) {
+		checkNotNull(snapshotFile);
+
+		synchronized (lock) {
+			try {
+				drainQueue();
+				writer.flush();
+				Files.copy(file.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				Files.write(
+					snapshotFile.toPath(),
+					FOOTER.getBytes(StandardCharsets.UTF_8),
+					StandardOpenOption.APPEND);
+			} catch (final IOException ex) {
+				throw new ProxyException("Failed to save the HAR file " + snapshotFile.getAbsolutePath(), ex);
+			}
+		}
+	}
+
+	@Override
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+
+		try {
+			writerThread.join();
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+
+		synchronized (lock) {
+			try {
+				drainQueue();
+				writer.write(FOOTER);
+				writer.close();
+			} catch (final IOException ex) {
+				LOGGER.error("WEBAPPTESTER-BUG-0014: Failed to complete the HAR file " + file.getAbsolutePath(), ex);
+			}
+		}
+
+		if (dropped.get() != 0) {
+			LOGGER.info("WEBAPPTESTER-INFO-0016: {} entries were dropped from the HAR file {} "
+				+ "because they could not be written quickly enough", dropped.get(), file.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * The loop run by the background thread
+	 */
+	private void writeEntries() {
+		while (!closed) {
+			try {
+				if (queued.tryAcquire(POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+					synchronized (lock) {
+						queued.drainPermits();
+						drainQueue();
+						writer.flush();
+					}
+				}
+			} catch (final InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (final IOException ex) {
+				LOGGER.error("WEBAPPTESTER-BUG-0014: Failed to write to the HAR file " + file.getAbsolutePath(), ex);
+			}
+		}
+	}
+
+	/**
+	 * Writes every entry waiting in the queue. Must be called while holding the lock.
+	 */
+	private void drainQueue() throws IOException {
+		HarEntry entry;
+		while ((entry = queue.poll()) != null) {
+			writeEntry(entry);
+		}
+	}
+
+	private void writeEntry(final HarEntry entry) throws IOException {
+		if (!firstEntry) {
+			writer.write(',');
+		}
+		firstEntry = false;
+		writer.write(OBJECT_MAPPER.writeValueAsString(entry));
+	}
+}
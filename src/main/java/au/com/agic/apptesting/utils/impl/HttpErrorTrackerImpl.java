@@ -0,0 +1,156 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.HttpErrorRecord;
+import au.com.agic.apptesting.utils.HttpErrorTracker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An error tracker backed by a fixed size ring buffer. Proxy threads claim a slot with a
+ * single atomic increment, so they never wait on each other or on the test threads.
+ * Records can optionally be appended to a file as well, which is done on a background thread.
+ */
+public class HttpErrorTrackerImpl implements HttpErrorTracker {
+	private static final Logger LOGGER = LoggerFactory.getLogger(HttpErrorTrackerImpl.class);
+	/**
+	 * The number of records that can wait to be saved before new records are not saved
+	 */
+	private static final int MAX_QUEUED_SPILLS = 10000;
+	private static final AtomicLong DROPPED_SPILLS = new AtomicLong();
+	/**
+	 * Records are never saved on the proxy threads, and the queue is bounded, so a backend
+	 * returning errors faster than they can be written can't use up all the memory
+	 */
+	private static final ExecutorService SPILL_EXECUTOR = new ThreadPoolExecutor(
+		1,
+		1,
+		0,
+		TimeUnit.MILLISECONDS,
+		new ArrayBlockingQueue<>(MAX_QUEUED_SPILLS),
+		new ThreadFactoryBuilder()
+			.setNameFormat("HttpErrorSpill-%d")
+			.setDaemon(true)
+			.build(),
+		(runnable, executor) -> DROPPED_SPILLS.incrementAndGet());
+
+	private final Optional<String> owner;
+	private final Optional<File> spillFile;
+	private final AtomicReferenceArray<HttpErrorRecord> records;
+	private final AtomicLong nextSequence = new AtomicLong();
+
+	/**
+	 * @param owner     The name of the test thread that owns the proxy, or an empty result if
+	 *                  the proxy is shared by all threads
+	 * @param capacity  The number of records to hold in memory
+	 * @param spillFile An optional file that every record is appended to
+	 */
+	public HttpErrorTrackerImpl(
+			@NotNull final Optional<String> owner,
+			final int capacity,
+			@NotNull final Optional<File> spillFile) {
+		checkNotNull(owner);
+		checkArgument(capacity > 0);
+		checkNotNull(spillFile);
+
+		this.owner = owner;
+		this.spillFile = spillFile;
+		this.records = new AtomicReferenceArray<>(capacity);
+	}
+
+	@Override
+	public void record(@NotNull final String url, final int status) {
+		checkNotNull(url);
+
+		final long sequence = nextSequence.getAndIncrement();
+		final HttpErrorRecord record =
+			new HttpErrorRecord(sequence, url, status, System.currentTimeMillis(), owner);
+
+		records.set(getSlot(sequence), record);
+
+		spillFile.ifPresent(file -> SPILL_EXECUTOR.execute(() -> {
+			try {
+				Files.write(
+					file.toPath(),
+					Collections.singletonList(record.toLogLine()),
+					StandardCharsets.UTF_8,
+					StandardOpenOption.CREATE,
+					StandardOpenOption.APPEND);
+			} catch (final IOException ex) {
+				LOGGER.error("WEBAPPTESTER-BUG-0015: Failed to save HTTP error to " + file.getAbsolutePath(), ex);
+			}
+		}));
+	}
+
+	@Override
+	public List<HttpErrorRecord> getErrors(@NotNull final String threadName) {
+		checkNotNull(threadName);
+
+		if (!isVisible(threadName)) {
+			return Collections.emptyList();
+		}
+
+		final long end = nextSequence.get();
+		final long start = Math.max(0, end - records.length());
+		final List<HttpErrorRecord> errors = new ArrayList<>();
+
+		for (long sequence = start; sequence < end; ++sequence) {
+			/*
+				A slot may not have been written yet, or may already have been
+				reused by a newer record. Either way the sequence will not match.
+			 */
+			final HttpErrorRecord record = records.get(getSlot(sequence));
+			if (record != null && record.getSequence() == sequence) {
+				errors.add(record);
+			}
+		}
+
+		return errors;
+	}
+
+	@Override
+	public long getErrorCount(@NotNull final String threadName) {
+		checkNotNull(threadName);
+
+		return isVisible(threadName) ? nextSequence.get() : 0;
+	}
+
+	/**
+	 * Errors from a shared proxy are visible to every thread
+	 */
+	private boolean isVisible(final String threadName) {
+		return owner.map(threadName::equals).orElse(true);
+	}
+
+	/**
+	 * @return The number of records, from every tracker, that were not saved to a file
+	 * because too many records were waiting to be saved
+	 */
+	public static long getDroppedSpillCount() {
+		return DROPPED_SPILLS.get();
+	}
+
+	private int getSlot(final long sequence) {
+		return (int) (sequence % records.length());
+	}
+}
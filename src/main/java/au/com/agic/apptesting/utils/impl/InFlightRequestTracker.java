@@ -0,0 +1,212 @@
+package au.com.agic.apptesting.utils.impl;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AttributeKey;
+import net.lightbody.bmp.filters.HttpsAwareFiltersAdapter;
+import org.littleshoot.proxy.HttpFilters;
+import org.littleshoot.proxy.HttpFiltersAdapter;
+import org.littleshoot.proxy.HttpFiltersSourceAdapter;
+
+import javax.validation.constraints.NotNull;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Counts the requests that have been sent through the proxy and have not been answered yet.
+ * The tracker is added as the last filter, so requests answered by the other filters (like
+ * blocked URLs or cached assets) never reach the network and are not counted.
+ *
+ * A proxy started by a test thread only sees the requests made by that thread's browser.
+ * The proxy shared by all threads counts the requests of every browser.
+ */
+public class InFlightRequestTracker extends HttpFiltersSourceAdapter {
+	/**
+	 * The request being handled on a connection from the browser. Browsers send one request at
+	 * a time on each connection, so the request is replaced when the next one arrives.
+	 */
+	private static final AttributeKey<HttpFilters> CURRENT_REQUEST =
+		AttributeKey.valueOf(InFlightRequestTracker.class.getName() + ".currentRequest");
+	/**
+	 * Set once the tracker is listening for the connection to close
+	 */
+	private static final AttributeKey<Boolean> CLOSE_LISTENER =
+		AttributeKey.valueOf(InFlightRequestTracker.class.getName() + ".closeListener");
+
+	private final UrlPatternMatcher ignoredUrls;
+	/**
+	 * Requests that were never seen to finish are forgotten after this many nanoseconds
+	 */
+	private final long maxRequestAge;
+	private final Map<Object, Long> inFlight = new ConcurrentHashMap<>();
+	private volatile long lastActivity = System.nanoTime();
+
+	/**
+	 * @param ignoredUrls   Regular expressions matching URLs that are never counted, like long polling requests
+	 * @param maxRequestAge The time in milliseconds after which a request that was never seen to finish
+	 *                      is no longer counted. This should be about as long as a wait for the network
+	 *                      to be idle, so a lost request delays at most one wait.
+	 */
+	public InFlightRequestTracker(@NotNull final Collection<String> ignoredUrls, final long maxRequestAge) {
+		checkNotNull(ignoredUrls);
+		checkArgument(maxRequestAge > 0);
+
+		this.ignoredUrls = UrlPatternMatcher.compile(ignoredUrls);
+		this.maxRequestAge = TimeUnit.MILLISECONDS.toNanos(maxRequestAge);
+	}
+
+	@Override
+	public HttpFilters filterRequest(final HttpRequest originalRequest, final ChannelHandlerContext ctx) {
+		/*
+			The proxy answers CONNECT requests itself, so they never get a response from a server
+		 */
+		if (HttpMethod.CONNECT.equals(originalRequest.getMethod())) {
+			return new HttpFiltersAdapter(originalRequest, ctx);
+		}
+
+		final HttpFilters filters = new HttpsAwareFiltersAdapter(originalRequest, ctx) {
+			@Override
+			public HttpResponse clientToProxyRequest(final HttpObject httpObject) {
+				if (httpObject instanceof HttpRequest) {
+					requestStarted(this, getFullUrl((HttpRequest) httpObject));
+				}
+
+				return null;
+			}
+
+			@Override
+			public HttpObject serverToProxyResponse(final HttpObject httpObject) {
+				if (httpObject instanceof LastHttpContent) {
+					channelRequestFinished(ctx, this);
+				}
+
+				return httpObject;
+			}
+
+			@Override
+			public HttpObject proxyToClientResponse(final HttpObject httpObject) {
+				if (httpObject instanceof LastHttpContent) {
+					channelRequestFinished(ctx, this);
+				}
+
+				return httpObject;
+			}
+
+			@Override
+			public void serverToProxyResponseTimedOut() {
+				channelRequestFinished(ctx, this);
+			}
+
+			@Override
+			public void proxyToServerResolutionFailed(final String hostAndPort) {
+				channelRequestFinished(ctx, this);
+			}
+
+			@Override
+			public void proxyToServerConnectionFailed() {
+				channelRequestFinished(ctx, this);
+			}
+		};
+
+		/*
+			HttpFilters has no callback for a request that the browser aborts, like the requests
+			cancelled when the browser navigates away from a page. Aborting a request closes the
+			connection from the browser, so the current request is finished when the connection
+			closes. Connections are kept alive for many requests, so only one listener is added
+			to each connection, and it only holds the connection.
+		 */
+		if (ctx != null) {
+			final Channel channel = ctx.channel();
+			final HttpFilters previous = channel.attr(CURRENT_REQUEST).getAndSet(filters);
+			if (previous != null) {
+				requestFinished(previous);
+			}
+
+			if (channel.attr(CLOSE_LISTENER).setIfAbsent(true) == null) {
+				channel.closeFuture().addListener(future ->
+					Optional.ofNullable(channel.attr(CURRENT_REQUEST).getAndSet(null))
+						.ifPresent(this::requestFinished));
+			}
+		}
+
+		return filters;
+	}
+
+	/**
+	 * Finishes a request, and forgets it as the current request of its connection
+	 */
+	private void channelRequestFinished(final ChannelHandlerContext ctx, final HttpFilters filters) {
+		if (ctx != null) {
+			ctx.channel().attr(CURRENT_REQUEST).compareAndSet(filters, null);
+		}
+
+		requestFinished(filters);
+	}
+
+	/**
+	 * @param request An object that identifies the request
+	 * @param url     The URL of the request
+	 * @return true if the request is being tracked, and false if the URL is ignored
+	 */
+	public boolean requestStarted(@NotNull final Object request, @NotNull final String url) {
+		checkNotNull(request);
+		checkNotNull(url);
+
+		if (ignoredUrls.matches(url)) {
+			return false;
+		}
+
+		final long now = System.nanoTime();
+		removeAbandonedRequests(now);
+		inFlight.put(request, now);
+		lastActivity = now;
+		return true;
+	}
+
+	/**
+	 * Stops tracking a request. Requests that are not being tracked are ignored.
+	 *
+	 * @param request The object passed to requestStarted()
+	 */
+	public void requestFinished(@NotNull final Object request) {
+		checkNotNull(request);
+
+		if (inFlight.remove(request) != null) {
+			lastActivity = System.nanoTime();
+		}
+	}
+
+	/**
+	 * @return The number of requests that have not been answered yet
+	 */
+	public int getInFlightCount() {
+		removeAbandonedRequests(System.nanoTime());
+		return inFlight.size();
+	}
+
+	/**
+	 * @param idleTime The time in milliseconds that there have to have been no requests in flight
+	 * @return true if no request has started or finished for the idle time, and none are in flight
+	 */
+	public boolean isIdle(final long idleTime) {
+		checkArgument(idleTime >= 0);
+
+		return getInFlightCount() == 0
+			&& System.nanoTime() - lastActivity >= TimeUnit.MILLISECONDS.toNanos(idleTime);
+	}
+
+	private void removeAbandonedRequests(final long now) {
+		inFlight.values().removeIf(x -> now - x > maxRequestAge);
+	}
+}
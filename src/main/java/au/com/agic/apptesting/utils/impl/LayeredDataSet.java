@@ -0,0 +1,128 @@
+package au.com.agic.apptesting.utils.impl;
+
+import javax.validation.constraints.NotNull;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An immutable data set made up of a base data set that is shared between feature states,
+ * and a small layer of values that were saved while the feature was running. Values in the
+ * layer hide values with the same key in the base.
+ *
+ * Reading a value is a lookup in two hash maps, and adding values copies only the layer, never
+ * the base. Because instances never change, they can be handed out without being copied.
+ */
+public final class LayeredDataSet extends AbstractMap<String, String> {
+	private static final LayeredDataSet EMPTY = new LayeredDataSet(Collections.emptyMap(), Collections.emptyMap());
+
+	private final Map<String, String> base;
+	private final Map<String, String> overrides;
+	private Set<Entry<String, String>> entrySet;
+
+	private LayeredDataSet(final Map<String, String> base, final Map<String, String> overrides) {
+		this.base = base;
+		this.overrides = overrides;
+	}
+
+	/**
+	 * @return An empty data set
+	 */
+	public static LayeredDataSet empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * @param base The values for the data set. The map is wrapped rather than copied, so it must not be
+	 *             changed afterwards.
+	 * @return A data set holding the values in the map
+	 */
+	public static LayeredDataSet of(@NotNull final Map<String, String> base) {
+		checkNotNull(base);
+
+		if (base instanceof LayeredDataSet) {
+			return (LayeredDataSet) base;
+		}
+
+		return new LayeredDataSet(Collections.unmodifiableMap(base), Collections.emptyMap());
+	}
+
+	/**
+	 * @param key   The key of the value
+	 * @param value The value
+	 * @return A new data set that holds the value, leaving this data set unchanged
+	 */
+	public LayeredDataSet with(@NotNull final String key, final String value) {
+		checkNotNull(key);
+
+		return withAll(Collections.singletonMap(key, value));
+	}
+
+	/**
+	 * @param values The values to add
+	 * @return A new data set that holds the values, leaving this data set unchanged
+	 */
+	public LayeredDataSet withAll(@NotNull final Map<String, String> values) {
+		checkNotNull(values);
+
+		if (values.isEmpty()) {
+			return this;
+		}
+
+		final Map<String, String> newOverrides = new HashMap<>(overrides);
+		newOverrides.putAll(values);
+		return new LayeredDataSet(base, Collections.unmodifiableMap(newOverrides));
+	}
+
+	@Override
+	public String get(final Object key) {
+		final String value = overrides.get(key);
+		return value != null || overrides.containsKey(key) ? value : base.get(key);
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return overrides.containsKey(key) || base.containsKey(key);
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+		}
+
+		return entrySet;
+	}
+
+	/**
+	 * The entries in the layer, followed by the entries in the base that the layer doesn't hide
+	 */
+	private final class EntrySet extends AbstractSet<Entry<String, String>> {
+		private int size = -1;
+
+		@Override
+		public Iterator<Entry<String, String>> iterator() {
+			return Stream.concat(
+				overrides.entrySet().stream(),
+				base.entrySet().stream().filter(x -> !overrides.containsKey(x.getKey())))
+				.iterator();
+		}
+
+		@Override
+		public int size() {
+			if (size == -1) {
+				size = overrides.size()
+					+ (int) base.keySet().stream().filter(x -> !overrides.containsKey(x)).count();
+			}
+
+			return size;
+		}
+	}
+}
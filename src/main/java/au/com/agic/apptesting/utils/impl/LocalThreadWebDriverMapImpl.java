@@ -18,6 +18,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -33,16 +36,18 @@ public class LocalThreadWebDriverMapImpl implements ThreadWebDriverMap {
 	private static final Logger LOGGER = LoggerFactory.getLogger(LocalThreadWebDriverMapImpl.class);
 	private static final SystemPropertyUtils SYSTEM_PROPERTY_UTILS = new SystemPropertyUtilsImpl();
 	private static final WebDriverFactory WEB_DRIVER_FACTORY = new WebDriverFactoryImpl();
+	private static final ProxyManager PROXY_MANAGER = new ProxyManagerImpl();
 
 	/**
-	 * The mapping between thread ids and the feature state objects that they use for the tests
+	 * The mapping between thread ids and the feature state objects that they use for the tests.
+	 * Reads are lock free. Only the allocation of a new feature state is synchronized.
 	 */
-	private final Map<String, FeatureState> threadIdToCapMap = new HashMap<>();
+	private final Map<String, FeatureState> threadIdToCapMap = new ConcurrentHashMap<>();
 
 	/**
 	 * The mapping between thread ids and the webdrivers that they use for the tests
 	 */
-	private final Map<String, WebDriver> threadIdToDriverMap = new HashMap<>();
+	private final Map<String, WebDriver> threadIdToDriverMap = new ConcurrentHashMap<>();
 
 	/**
 	 * The index of the Url we are going to be testing
@@ -70,7 +75,8 @@ public class LocalThreadWebDriverMapImpl implements ThreadWebDriverMap {
 	private Map<Integer, Map<String, String>> originalDataSets;
 
 	/**
-	 * A list of temp folders to delete once the test is finished
+	 * A list of temp folders to delete once the test is finished. Web drivers are created by
+	 * test threads and pool threads at the same time, and each may add to the list.
 	 */
 	private List<File> tempFolders;
 
@@ -79,6 +85,17 @@ public class LocalThreadWebDriverMapImpl implements ThreadWebDriverMap {
 	 */
 	private List<ProxyDetails<?>> proxies;
 
+	/**
+	 * The proxies that were started for individual threads
+	 */
+	private final Map<String, List<ProxyDetails<?>>> threadIdToProxiesMap = new ConcurrentHashMap<>();
+
+	/**
+	 * Reuses browsers between scenarios when a new browser is requested for each scenario.
+	 * This is null if the pool is disabled.
+	 */
+	private volatile WebDriverPool webDriverPool;
+
 	@Override
 	public void initialise(
 			@NotNull final List<DesiredCapabilities> desiredCapabilities,
@@ -96,16 +113,74 @@ public class LocalThreadWebDriverMapImpl implements ThreadWebDriverMap {
 		checkNotNull(myProxies);
 
 		originalApplicationUrls = new ArrayList<>(applicationUrls);
-		originalDataSets = new HashMap<>(datasets);
+		originalDataSets = datasets.entrySet().stream()
+			.collect(Collectors.toMap(Map.Entry::getKey, x -> LayeredDataSet.of(new HashMap<>(x.getValue()))));
 		reportDirectory = myReportDirectory;
-		tempFolders = new ArrayList<>(myTempFolders);
+		tempFolders = new CopyOnWriteArrayList<>(myTempFolders);
 		proxies = new ArrayList<>(myProxies);
+		webDriverPool = createWebDriverPool();
+	}
+
+	/**
+	 * The pool is only useful when browsers are thrown away after each scenario, and can't be
+	 * used when browsers are left open. Pooled browsers are all configured with the same proxy,
+	 * so the pool is also not used when each thread has its own proxy.
+	 */
+	private WebDriverPool createWebDriverPool() {
+		final boolean newDriverPerScenario =
+			SYSTEM_PROPERTY_UTILS.getPropertyAsBoolean(Constants.NEW_BROWSER_PER_SCENARIO, false);
+		final boolean proxyPerThread =
+			SYSTEM_PROPERTY_UTILS.getPropertyAsBoolean(Constants.PROXY_PER_THREAD, false);
+		final int poolSize = SYSTEM_PROPERTY_UTILS.getPropertyAsInt(Constants.WEB_DRIVER_POOL_SIZE, 1);
+
+		if (!newDriverPerScenario || proxyPerThread || poolSize <= 0 || WEB_DRIVER_FACTORY.leaveWindowsOpen()) {
+			return null;
+		}
+
+		/*
+			Every thread can return a browser to the pool at the same time
+		 */
+		final int numberOfThreads = Math.max(
+			SYSTEM_PROPERTY_UTILS.getPropertyAsInt(Constants.NUMBER_THREADS_SYSTEM_PROPERTY, 2), 1);
+
+		final WebDriverPool pool = new WebDriverPoolImpl(
+			() -> WEB_DRIVER_FACTORY.createWebDriver(proxies, tempFolders),
+			poolSize,
+			poolSize + numberOfThreads);
+		pool.warm();
+
+		return pool;
 	}
 
 	@NotNull
 	@Override
-	public synchronized FeatureState getDesiredCapabilitiesForThread(@NotNull final String name) {
+	public FeatureState getDesiredCapabilitiesForThread(@NotNull final String name) {
 		checkArgument(StringUtils.isNotBlank(name));
+
+		final FeatureState featureState = threadIdToCapMap.get(name);
+		if (featureState != null) {
+			return featureState;
+		}
+
+		/*
+			Any proxies for this thread are started before the lock is taken
+		 */
+		final List<ProxyDetails<?>> threadProxies = PROXY_MANAGER.configureThreadProxies(proxies);
+
+		try {
+			return allocateFeatureState(name, threadProxies);
+		} catch (final RuntimeException ex) {
+			PROXY_MANAGER.stopThreadProxies(name, threadProxies, proxies, reportDirectory);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Assigns the next available configuration to a thread
+	 */
+	private synchronized FeatureState allocateFeatureState(
+			@NotNull final String name,
+			@NotNull final List<ProxyDetails<?>> threadProxies) {
 		checkArgument(name.startsWith(Constants.THREAD_NAME_PREFIX));
 
 		if (threadIdToCapMap.containsKey(name)) {
@@ -127,9 +202,10 @@ public class LocalThreadWebDriverMapImpl implements ThreadWebDriverMap {
 		final UrlMapping url = originalApplicationUrls.isEmpty()
 			? null : originalApplicationUrls.get(currentUrl);
 
-		final Map<String, String> dataSet = originalDataSets.containsKey(currentDataset)
-			? new HashMap<>(originalDataSets.get(currentDataset))
-			: new HashMap<>();
+		/*
+			The data sets are immutable, so every thread shares the original values
+		 */
+		final Map<String, String> dataSet = originalDataSets.getOrDefault(currentDataset, LayeredDataSet.empty());
 
 		/*
 			Tick over to the next url when all the capabilities have been consumed
@@ -145,26 +221,45 @@ public class LocalThreadWebDriverMapImpl implements ThreadWebDriverMap {
 			url,
 			dataSet,
 			reportDirectory,
-			proxies);
+			threadProxies);
 
 		threadIdToCapMap.put(name, featureState);
+		threadIdToProxiesMap.put(name, threadProxies);
 
 		return featureState;
 	}
 
 	@NotNull
 	@Override
-	public synchronized WebDriver getWebDriverForThread(@NotNull final String name, final boolean createIfMissing) {
+	public WebDriver getWebDriverForThread(@NotNull final String name, final boolean createIfMissing) {
 		checkArgument(StringUtils.isNotEmpty(name));
 
-		if (threadIdToDriverMap.containsKey(name)) {
-			return threadIdToDriverMap.get(name);
+		final WebDriver existing = threadIdToDriverMap.get(name);
+		if (existing != null) {
+			return existing;
 		}
 
 		if (createIfMissing) {
-			LOGGER.info("WEBAPPTESTER-INFO-0006: Creating WebDriver");
-			final WebDriver webDriver = WEB_DRIVER_FACTORY.createWebDriver(proxies, tempFolders);
-			threadIdToDriverMap.put(name, webDriver);
+			/*
+				Each thread only creates its own driver, so browsers can be started
+				in parallel without holding a lock
+			 */
+			final WebDriverPool pool = webDriverPool;
+			final WebDriver webDriver;
+			if (pool == null) {
+				LOGGER.info("WEBAPPTESTER-INFO-0006: Creating WebDriver");
+				webDriver = WEB_DRIVER_FACTORY.createWebDriver(
+					getDesiredCapabilitiesForThread(name).getProxyInterface(),
+					tempFolders);
+			} else {
+				webDriver = pool.acquire();
+			}
+
+			final WebDriver raced = threadIdToDriverMap.putIfAbsent(name, webDriver);
+			if (raced != null) {
+				webDriver.quit();
+				return raced;
+			}
 
 			return webDriver;
 		}
@@ -173,15 +268,18 @@ public class LocalThreadWebDriverMapImpl implements ThreadWebDriverMap {
 	}
 
 	@Override
-	public synchronized void clearWebDriverForThread(@NotNull final String name, final boolean quitDriver) {
+	public void clearWebDriverForThread(@NotNull final String name, final boolean quitDriver) {
 		checkArgument(StringUtils.isNotEmpty(name));
 
-		if (threadIdToDriverMap.containsKey(name)) {
-			if (quitDriver) {
+		final WebDriver webDriver = threadIdToDriverMap.remove(name);
+		if (webDriver != null && quitDriver) {
+			final WebDriverPool pool = webDriverPool;
+			if (pool == null) {
 				LOGGER.info("WEBAPPTESTER-INFO-0007: Quitting WebDriver");
-				threadIdToDriverMap.get(name).quit();
+				webDriver.quit();
+			} else {
+				pool.release(webDriver);
 			}
-			threadIdToDriverMap.remove(name);
 		}
 	}
 
@@ -227,12 +325,26 @@ public class LocalThreadWebDriverMapImpl implements ThreadWebDriverMap {
 			}
 		}
 
+		/*
+			Stop the proxies of any thread that did not shut itself down
+		 */
+		threadIdToProxiesMap.keySet().forEach(this::stopThreadProxies);
+
         /*
             Clear the map
          */
 		threadIdToDriverMap.clear();
 		threadIdToCapMap.clear();
 
+		/*
+			Report how well the pool worked, and quit the browsers it was holding
+		 */
+		if (webDriverPool != null) {
+			LOGGER.info("WEBAPPTESTER-INFO-0013: WebDriver pool statistics: {}", webDriverPool.getStatistics());
+			webDriverPool.shutdown();
+			webDriverPool = null;
+		}
+
 		/*
 			Attempt to delete all the temp folders
 		 */
@@ -245,9 +357,17 @@ public class LocalThreadWebDriverMapImpl implements ThreadWebDriverMap {
 	}
 
 	@Override
-	public synchronized void shutdown(@NotNull final String name) {
+	public void shutdown(@NotNull final String name) {
 		checkArgument(StringUtils.isNotBlank(name));
 
 		this.clearWebDriverForThread(name, !WEB_DRIVER_FACTORY.leaveWindowsOpen());
+		stopThreadProxies(name);
+	}
+
+	private void stopThreadProxies(@NotNull final String name) {
+		final List<ProxyDetails<?>> threadProxies = threadIdToProxiesMap.remove(name);
+		if (threadProxies != null) {
+			PROXY_MANAGER.stopThreadProxies(name, threadProxies, proxies, reportDirectory);
+		}
 	}
 }
@@ -0,0 +1,118 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.LocatorStrategyCache;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A locator strategy cache held in memory, and optionally saved to a JSON file mapping each
+ * value to the location method that last found it
+ */
+public class LocatorStrategyCacheImpl implements LocatorStrategyCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(LocatorStrategyCacheImpl.class);
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private final Optional<File> file;
+	private final Map<String, String> strategies = new ConcurrentHashMap<>();
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+	private final AtomicInteger explicit = new AtomicInteger();
+
+	/**
+	 * @param file An optional file that the cache is loaded from, and saved to
+	 */
+	public LocatorStrategyCacheImpl(@NotNull final Optional<File> file) {
+		checkNotNull(file);
+
+		this.file = file;
+		this.file.filter(File::isFile).ifPresent(this::load);
+	}
+
+	@Override
+	public List<String> getStrategies(@NotNull final String value, @NotNull final List<String> defaultStrategies) {
+		checkNotNull(value);
+		checkNotNull(defaultStrategies);
+
+		final String strategy = strategies.get(value);
+		if (strategy == null || !defaultStrategies.contains(strategy) || defaultStrategies.indexOf(strategy) == 0) {
+			return defaultStrategies;
+		}
+
+		final List<String> ordered = new ArrayList<>(defaultStrategies.size());
+		ordered.add(strategy);
+		defaultStrategies.stream().filter(x -> !x.equals(strategy)).forEach(ordered::add);
+		return ordered;
+	}
+
+	@Override
+	public void recordStrategy(@NotNull final String value, @NotNull final String strategy) {
+		checkNotNull(value);
+		checkArgument(StringUtils.isNotBlank(strategy));
+
+		if (strategy.equals(strategies.put(value, strategy))) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void recordExplicitStrategy() {
+		explicit.incrementAndGet();
+	}
+
+	@Override
+	public String getStatistics() {
+		final int lookups = hits.get() + misses.get();
+
+		return String.format(
+			"%d values cached, hit rate %d%% (%d of %d), %d found with an explicit location method",
+			strategies.size(),
+			lookups == 0 ? 0 : hits.get() * 100 / lookups,
+			hits.get(),
+			lookups,
+			explicit.get());
+	}
+
+	@Override
+	public void save() {
+		file.ifPresent(x -> {
+			try {
+				OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(x, new TreeMap<>(strategies));
+			} catch (final IOException ex) {
+				LOGGER.error("WEBAPPTESTER-BUG-0017: Failed to save the locator strategy cache to "
+					+ x.getAbsolutePath(), ex);
+			}
+		});
+	}
+
+	private void load(final File source) {
+		try {
+			final Map<String, String> saved =
+				OBJECT_MAPPER.readValue(source, new TypeReference<Map<String, String>>() { });
+			saved.entrySet().stream()
+				.filter(x -> x.getKey() != null && StringUtils.isNotBlank(x.getValue()))
+				.forEach(x -> strategies.put(x.getKey(), x.getValue()));
+		} catch (final IOException ex) {
+			LOGGER.error("WEBAPPTESTER-BUG-0018: Failed to load the locator strategy cache from "
+				+ source.getAbsolutePath() + ". The cache will be rebuilt.", ex);
+		}
+	}
+}
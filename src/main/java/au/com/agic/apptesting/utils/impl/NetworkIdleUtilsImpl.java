@@ -0,0 +1,33 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.State;
+import au.com.agic.apptesting.utils.NetworkIdleUtils;
+import au.com.agic.apptesting.utils.WaitResult;
+import au.com.agic.apptesting.utils.WaitUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An implementation of the network idle service that polls the in flight request
+ * tracker of the proxy used by the current thread
+ */
+@Component
+public class NetworkIdleUtilsImpl implements NetworkIdleUtils {
+	@Autowired
+	private WaitUtils waitUtils;
+
+	@Override
+	public Optional<WaitResult<Boolean>> waitForNetworkIdle(final long idleTime, final long timeout) {
+		checkArgument(idleTime >= 0);
+		checkArgument(timeout >= 0);
+
+		return State.getFeatureStateForThread().getProxyInterface(BrowsermobProxyUtilsImpl.PROXY_NAME)
+			.map(x -> x.getProperties().get(BrowsermobProxyUtilsImpl.IN_FLIGHT_REQUESTS))
+			.map(InFlightRequestTracker.class::cast)
+			.map(tracker -> waitUtils.waitUntil(timeout, () -> tracker.isIdle(idleTime)));
+	}
+}
@@ -0,0 +1,190 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.PageTextMatch;
+import au.com.agic.apptesting.utils.PageTextSearch;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import org.apache.commons.lang3.StringUtils;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An implementation of the page text search service that runs the search with one call to
+ * executeScript(), falling back to transferring the page text when the browser can't run the search
+ */
+@Component
+public class PageTextSearchImpl implements PageTextSearch {
+	private static final Logger LOGGER = LoggerFactory.getLogger(PageTextSearchImpl.class);
+
+	/**
+	 * The script is passed the text or regular expression, a flag that is true for a regular
+	 * expression, the regular expression flags and the length of the context to return. It returns
+	 * an array holding the outcome, the snippet and the length of the page text.
+	 */
+	private static final String SEARCH_SCRIPT = "var text = arguments[0];\n"
+		+ "var isRegex = arguments[1];\n"
+		+ "var flags = arguments[2];\n"
+		+ "var context = arguments[3];\n"
+		+ "var body = document.body;\n"
+		+ "var page = body ? (body.innerText || body.textContent || '') : '';\n"
+		+ "var index = -1;\n"
+		+ "var length = 0;\n"
+		+ "if (isRegex) {\n"
+		+ "    var match = null;\n"
+		+ "    try {\n"
+		+ "        match = new RegExp(text, flags).exec(page);\n"
+		+ "    } catch (ex) {\n"
+		+ "        return ['" + Outcome.UNSUPPORTED + "', '', 0];\n"
+		+ "    }\n"
+		+ "    if (match) {\n"
+		+ "        index = match.index;\n"
+		+ "        length = match[0].length;\n"
+		+ "    }\n"
+		+ "} else {\n"
+		+ "    index = page.indexOf(text);\n"
+		+ "    length = text.length;\n"
+		+ "}\n"
+		+ "if (index === -1) return ['" + Outcome.NOT_FOUND + "', page.substring(0, context * 2), page.length];\n"
+		+ "return ['" + Outcome.FOUND + "', "
+		+ "page.substring(Math.max(0, index - context), Math.min(page.length, index + length + context)), "
+		+ "page.length];";
+
+	/**
+	 * The number of characters before and after a match that are returned
+	 */
+	private static final int CONTEXT_LENGTH = 80;
+	private static final int RESULT_OUTCOME = 0;
+	private static final int RESULT_SNIPPET = 1;
+	private static final int RESULT_LENGTH = 2;
+
+	/**
+	 * Flags at the start of an expression that can be passed to a JavaScript RegExp
+	 */
+	private static final Pattern LEADING_FLAGS = Pattern.compile("^\\(\\?([im]+)\\)");
+	/**
+	 * Syntax that JavaScript either doesn't support or gives a different meaning: inline flags,
+	 * lookbehind, atomic groups, possessive quantifiers, character class intersection, quoting,
+	 * and escapes like \A, \Z, \h and \p{...}
+	 */
+	private static final Pattern JAVA_ONLY_SYNTAX =
+		Pattern.compile("\\(\\?(?:<[=!]|>|[a-zA-Z-]+[):])|[*+?}]\\+|&&|\\\\[AZzGQEhHRXpPvV]");
+
+	private enum Outcome {
+		FOUND,
+		NOT_FOUND,
+		UNSUPPORTED
+	}
+
+	@Override
+	public PageTextMatch findText(@NotNull final WebDriver webDriver, @NotNull final String text) {
+		checkNotNull(webDriver);
+		checkNotNull(text);
+
+		return search(webDriver, text, false, "")
+			.orElseGet(() -> findInPageText(webDriver, Pattern.compile(Pattern.quote(text))));
+	}
+
+	@Override
+	public PageTextMatch findRegex(@NotNull final WebDriver webDriver, @NotNull final String regex) {
+		checkNotNull(webDriver);
+		checkNotNull(regex);
+
+		/*
+			Compiling the expression first reports invalid expressions the same way for every browser
+		 */
+		final Pattern pattern = Pattern.compile(regex);
+
+		return toJavaScript(regex)
+			.flatMap(x -> search(webDriver, x._1, true, x._2))
+			.orElseGet(() -> findInPageText(webDriver, pattern));
+	}
+
+	/**
+	 * @param regex A Java regular expression
+	 * @return The source and flags of an equivalent JavaScript regular expression, or an empty
+	 * result if the expression uses syntax that only Java supports
+	 */
+	public static Optional<Tuple2<String, String>> toJavaScript(@NotNull final String regex) {
+		checkNotNull(regex);
+
+		final Matcher flags = LEADING_FLAGS.matcher(regex);
+		final boolean hasFlags = flags.find();
+		final String source = hasFlags ? regex.substring(flags.end()) : regex;
+
+		if (JAVA_ONLY_SYNTAX.matcher(source).find()) {
+			return Optional.empty();
+		}
+
+		return Optional.of(Tuple.of(source, hasFlags ? flags.group(1) : ""));
+	}
+
+	private Optional<PageTextMatch> search(
+			final WebDriver webDriver,
+			final String text,
+			final boolean isRegex,
+			final String flags) {
+
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			return Optional.empty();
+		}
+
+		try {
+			final List<?> result = (List<?>) ((JavascriptExecutor) webDriver).executeScript(
+				SEARCH_SCRIPT,
+				text,
+				isRegex,
+				flags,
+				CONTEXT_LENGTH);
+
+			final Outcome outcome = Outcome.valueOf(result.get(RESULT_OUTCOME).toString());
+			if (outcome == Outcome.UNSUPPORTED) {
+				return Optional.empty();
+			}
+
+			return Optional.of(new PageTextMatch(
+				outcome == Outcome.FOUND,
+				StringUtils.defaultString((String) result.get(RESULT_SNIPPET)),
+				((Number) result.get(RESULT_LENGTH)).intValue()));
+		} catch (final WebDriverException ex) {
+			LOGGER.debug("Failed to search the page with JavaScript. Falling back to the page text.", ex);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Transfers the page text and searches it in the JVM
+	 */
+	private PageTextMatch findInPageText(final WebDriver webDriver, final Pattern pattern) {
+		/*
+			getText() can fail here, we we use the innerText attribute instead.
+			https://github.com/AutoGeneral/IridiumApplicationTesting/issues/109
+		 */
+		final String pageText = StringUtils.defaultString(
+			webDriver.findElement(By.tagName("body")).getAttribute("innerText"));
+
+		final Matcher matcher = pattern.matcher(pageText);
+		if (matcher.find()) {
+			return new PageTextMatch(
+				true,
+				pageText.substring(
+					Math.max(0, matcher.start() - CONTEXT_LENGTH),
+					Math.min(pageText.length(), matcher.end() + CONTEXT_LENGTH)),
+				pageText.length());
+		}
+
+		return new PageTextMatch(false, StringUtils.left(pageText, CONTEXT_LENGTH * 2), pageText.length());
+	}
+}
@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -25,7 +26,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class ProxyManagerImpl implements ProxyManager {
 	private static final SystemPropertyUtils SYSTEM_PROPERTY_UTILS = new SystemPropertyUtilsImpl();
 	private static final LocalProxyUtils<ClientApi> ZAP_PROXY = new ZapProxyUtilsImpl();
-	private static final LocalProxyUtils<BrowserMobProxy> BROWSERMOB_PROXY = new BrowsermobProxyUtilsImpl();
+	private static final BrowsermobProxyUtilsImpl BROWSERMOB_PROXY = new BrowsermobProxyUtilsImpl();
+	private static final CookieSnapshotCache COOKIE_SNAPSHOT_CACHE = new CookieSnapshotCacheImpl();
+	private static final String REPLAY_REPORT_PREFIX = "replay-unmatched";
+	private static final String REPLAY_REPORT_EXTENSION = ".txt";
 
 	@Override
 	public List<ProxyDetails<?>> configureProxies(
@@ -51,8 +55,12 @@ public class ProxyManagerImpl implements ProxyManager {
 				? Optional.of(new ProxySettings("localhost", zapProxy.get().getPort()))
 				: proxySettings;
 
-			final Optional<ProxyDetails<BrowserMobProxy>> browermobProxy =
-				BROWSERMOB_PROXY.initProxy(globalTempFiles, tempFiles, browserMobUpstream);
+			/*
+				When each thread has its own BrowserMob proxy there is no global one
+			 */
+			final Optional<ProxyDetails<BrowserMobProxy>> browermobProxy = proxyPerThread()
+				? Optional.empty()
+				: BROWSERMOB_PROXY.initProxy(globalTempFiles, tempFiles, browserMobUpstream);
 
 			/*
 				Create the collection of proxies
@@ -74,7 +82,7 @@ public class ProxyManagerImpl implements ProxyManager {
 				/*
 					In the event that zap is enabled and browsermob isn't, ZAP is the main proxy
 				 */
-				zapProxy.get().setMainProxy(true);
+				zapProxy.get().setMainProxy(!(proxyPerThread() && BROWSERMOB_PROXY.isEnabled()));
 			}
 
 			return proxies;
@@ -85,8 +93,90 @@ public class ProxyManagerImpl implements ProxyManager {
 		}
 	}
 
+	@Override
+	public List<ProxyDetails<?>> configureThreadProxies(@NotNull final List<ProxyDetails<?>> globalProxies) {
+		checkNotNull(globalProxies);
+
+		if (!proxyPerThread()) {
+			return globalProxies;
+		}
+
+		try {
+			/*
+				Browsermob will upstream to zap if configured to do so
+			 */
+			final Optional<ProxyDetails<?>> zapProxy = globalProxies.stream()
+				.filter(proxyDetails -> ZapProxyUtilsImpl.PROXY_NAME.equals(proxyDetails.getProxyName()))
+				.findFirst();
+
+			final Optional<ProxySettings> browserMobUpstream = zapProxy.isPresent()
+				? Optional.of(new ProxySettings("localhost", zapProxy.get().getPort()))
+				: ProxySettings.fromSystemProps();
+
+			final Optional<ProxyDetails<BrowserMobProxy>> browermobProxy =
+				BROWSERMOB_PROXY.initProxy(new ArrayList<>(), new ArrayList<>(), browserMobUpstream);
+
+			final List<ProxyDetails<?>> proxies = new ArrayList<>();
+			browermobProxy.ifPresent(proxies::add);
+			proxies.addAll(globalProxies);
+
+			return proxies;
+		} catch (final Exception ex) {
+			throw new ProxyException(
+				"An exception was thrown while attempting to configure the proxies for a thread",
+				ex);
+		}
+	}
+
+	@Override
+	public void stopThreadProxies(
+			@NotNull final String threadName,
+			@NotNull final List<ProxyDetails<?>> threadProxies,
+			@NotNull final List<ProxyDetails<?>> globalProxies,
+			final String reportOutput) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+		checkNotNull(threadProxies);
+		checkNotNull(globalProxies);
+		checkArgument(StringUtils.isNotBlank(reportOutput));
+
+		final List<ProxyDetails<?>> proxies = threadProxies.stream()
+			.filter(proxyDetails -> !globalProxies.contains(proxyDetails))
+			.collect(Collectors.toList());
+
+		/*
+			Request rules and block lists added by this thread to the shared proxy no longer apply
+		 */
+		globalProxies.stream()
+			.map(ProxyDetails::getProperties)
+			.forEach(properties -> {
+				Optional.ofNullable(properties.get(BrowsermobProxyUtilsImpl.REQUEST_RULES))
+					.map(RequestRuleFilter.class::cast)
+					.ifPresent(x -> x.clearRules(threadName));
+				Optional.ofNullable(properties.get(BrowsermobProxyUtilsImpl.URL_ACCESS))
+					.map(UrlAccessFilter.class::cast)
+					.ifPresent(x -> x.clearRules(threadName));
+			});
+
+		/*
+			The AWSELB rules that read the cookie snapshot have been removed with the other rules
+		 */
+		COOKIE_SNAPSHOT_CACHE.untrack(threadName);
+
+		/*
+			Threads finish at the same time, so the thread name is added to the HAR file name
+		 */
+		stopProxies(proxies, reportOutput, threadName + "-");
+	}
+
 	@Override
 	public void stopProxies(@NotNull final List<ProxyDetails<?>> proxies, final String reportOutput) {
+		stopProxies(proxies, reportOutput, "");
+	}
+
+	private void stopProxies(
+			@NotNull final List<ProxyDetails<?>> proxies,
+			final String reportOutput,
+			@NotNull final String harFilePrefix) {
 		checkNotNull(proxies);
 		checkArgument(StringUtils.isNotBlank(reportOutput));
 
@@ -103,6 +193,7 @@ public class ProxyManagerImpl implements ProxyManager {
 					if (proxy.getHar() != null) {
 						Try.run(() -> {
 							final String filename = Constants.HAR_FILE_NAME_PREFIX
+								+ harFilePrefix
 								+ new SimpleDateFormat(Constants.FILE_DATE_FORMAT).format(new Date())
 								+ "."
 								+ Constants.HAR_FILE_NAME_EXTENSION;
@@ -114,7 +205,32 @@ public class ProxyManagerImpl implements ProxyManager {
 							proxy.getHar().writeTo(file);
 						});
 					}
+
+					/*
+						Save the list of requests that could not be replayed
+					 */
+					Optional.ofNullable(x.getProperties().get(BrowsermobProxyUtilsImpl.RECORD_REPLAY))
+						.map(RecordReplayFilter.class::cast)
+						.ifPresent(filter -> Try.run(() -> filter.writeUnmatchedReport(new File(
+							reportOutput
+								+ "/"
+								+ REPLAY_REPORT_PREFIX
+								+ harFilePrefix
+								+ new SimpleDateFormat(Constants.FILE_DATE_FORMAT).format(new Date())
+								+ REPLAY_REPORT_EXTENSION))));
+
+					/*
+						Streamed HAR files are already on disk, and only need to be completed
+					 */
+					Optional.ofNullable(x.getProperties().get(BrowsermobProxyUtilsImpl.STREAMING_HAR))
+						.map(StreamingHarFilter.class::cast)
+						.ifPresent(StreamingHarFilter::stop);
+
 					proxy.abort();
 				}));
 	}
+
+	private boolean proxyPerThread() {
+		return SYSTEM_PROPERTY_UTILS.getPropertyAsBoolean(Constants.PROXY_PER_THREAD, false);
+	}
 }
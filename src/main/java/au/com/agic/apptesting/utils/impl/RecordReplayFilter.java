@@ -0,0 +1,215 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.exception.ProxyException;
+import au.com.agic.apptesting.utils.ResponseRecordingStore;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import net.lightbody.bmp.filters.RequestFilter;
+import net.lightbody.bmp.filters.ResponseFilter;
+import net.lightbody.bmp.util.HttpMessageContents;
+import net.lightbody.bmp.util.HttpMessageInfo;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A pair of BrowserMob filters that either record the responses returned by the backend,
+ * or replay recorded responses without contacting the backend at all.
+ */
+public class RecordReplayFilter implements RequestFilter, ResponseFilter {
+	private static final Logger LOGGER = LoggerFactory.getLogger(RecordReplayFilter.class);
+	/**
+	 * Requests that never get a response are forgotten once this many newer requests are waiting
+	 */
+	private static final int MAX_PENDING_REQUESTS = 10000;
+
+	/**
+	 * Whether responses are recorded or replayed
+	 */
+	public enum Mode {
+		RECORD,
+		REPLAY
+	}
+
+	/**
+	 * The parts of a request that have to be the same for a recorded response to be replayed
+	 */
+	public enum Match {
+		METHOD,
+		URL,
+		BODY
+	}
+
+	private final Mode mode;
+	private final ResponseRecordingStore store;
+	private final Set<Match> match;
+	private final UrlPatternMatcher passthrough;
+	private final Set<String> unmatched = ConcurrentHashMap.newKeySet();
+	/**
+	 * The keys of requests waiting for a response to record. Weak keys are compared by
+	 * identity, and the request and response filters see the same original request.
+	 */
+	private final Cache<HttpRequest, String> pendingRequests = CacheBuilder.newBuilder()
+		.weakKeys()
+		.maximumSize(MAX_PENDING_REQUESTS)
+		.build();
+
+	/**
+	 * @param mode        Whether responses are recorded or replayed
+	 * @param store       The store that holds the recorded responses
+	 * @param match       The parts of the request used to match a recorded response
+	 * @param passthrough The regular expressions matching URLs that always go to the backend,
+	 *                    and are never recorded
+	 */
+	public RecordReplayFilter(
+			@NotNull final Mode mode,
+			@NotNull final ResponseRecordingStore store,
+			@NotNull final Set<Match> match,
+			@NotNull final List<String> passthrough) {
+		checkNotNull(mode);
+		checkNotNull(store);
+		checkArgument(!match.isEmpty());
+		checkNotNull(passthrough);
+
+		this.mode = mode;
+		this.store = store;
+		this.match = EnumSet.copyOf(match);
+		this.passthrough = UrlPatternMatcher.compile(passthrough);
+	}
+
+	@Override
+	public HttpResponse filterRequest(
+			final HttpRequest request,
+			final HttpMessageContents contents,
+			final HttpMessageInfo messageInfo) {
+
+		final String url = messageInfo.getOriginalUrl();
+		if (url == null
+			|| HttpMethod.CONNECT.equals(request.getMethod())
+			|| passthrough.matches(url)) {
+			return null;
+		}
+
+		final String key = getKey(request, url, contents);
+
+		if (mode == Mode.RECORD) {
+			pendingRequests.put(messageInfo.getOriginalRequest(), key);
+			return null;
+		}
+
+		/*
+			Exceptions thrown here would be swallowed by the proxy's network thread, so a
+			recording that can't be read is treated like a request that was never recorded
+		 */
+		Optional<FullHttpResponse> recorded;
+		try {
+			recorded = store.next(key);
+		} catch (final ProxyException ex) {
+			LOGGER.error("WEBAPPTESTER-BUG-0020: Failed to read the recorded response for " + key, ex);
+			recorded = Optional.empty();
+		}
+
+		return recorded
+			.map(HttpResponse.class::cast)
+			.orElseGet(() -> {
+				unmatched.add(request.getMethod().name() + " " + url);
+				final HttpResponse response = new DefaultFullHttpResponse(
+					HttpVersion.HTTP_1_1,
+					HttpResponseStatus.NOT_FOUND);
+				response.headers().set(HttpHeaders.Names.CONTENT_LENGTH, 0);
+				return response;
+			});
+	}
+
+	@Override
+	public void filterResponse(
+			final HttpResponse response,
+			final HttpMessageContents contents,
+			final HttpMessageInfo messageInfo) {
+
+		if (mode != Mode.RECORD || !(response instanceof FullHttpResponse)) {
+			return;
+		}
+
+		final String key = pendingRequests.getIfPresent(messageInfo.getOriginalRequest());
+		if (key != null) {
+			pendingRequests.invalidate(messageInfo.getOriginalRequest());
+
+			/*
+				A response that can't be recorded is still returned to the browser
+			 */
+			try {
+				store.save(key, key, (FullHttpResponse) response);
+			} catch (final ProxyException ex) {
+				LOGGER.error("WEBAPPTESTER-BUG-0019: Failed to record the response for " + key, ex);
+			}
+		}
+	}
+
+	/**
+	 * @return The requests that had no recorded response, sorted by URL
+	 */
+	public List<String> getUnmatchedRequests() {
+		final List<String> requests = new ArrayList<>(new TreeSet<>(unmatched));
+		return Collections.unmodifiableList(requests);
+	}
+
+	/**
+	 * Saves the list of requests that had no recorded response. Nothing is saved if
+	 * every request was matched.
+	 *
+	 * @param file The file to save the report to
+	 */
+	public void writeUnmatchedReport(@NotNull final File file) throws IOException {
+		checkNotNull(file);
+
+		final List<String> requests = getUnmatchedRequests();
+		if (!requests.isEmpty()) {
+			FileUtils.writeLines(file, StandardCharsets.UTF_8.name(), requests);
+		}
+	}
+
+	private String getKey(final HttpRequest request, final String url, final HttpMessageContents contents) {
+		final StringBuilder key = new StringBuilder();
+
+		if (match.contains(Match.METHOD)) {
+			key.append(request.getMethod().name()).append(' ');
+		}
+
+		if (match.contains(Match.URL)) {
+			key.append(url).append(' ');
+		}
+
+		if (match.contains(Match.BODY)) {
+			final byte[] body = contents == null ? new byte[0] : contents.getBinaryContents();
+			key.append(Hashing.sha256().hashBytes(body));
+		}
+
+		return key.toString().trim();
+	}
+}
@@ -6,6 +6,7 @@ import au.com.agic.apptesting.exception.DriverException;
 import au.com.agic.apptesting.profiles.configuration.UrlMapping;
 import au.com.agic.apptesting.utils.*;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.vavr.Tuple2;
 import io.vavr.control.Option;
 import org.apache.commons.lang3.StringUtils;
@@ -25,6 +26,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -37,15 +46,26 @@ public class RemoteThreadWebDriverMapImpl implements ThreadWebDriverMap {
 	private static final Logger LOGGER = LoggerFactory.getLogger(RemoteThreadWebDriverMapImpl.class);
 	private static final SystemPropertyUtils SYSTEM_PROPERTY_UTILS = new SystemPropertyUtilsImpl();
 	private static final RemoteTestsUtils REMOTE_TESTS_UTILS = new RemoteTestsUtilsImpl();
+	/**
+	 * Negotiates BrowserStack sessions in the background
+	 */
+	private static final ExecutorService SESSION_EXECUTOR = Executors.newCachedThreadPool(
+		new ThreadFactoryBuilder().setNameFormat("BrowserStackSession-%d").setDaemon(true).build());
+	/**
+	 * How long the end of the run waits for sessions that are still being created, so they can be quit
+	 */
+	private static final long SESSION_SHUTDOWN_TIMEOUT = 120000;
 
 	/**
-	 * The mapping between thread ids and the webdrivers that they use for the tests
+	 * The mapping between thread ids and the feature state objects that they use for the tests.
+	 * Reads are lock free. Only the allocation of a new feature state is synchronized.
 	 */
-	private final Map<String, FeatureState> threadIdToCapMap = new HashMap<>();
+	private final Map<String, FeatureState> threadIdToCapMap = new ConcurrentHashMap<>();
 	/**
-	 * The mapping between thread ids and the webdrivers that they use for the tests
+	 * The mapping between thread ids and the webdrivers that they use for the tests. The drivers
+	 * are created asynchronously, so the map holds the pending result.
 	 */
-	private final Map<String, WebDriver> threadIdToDriverMap = new HashMap<>();
+	private final Map<String, CompletableFuture<WebDriver>> threadIdToDriverMap = new ConcurrentHashMap<>();
 	/**
 	 * The browser stack username loaded from configuration
 	 */
@@ -112,7 +132,8 @@ public class RemoteThreadWebDriverMapImpl implements ThreadWebDriverMap {
 
 		originalDesiredCapabilities = new ArrayList<>(desiredCapabilities);
 		originalApplicationUrls = new ArrayList<>(applicationUrls);
-		originalDataSets = new HashMap<>(datasets);
+		originalDataSets = datasets.entrySet().stream()
+			.collect(Collectors.toMap(Map.Entry::getKey, x -> LayeredDataSet.of(new HashMap<>(x.getValue()))));
 		reportDirectory = myReportDirectory;
 
 		/*
@@ -122,63 +143,98 @@ public class RemoteThreadWebDriverMapImpl implements ThreadWebDriverMap {
 
 	@NotNull
 	@Override
-	public synchronized FeatureState getDesiredCapabilitiesForThread(@NotNull final String name) {
-		try {
-			/*
-				Return the previous generated details if they exist
-			 */
-			if (threadIdToCapMap.containsKey(name)) {
-				return threadIdToCapMap.get(name);
-			}
+	public FeatureState getDesiredCapabilitiesForThread(@NotNull final String name) {
+		checkArgument(StringUtils.isNotBlank(name));
 
-			/*
-				Some validation checking
-			 */
-			if (originalDesiredCapabilities.isEmpty()) {
-				throw new ConfigurationException("There are no desired capabilities defined. "
-					+ "Check the configuration profiles have the required information in them");
-			}
+		final FeatureState featureState = threadIdToCapMap.get(name);
+		if (featureState != null) {
+			return featureState;
+		}
 
-			/*
-				We have allocated our available configurations
-			 */
-			final int urlCount = Math.max(originalApplicationUrls.size(), 1);
-			if (currentUrl >= urlCount) {
-				throw new ConfigurationException("Configuration pool has been exhausted!");
-			}
+		return allocateFeatureState(name);
+	}
 
-			/*
-				Get the details that the requesting thread will need
-			 */
-			final DesiredCapabilities desiredCapabilities =
-				originalDesiredCapabilities.get(currentCapability);
-			final UrlMapping url = originalApplicationUrls.isEmpty()
-				? null : originalApplicationUrls.get(currentUrl);
-			final Map<String, String> dataSet = originalDataSets.containsKey(currentDataset)
-				? new HashMap<>(originalDataSets.get(currentDataset)) : new HashMap<>();
+	/**
+	 * Assigns the next available configuration to a thread. Only the selection of the configuration
+	 * happens while the lock is held. The BrowserStack session is created in the background, so the
+	 * sessions for each thread are negotiated in parallel.
+	 */
+	private synchronized FeatureState allocateFeatureState(@NotNull final String name) {
+		/*
+			Return the previous generated details if they exist
+		 */
+		if (threadIdToCapMap.containsKey(name)) {
+			return threadIdToCapMap.get(name);
+		}
 
-			/*
-				Disable popup blocker
-			 */
-			desiredCapabilities.setCapability("disable-popup-blocking", true);
+		/*
+			Some validation checking
+		 */
+		if (originalDesiredCapabilities.isEmpty()) {
+			throw new ConfigurationException("There are no desired capabilities defined. "
+				+ "Check the configuration profiles have the required information in them");
+		}
 
-			/*
-				Tick over to the next url when all the capabilities have been consumed
-			 */
-			++currentCapability;
-			if (currentCapability >= originalDesiredCapabilities.size()) {
-
-				++currentDataset;
-				if (currentDataset >= getMaxDataSets()) {
-					currentDataset = 0;
-					currentCapability = 0;
-					++currentUrl;
-				}
+		/*
+			We have allocated our available configurations
+		 */
+		final int urlCount = Math.max(originalApplicationUrls.size(), 1);
+		if (currentUrl >= urlCount) {
+			throw new ConfigurationException("Configuration pool has been exhausted!");
+		}
+
+		/*
+			Get the details that the requesting thread will need. The capabilities are copied
+			because they are used outside of the lock.
+		 */
+		final DesiredCapabilities desiredCapabilities =
+			new DesiredCapabilities(originalDesiredCapabilities.get(currentCapability));
+		final UrlMapping url = originalApplicationUrls.isEmpty()
+			? null : originalApplicationUrls.get(currentUrl);
+		/*
+			The data sets are immutable, so every thread shares the original values
+		 */
+		final Map<String, String> dataSet = originalDataSets.getOrDefault(currentDataset, LayeredDataSet.empty());
+
+		/*
+			Disable popup blocker
+		 */
+		desiredCapabilities.setCapability("disable-popup-blocking", true);
+
+		/*
+			Tick over to the next url when all the capabilities have been consumed
+		 */
+		++currentCapability;
+		if (currentCapability >= originalDesiredCapabilities.size()) {
+
+			++currentDataset;
+			if (currentDataset >= getMaxDataSets()) {
+				currentDataset = 0;
+				currentCapability = 0;
+				++currentUrl;
 			}
+		}
 
-			/*
-				Associate the new details with the thread
-			 */
+		/*
+			Associate the new details with the thread
+		 */
+		threadIdToDriverMap.put(
+			name,
+			CompletableFuture.supplyAsync(() -> createWebDriver(desiredCapabilities), SESSION_EXECUTOR));
+
+		final FeatureState featureState = new FeatureStateImpl(
+			url, dataSet, reportDirectory, new ArrayList<>());
+
+		threadIdToCapMap.put(name, featureState);
+
+		return featureState;
+	}
+
+	/**
+	 * Negotiates a new BrowserStack session. This can take up to a minute.
+	 */
+	private WebDriver createWebDriver(@NotNull final DesiredCapabilities desiredCapabilities) {
+		try {
 			final String remoteAddress =
 				"http://" + browserStackUsername + ":" + browserStackAccessToken + URL;
 
@@ -186,16 +242,7 @@ public class RemoteThreadWebDriverMapImpl implements ThreadWebDriverMap {
 				ImmutableMap.of(),
 				new URL(remoteAddress));
 
-			final WebDriver webDriver = new RemoteWebDriver(executor, desiredCapabilities);
-
-			threadIdToDriverMap.put(name, webDriver);
-
-			final FeatureState featureState = new FeatureStateImpl(
-				url, dataSet, reportDirectory, new ArrayList<>());
-
-			threadIdToCapMap.put(name, featureState);
-
-			return featureState;
+			return new RemoteWebDriver(executor, desiredCapabilities);
 		} catch (final MalformedURLException ex) {
 			/*
 				This shouldn't happen
@@ -206,25 +253,63 @@ public class RemoteThreadWebDriverMapImpl implements ThreadWebDriverMap {
 	}
 
 	@NotNull
-	public synchronized WebDriver getWebDriverForThread(@NotNull final String name, final boolean createIfMissing) {
+	public WebDriver getWebDriverForThread(@NotNull final String name, final boolean createIfMissing) {
 		checkArgument(StringUtils.isNotEmpty(name));
 
-		if (threadIdToDriverMap.containsKey(name)) {
-			return threadIdToDriverMap.get(name);
+		final CompletableFuture<WebDriver> webDriver = threadIdToDriverMap.get(name);
+		if (webDriver != null) {
+			try {
+				/*
+					Wait for the session if it is still being created
+				 */
+				return webDriver.join();
+			} catch (final CompletionException ex) {
+				throw new DriverException("Could not create the web driver for the thread " + name, ex.getCause());
+			}
 		}
 
 		throw new DriverException("Could not find the web driver for the thread " + name);
 	}
 
 	@Override
-	public synchronized void clearWebDriverForThread(@NotNull final String name, final boolean quitDriver) {
+	public void clearWebDriverForThread(@NotNull final String name, final boolean quitDriver) {
 		checkArgument(StringUtils.isNotEmpty(name));
 
-		if (threadIdToDriverMap.containsKey(name)) {
-			if (quitDriver) {
-				threadIdToDriverMap.get(name).quit();
+		final CompletableFuture<WebDriver> webDriver = threadIdToDriverMap.remove(name);
+		if (webDriver != null && quitDriver) {
+			quitWebDriver(webDriver);
+		}
+	}
+
+	/**
+	 * Quits a driver. A session that is still being created is quit once it is available.
+	 */
+	private void quitWebDriver(@NotNull final CompletableFuture<WebDriver> webDriver) {
+		webDriver.thenAccept(driver -> {
+			try {
+				driver.quit();
+			} catch (final Exception ignored) {
+				// do nothing and continue closing the other webdrivers
 			}
-			threadIdToDriverMap.remove(name);
+		});
+	}
+
+	/**
+	 * Quits a driver before returning. The session threads are daemons, so a session that is
+	 * quit in the background at the end of the run can be left open when the JVM exits.
+	 */
+	private void quitWebDriver(@NotNull final CompletableFuture<WebDriver> webDriver, final long deadline) {
+		try {
+			webDriver.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS).quit();
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			quitWebDriver(webDriver);
+		} catch (final TimeoutException ex) {
+			LOGGER.error("WEBAPPTESTER-BUG-0021: Timed out waiting for a BrowserStack session to be created. "
+				+ "It will be quit in the background if it is created before the tests exit.");
+			quitWebDriver(webDriver);
+		} catch (final Exception ignored) {
+			// do nothing and continue closing the other webdrivers
 		}
 	}
 
@@ -265,17 +350,13 @@ public class RemoteThreadWebDriverMapImpl implements ThreadWebDriverMap {
 
 	@Override
 	public synchronized void shutdown() {
-		for (final WebDriver webDriver : threadIdToDriverMap.values()) {
-			try {
-				webDriver.quit();
-			} catch (final Exception ignored) {
-				// do nothing and continue closing the other webdrivers
-			}
-		}
+		final long deadline = System.currentTimeMillis() + SESSION_SHUTDOWN_TIMEOUT;
+		threadIdToDriverMap.values().forEach(webDriver -> quitWebDriver(webDriver, deadline));
 
 		/*
 			Clear the map
 		 */
+		threadIdToDriverMap.clear();
 		threadIdToCapMap.clear();
 
 		/*
@@ -286,19 +367,14 @@ public class RemoteThreadWebDriverMapImpl implements ThreadWebDriverMap {
 	}
 
 	@Override
-	public synchronized void shutdown(@NotNull final String name) {
+	public void shutdown(@NotNull final String name) {
 		checkArgument(StringUtils.isNotBlank(name));
 
-		if (threadIdToCapMap.containsKey(name)) {
-			threadIdToCapMap.remove(name);
-		}
+		threadIdToCapMap.remove(name);
 
-		if (threadIdToDriverMap.containsKey(name)) {
-			try {
-				threadIdToDriverMap.get(name).quit();
-			} catch (final Exception ignored) {
-				// do nothing and continue closing the other webdrivers
-			}
+		final CompletableFuture<WebDriver> webDriver = threadIdToDriverMap.remove(name);
+		if (webDriver != null) {
+			quitWebDriver(webDriver);
 		}
 	}
 }
@@ -0,0 +1,114 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.RequestRule;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import net.lightbody.bmp.filters.RequestFilter;
+import net.lightbody.bmp.util.HttpMessageContents;
+import net.lightbody.bmp.util.HttpMessageInfo;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A single request filter that applies the request rules added by each test thread.
+ * Rules are identified by a key, so adding a rule with an existing key replaces the
+ * old rule instead of adding another one.
+ *
+ * A proxy started by a test thread only applies the rules of that thread. The proxy
+ * shared by all threads applies the rules of every thread.
+ *
+ * Rules are changed by the test threads far less often than requests are filtered, so
+ * every change builds a new list of rules that the proxy threads read without locking.
+ */
+public class RequestRuleFilter implements RequestFilter {
+	private final Optional<String> owner;
+	/**
+	 * The rules of each thread, in the order they were added. Guarded by this.
+	 */
+	private final Map<String, LinkedHashMap<String, RequestRule>> threadRules = new HashMap<>();
+	private volatile List<RequestRule> rules = Collections.emptyList();
+
+	/**
+	 * @param owner The name of the test thread that owns the proxy, or an empty result if
+	 *              the proxy is shared by all threads
+	 */
+	public RequestRuleFilter(@NotNull final Optional<String> owner) {
+		checkNotNull(owner);
+
+		this.owner = owner;
+	}
+
+	/**
+	 * Adds or replaces a rule
+	 *
+	 * @param threadName The name of the test thread adding the rule
+	 * @param key        The key that identifies the rule
+	 * @param rule       The rule to apply to each request
+	 */
+	public synchronized void putRule(
+			@NotNull final String threadName,
+			@NotNull final String key,
+			@NotNull final RequestRule rule) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+		checkArgument(StringUtils.isNotBlank(key));
+		checkNotNull(rule);
+
+		final LinkedHashMap<String, RequestRule> existing =
+			threadRules.computeIfAbsent(threadName, x -> new LinkedHashMap<>());
+
+		/*
+			A replaced rule is moved to the end, so the latest change is applied last
+		 */
+		existing.remove(key);
+		existing.put(key, rule);
+
+		rebuildRules();
+	}
+
+	/**
+	 * Removes all the rules added by a test thread
+	 *
+	 * @param threadName The name of the test thread
+	 */
+	public synchronized void clearRules(@NotNull final String threadName) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+
+		if (threadRules.remove(threadName) != null) {
+			rebuildRules();
+		}
+	}
+
+	@Override
+	public HttpResponse filterRequest(
+			final HttpRequest request,
+			final HttpMessageContents contents,
+			final HttpMessageInfo messageInfo) {
+
+		for (final RequestRule rule : rules) {
+			rule.apply(request, messageInfo);
+		}
+
+		return null;
+	}
+
+	private void rebuildRules() {
+		final List<RequestRule> newRules = new ArrayList<>();
+
+		threadRules.entrySet().stream()
+			.filter(x -> owner.map(x.getKey()::equals).orElse(true))
+			.forEach(x -> newRules.addAll(x.getValue().values()));
+
+		rules = Collections.unmodifiableList(newRules);
+	}
+}
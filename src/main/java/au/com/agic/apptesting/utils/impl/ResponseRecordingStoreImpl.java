@@ -0,0 +1,181 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.exception.ProxyException;
+import au.com.agic.apptesting.utils.ResponseRecordingStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.validation.constraints.NotNull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A recording store that saves each response as a JSON file in a directory. The file name is
+ * made from a hash of the request key and the position of the response in the sequence of
+ * responses for that key.
+ */
+public class ResponseRecordingStoreImpl implements ResponseRecordingStore {
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	private static final String FILE_EXTENSION = ".json";
+
+	private final File directory;
+	private final Map<String, AtomicInteger> recorded = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> replayed = new ConcurrentHashMap<>();
+
+	/**
+	 * @param directory The directory holding the recordings
+	 * @param record    true if responses are being recorded, in which case any existing
+	 *                  recordings are removed
+	 */
+	public ResponseRecordingStoreImpl(@NotNull final File directory, final boolean record) {
+		checkNotNull(directory);
+		checkArgument(directory.isDirectory() || directory.mkdirs(),
+			"Could not create the recording directory " + directory.getAbsolutePath());
+
+		this.directory = directory;
+
+		if (record) {
+			Optional.ofNullable(directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION)))
+				.ifPresent(files -> Arrays.stream(files).forEach(File::delete));
+		}
+	}
+
+	@Override
+	public void save(
+			@NotNull final String key,
+			@NotNull final String description,
+			@NotNull final FullHttpResponse response) {
+		checkArgument(StringUtils.isNotBlank(key));
+		checkNotNull(description);
+		checkNotNull(response);
+
+		final String hash = hash(key);
+		final int index = recorded.computeIfAbsent(hash, x -> new AtomicInteger()).getAndIncrement();
+
+		final ByteBuf content = response.content();
+		final byte[] body = new byte[content.readableBytes()];
+		content.getBytes(content.readerIndex(), body);
+
+		final RecordedResponse recordedResponse = new RecordedResponse();
+		recordedResponse.setRequest(description);
+		recordedResponse.setStatus(response.getStatus().code());
+		recordedResponse.setBody(Base64.getEncoder().encodeToString(body));
+		response.headers().entries().stream()
+			.filter(x -> !HttpHeaders.Names.TRANSFER_ENCODING.equalsIgnoreCase(x.getKey()))
+			.filter(x -> !HttpHeaders.Names.CONTENT_LENGTH.equalsIgnoreCase(x.getKey()))
+			.forEach(x -> recordedResponse.getHeaders().add(Arrays.asList(x.getKey(), x.getValue())));
+
+		try {
+			OBJECT_MAPPER.writeValue(getFile(hash, index), recordedResponse);
+		} catch (final IOException ex) {
+			throw new ProxyException("Failed to save the recorded response for " + description, ex);
+		}
+	}
+
+	@Override
+	public Optional<FullHttpResponse> next(@NotNull final String key) {
+		checkArgument(StringUtils.isNotBlank(key));
+
+		final String hash = hash(key);
+		final int index = replayed.computeIfAbsent(hash, x -> new AtomicInteger()).getAndIncrement();
+
+		/*
+			Once the recorded sequence is used up, keep returning the last response
+		 */
+		for (int i = index; i >= 0; --i) {
+			final File file = getFile(hash, i);
+			if (file.exists()) {
+				return Optional.of(read(file));
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	private FullHttpResponse read(final File file) {
+		try {
+			final RecordedResponse recordedResponse = OBJECT_MAPPER.readValue(file, RecordedResponse.class);
+			final byte[] body = Base64.getDecoder().decode(recordedResponse.getBody());
+
+			final FullHttpResponse response = new DefaultFullHttpResponse(
+				HttpVersion.HTTP_1_1,
+				HttpResponseStatus.valueOf(recordedResponse.getStatus()),
+				Unpooled.wrappedBuffer(body));
+			recordedResponse.getHeaders().forEach(x -> response.headers().add(x.get(0), x.get(1)));
+			response.headers().set(HttpHeaders.Names.CONTENT_LENGTH, body.length);
+			return response;
+		} catch (final IOException ex) {
+			throw new ProxyException("Failed to read the recorded response " + file.getAbsolutePath(), ex);
+		}
+	}
+
+	private File getFile(final String hash, final int index) {
+		return new File(directory, hash + "-" + index + FILE_EXTENSION);
+	}
+
+	private String hash(final String key) {
+		return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+	}
+
+	/**
+	 * The JSON representation of a recorded response
+	 */
+	public static class RecordedResponse {
+		private String request;
+		private int status;
+		private List<List<String>> headers = new ArrayList<>();
+		private String body;
+
+		public String getRequest() {
+			return request;
+		}
+
+		public void setRequest(final String request) {
+			this.request = request;
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		public void setStatus(final int status) {
+			this.status = status;
+		}
+
+		public List<List<String>> getHeaders() {
+			return headers;
+		}
+
+		public void setHeaders(final List<List<String>> headers) {
+			this.headers = headers;
+		}
+
+		public String getBody() {
+			return body;
+		}
+
+		public void setBody(final String body) {
+			this.body = body;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.RunScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An implementation of the run scheduler backed by a fixed size executor
+ */
+public class RunSchedulerImpl implements RunScheduler {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RunSchedulerImpl.class);
+
+	private final int numberOfThreads;
+	private final long startDelay;
+	private final ExecutorService executor;
+	/**
+	 * Hands runs to the executor once their start offset has passed
+	 */
+	private final ScheduledExecutorService starter;
+	private final AtomicInteger scheduled = new AtomicInteger();
+	private final AtomicInteger completed = new AtomicInteger();
+	private final AtomicInteger failures = new AtomicInteger();
+	private final List<CompletableFuture<Boolean>> runs = new CopyOnWriteArrayList<>();
+	private final List<Consumer<Boolean>> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * @param numberOfThreads The number of runs to execute concurrently
+	 * @param startDelay      The delay in milliseconds between the start of each of the initial runs
+	 */
+	public RunSchedulerImpl(final int numberOfThreads, final long startDelay) {
+		checkArgument(numberOfThreads > 0);
+		checkArgument(startDelay >= 0);
+
+		this.numberOfThreads = numberOfThreads;
+		this.startDelay = startDelay;
+		this.executor = Executors.newFixedThreadPool(numberOfThreads);
+		this.starter = Executors.newSingleThreadScheduledExecutor();
+	}
+
+	@Override
+	public CompletableFuture<Boolean> schedule(@NotNull final Supplier<Boolean> run) {
+		checkNotNull(run);
+
+		/*
+			Only the runs that fill the pool are offset. Everything after that is queued
+			behind them and starts as soon as a thread is free, so the startup cost does not
+			grow with the number of combinations being tested.
+		 */
+		final int index = scheduled.getAndIncrement();
+		final long delay = Math.min(index, numberOfThreads - 1) * startDelay;
+
+		final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+		starter.schedule(
+			() -> executor.execute(() -> {
+				try {
+					result.complete(run.get());
+				} catch (final Throwable ex) {
+					result.completeExceptionally(ex);
+				}
+			}),
+			delay,
+			TimeUnit.MILLISECONDS);
+
+		final CompletableFuture<Boolean> tracked = result.whenComplete((success, ex) -> {
+			final boolean succeeded = ex == null && Boolean.TRUE.equals(success);
+			if (!succeeded) {
+				failures.incrementAndGet();
+			}
+			completed.incrementAndGet();
+
+			listeners.forEach(listener -> {
+				try {
+					listener.accept(succeeded);
+				} catch (final Exception listenerEx) {
+					LOGGER.error("WEBAPPTESTER-BUG-0012: A run completion listener threw an exception", listenerEx);
+				}
+			});
+		});
+
+		runs.add(tracked);
+
+		return tracked;
+	}
+
+	@Override
+	public void addCompletionListener(@NotNull final Consumer<Boolean> listener) {
+		checkNotNull(listener);
+
+		listeners.add(listener);
+	}
+
+	@Override
+	public int awaitCompletion() {
+		/*
+			Failed runs have already been counted, so any exception is ignored here
+		 */
+		CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[0]))
+			.exceptionally(ex -> null)
+			.join();
+
+		return failures.get();
+	}
+
+	@Override
+	public int getCompletedCount() {
+		return completed.get();
+	}
+
+	@Override
+	public int getFailureCount() {
+		return failures.get();
+	}
+
+	@Override
+	public void shutdown() {
+		starter.shutdownNow();
+		executor.shutdownNow();
+	}
+}
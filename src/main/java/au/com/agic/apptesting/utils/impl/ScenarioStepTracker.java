@@ -0,0 +1,134 @@
+package au.com.agic.apptesting.utils.impl;
+
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import gherkin.formatter.model.Background;
+import gherkin.formatter.model.Examples;
+import gherkin.formatter.model.Feature;
+import gherkin.formatter.model.Match;
+import gherkin.formatter.model.Result;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.ScenarioOutline;
+import gherkin.formatter.model.Step;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A Cucumber plugin that records the steps of the scenario being run by the current thread,
+ * and which of them is running. Cucumber lists the steps of a background or scenario before
+ * running them, and matches each step just before it is run.
+ */
+public class ScenarioStepTracker implements Formatter, Reporter {
+	private static final ThreadLocal<ScenarioSteps> SCENARIO_STEPS = ThreadLocal.withInitial(ScenarioSteps::new);
+
+	/**
+	 * @return The text of the step after the one that is running, or an empty result if the
+	 * running step is the last one that is known
+	 */
+	public static Optional<String> getNextStep() {
+		final ScenarioSteps steps = SCENARIO_STEPS.get();
+		final int next = steps.current + 1;
+		return next >= 0 && next < steps.names.size()
+			? Optional.of(steps.names.get(next))
+			: Optional.empty();
+	}
+
+	/**
+	 * @return The index of the step that is running in the current scenario, or -1 if no step has run
+	 */
+	public static int getCurrentStep() {
+		return SCENARIO_STEPS.get().current;
+	}
+
+	@Override
+	public void startOfScenarioLifeCycle(final Scenario scenario) {
+		SCENARIO_STEPS.remove();
+	}
+
+	@Override
+	public void step(final Step step) {
+		SCENARIO_STEPS.get().names.add(step.getName());
+	}
+
+	@Override
+	public void match(final Match match) {
+		++SCENARIO_STEPS.get().current;
+	}
+
+	@Override
+	public void endOfScenarioLifeCycle(final Scenario scenario) {
+		SCENARIO_STEPS.remove();
+	}
+
+	@Override
+	public void syntaxError(
+			final String state,
+			final String event,
+			final List<String> legalEvents,
+			final String uri,
+			final Integer line) {
+	}
+
+	@Override
+	public void uri(final String uri) {
+	}
+
+	@Override
+	public void feature(final Feature feature) {
+	}
+
+	@Override
+	public void scenarioOutline(final ScenarioOutline scenarioOutline) {
+	}
+
+	@Override
+	public void examples(final Examples examples) {
+	}
+
+	@Override
+	public void background(final Background background) {
+	}
+
+	@Override
+	public void scenario(final Scenario scenario) {
+	}
+
+	@Override
+	public void done() {
+	}
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public void eof() {
+	}
+
+	@Override
+	public void before(final Match match, final Result result) {
+	}
+
+	@Override
+	public void result(final Result result) {
+	}
+
+	@Override
+	public void after(final Match match, final Result result) {
+	}
+
+	@Override
+	public void embedding(final String mimeType, final byte[] data) {
+	}
+
+	@Override
+	public void write(final String text) {
+	}
+
+	private static class ScenarioSteps {
+		private final List<String> names = new ArrayList<>();
+		private int current = -1;
+	}
+}
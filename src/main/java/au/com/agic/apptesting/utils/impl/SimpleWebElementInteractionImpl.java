@@ -3,46 +3,156 @@ package au.com.agic.apptesting.utils.impl;
 import au.com.agic.apptesting.State;
 import au.com.agic.apptesting.constants.Constants;
 import au.com.agic.apptesting.exception.WebElementException;
+import au.com.agic.apptesting.utils.AutoAliasUtils;
+import au.com.agic.apptesting.utils.ElementHandleCache;
+import au.com.agic.apptesting.utils.ElementLocator;
+import au.com.agic.apptesting.utils.ElementPrefetcher;
+import au.com.agic.apptesting.utils.ElementSelector;
 import au.com.agic.apptesting.utils.FeatureState;
-import au.com.agic.apptesting.utils.GetBy;
+import au.com.agic.apptesting.utils.LocatedElement;
+import au.com.agic.apptesting.utils.LocatorStrategyCache;
 import au.com.agic.apptesting.utils.SimpleWebElementInteraction;
+import au.com.agic.apptesting.utils.SystemPropertyUtils;
+import au.com.agic.apptesting.utils.WaitResult;
+import au.com.agic.apptesting.utils.WaitUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedCondition;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.FluentWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.validation.constraints.NotNull;
-import java.time.Duration;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
- * Implementation of the SimpleWebElementInteraction service
+ * Implementation of the SimpleWebElementInteraction service. Each attempt to find an element
+ * tries every location method in a single request to the browser. Values with a prefix like
+ * "css:" are found with only the location method that the prefix names. Elements that were
+ * prefetched or cached by earlier steps are used without finding them again.
  */
 @Component
 public class SimpleWebElementInteractionImpl implements SimpleWebElementInteraction {
 	private static final Logger LOGGER = LoggerFactory.getLogger(SimpleWebElementInteractionImpl.class);
 	@Autowired
-	private GetBy getBy;
+	private ElementLocator elementLocator;
+	@Autowired
+	private AutoAliasUtils autoAliasUtils;
+	@Autowired
+	private WaitUtils waitUtils;
+	@Autowired
+	private SystemPropertyUtils systemPropertyUtils;
+	@Autowired
+	private ElementPrefetcher elementPrefetcher;
+	@Autowired
+	private ElementHandleCache elementHandleCache;
+
+	/**
+	 * Polls the page until an element matching the condition is found
+	 */
+	private WebElement waitForElement(
+			final boolean valueAlias,
+			final String value,
+			final FeatureState featureState,
+			final long waitTime,
+			final ElementLocator.Condition condition) {
+
+		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
+		final String fixedValue = autoAliasUtils.getValue(value, valueAlias, featureState);
+		final boolean cacheHandles =
+			systemPropertyUtils.getPropertyAsBoolean(Constants.CACHE_ELEMENT_HANDLES, false);
+
+		/*
+			The element may have been found while the previous step was sleeping
+		 */
+		final Optional<LocatedElement> prefetched = elementPrefetcher.takePrefetched(webDriver, fixedValue, condition);
+		if (prefetched.isPresent()) {
+			LOGGER.debug("Using prefetched element \"{}\" found with the {} location method",
+				fixedValue, prefetched.get().getStrategy());
+			if (cacheHandles) {
+				elementHandleCache.put(webDriver, fixedValue, prefetched.get());
+			}
+			return prefetched.get().getElement();
+		}
+
+		/*
+			The element may have been used by an earlier step
+		 */
+		if (cacheHandles) {
+			final Optional<LocatedElement> cached = elementHandleCache.get(webDriver, fixedValue, condition);
+			if (cached.isPresent()) {
+				LOGGER.debug("Using cached element \"{}\" found with the {} location method",
+					fixedValue, cached.get().getStrategy());
+				return cached.get().getElement();
+			}
+		}
 
-	private static final List<String> LOCATION_METHODS = Arrays.asList(
-		GetBy.ID,
-		GetBy.CLASS,
-		GetBy.CSS_SELECTOR,
-		GetBy.NAME,
-		GetBy.TEXT,
-		GetBy.VALUE,
-		GetBy.XPATH);
+		final ElementSelector selector = ElementSelector.parse(
+			fixedValue,
+			systemPropertyUtils.getPropertyAsBoolean(Constants.ELEMENT_SELECTOR_PREFIXES, false));
+		final boolean adaptive = !selector.getStrategy().isPresent()
+			&& systemPropertyUtils.getPropertyAsBoolean(Constants.ADAPTIVE_LOCATOR_CACHE, false);
+		final LocatorStrategyCache cache = State.getLocatorStrategyCache();
+
+		final List<String> strategies = adaptive
+			? cache.getStrategies(fixedValue, ElementLocator.DEFAULT_LOCATION_METHODS)
+			: selector.getStrategies(ElementLocator.DEFAULT_LOCATION_METHODS);
+
+		final WaitResult<LocatedElement> result = waitUtils.waitFor(
+			waitTime * Constants.MILLISECONDS_PER_SECOND,
+			() -> elementLocator.locate(webDriver, strategies, selector.getValue(), condition));
+
+		if (result.isSuccessful()) {
+			final LocatedElement element = result.getValue().get();
+			LOGGER.debug("Found element \"{}\" with the {} location method after {}",
+				fixedValue, element.getStrategy(), result.getSummary());
+
+			if (adaptive) {
+				cache.recordStrategy(fixedValue, element.getStrategy());
+			} else if (selector.getStrategy().isPresent()) {
+				cache.recordExplicitStrategy();
+			}
+
+			if (cacheHandles) {
+				elementHandleCache.put(webDriver, fixedValue, element);
+			}
+
+			return element.getElement();
+		}
+
+		throw new WebElementException("All attempts to find element failed after " + result.getSummary());
+	}
+
+	/**
+	 * Polls the page until no element matches the condition
+	 */
+	private void waitForNoElement(
+			final boolean valueAlias,
+			final String value,
+			final FeatureState featureState,
+			final long waitTime,
+			final ElementLocator.Condition condition,
+			final String message) {
+
+		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
+		final ElementSelector selector = ElementSelector.parse(
+			autoAliasUtils.getValue(value, valueAlias, featureState),
+			systemPropertyUtils.getPropertyAsBoolean(Constants.ELEMENT_SELECTOR_PREFIXES, false));
+		final List<String> strategies = selector.getStrategies(ElementLocator.DEFAULT_LOCATION_METHODS);
+
+		final WaitResult<Boolean> result = waitUtils.waitUntil(
+			waitTime * Constants.MILLISECONDS_PER_SECOND,
+			() -> !elementLocator.locate(webDriver, strategies, selector.getValue(), condition).isPresent());
+
+		if (!result.isSuccessful()) {
+			throw new WebElementException(message + " after " + result.getSummary());
+		}
+	}
 
 	@Override
 	public WebElement getClickableElementFoundBy(
@@ -66,30 +176,7 @@ public class SimpleWebElementInteractionImpl implements SimpleWebElementInteract
 		checkArgument(StringUtils.isNotBlank(value));
 		checkNotNull(featureState);
 
-		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
-		long time = 0;
-
-		while (time < waitTime * Constants.MILLISECONDS_PER_SECOND) {
-			for (final String locationMethod : LOCATION_METHODS) {
-				try {
-					final By by = getBy.getBy(locationMethod, valueAlias, value, featureState);
-					final FluentWait<WebDriver> wait = new FluentWait<>(webDriver)
-						.withTimeout(Duration.ofMillis(Constants.TIME_SLICE));
-					final ExpectedCondition<WebElement> condition =
-						ExpectedConditions.elementToBeClickable(by);
-
-					return wait.until(condition);
-				} catch (final Exception ignored) {
-					/*
-						Do nothing
-					 */
-				}
-
-				time += Constants.TIME_SLICE;
-			}
-		}
-
-		throw new WebElementException("All attempts to find element failed");
+		return waitForElement(valueAlias, value, featureState, waitTime, ElementLocator.Condition.CLICKABLE);
 	}
 
 	@Override
@@ -109,44 +196,13 @@ public class SimpleWebElementInteractionImpl implements SimpleWebElementInteract
 		checkArgument(StringUtils.isNotBlank(value));
 		checkNotNull(featureState);
 
-		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
-		long time = 0;
-
-		mainloop:
-		while (time < waitTime * Constants.MILLISECONDS_PER_SECOND) {
-			for (final String locationMethod : LOCATION_METHODS) {
-
-				time += Constants.TIME_SLICE;
-
-				try {
-					final By by = getBy.getBy(locationMethod, valueAlias, value, featureState);
-					final FluentWait<WebDriver> wait = new FluentWait<>(webDriver)
-						.withTimeout(Duration.ofMillis(Constants.TIME_SLICE));
-					final ExpectedCondition<WebElement> condition =
-						ExpectedConditions.elementToBeClickable(by);
-
-					final WebElement element = wait.until(condition);
-
-					/*
-						If we found an element, drop back to the while loop
-					 */
-					if (element != null) {
-						break mainloop;
-					}
-				} catch (final Exception ignored) {
-					/*
-						We expect missing elements to timeout with an exception
-					 */
-				}
-			}
-
-			/*
-				If we got here, none of the locations returned an element
-			 */
-			return;
-		}
-
-		throw new WebElementException("Timeout waiting for elements to not be visible");
+		waitForNoElement(
+			valueAlias,
+			value,
+			featureState,
+			waitTime,
+			ElementLocator.Condition.CLICKABLE,
+			"Timeout waiting for elements to not be clickable");
 	}
 
 	@Override
@@ -172,31 +228,7 @@ public class SimpleWebElementInteractionImpl implements SimpleWebElementInteract
 		checkNotNull(featureState);
 		checkArgument(waitTime >= 0);
 
-		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
-		long time = 0;
-
-		do {
-			for (final String locationMethod : LOCATION_METHODS) {
-				try {
-					final By by = getBy.getBy(locationMethod, valueAlias, value, featureState);
-					final FluentWait<WebDriver> wait = new FluentWait<>(webDriver)
-						.withTimeout(Duration.ofMillis(Constants.TIME_SLICE));
-					final ExpectedCondition<WebElement> condition =
-						ExpectedConditions.visibilityOfElementLocated(by);
-
-					return wait.until(condition);
-				} catch (final Exception ignored) {
-					/*
-						Do nothing
-					 */
-				}
-
-				time += Constants.TIME_SLICE;
-			}
-
-		} while (time < waitTime * Constants.MILLISECONDS_PER_SECOND);
-
-		throw new WebElementException("All attempts to find element failed");
+		return waitForElement(valueAlias, value, featureState, waitTime, ElementLocator.Condition.VISIBLE);
 	}
 
 	@Override
@@ -221,44 +253,13 @@ public class SimpleWebElementInteractionImpl implements SimpleWebElementInteract
 		checkArgument(StringUtils.isNotBlank(value));
 		checkNotNull(featureState);
 
-		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
-		long time = 0;
-
-		mainloop:
-		while (time < waitTime * Constants.MILLISECONDS_PER_SECOND) {
-			for (final String locationMethod : LOCATION_METHODS) {
-
-				time += Constants.TIME_SLICE;
-
-				try {
-					final By by = getBy.getBy(locationMethod, valueAlias, value, featureState);
-					final FluentWait<WebDriver> wait = new FluentWait<>(webDriver)
-						.withTimeout(Duration.ofMillis(Constants.TIME_SLICE));
-					final ExpectedCondition<WebElement> condition =
-						ExpectedConditions.visibilityOfElementLocated(by);
-
-					final WebElement element = wait.until(condition);
-
-					/*
-						If we found an element, drop back to the while loop
-					 */
-					if (element != null) {
-						break mainloop;
-					}
-				} catch (final Exception ignored) {
-					/*
-						We expect missing elements to timeout with an exception
-					 */
-				}
-			}
-
-			/*
-				If we got here, none of the locations returned an element
-			 */
-			return;
-		}
-
-		throw new WebElementException("Timeout waiting for elements to not be visible");
+		waitForNoElement(
+			valueAlias,
+			value,
+			featureState,
+			waitTime,
+			ElementLocator.Condition.VISIBLE,
+			"Timeout waiting for elements to not be visible");
 	}
 
 	@Override
@@ -283,30 +284,7 @@ public class SimpleWebElementInteractionImpl implements SimpleWebElementInteract
 		checkArgument(StringUtils.isNotBlank(value));
 		checkNotNull(featureState);
 
-		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
-		long time = 0;
-
-		while (time < waitTime * Constants.MILLISECONDS_PER_SECOND) {
-			for (final String locationMethod : LOCATION_METHODS) {
-				try {
-					final By by = getBy.getBy(locationMethod, valueAlias, value, featureState);
-					final FluentWait<WebDriver> wait = new FluentWait<>(webDriver)
-						.withTimeout(Duration.ofMillis(Constants.TIME_SLICE));
-					final ExpectedCondition<WebElement> condition =
-						ExpectedConditions.presenceOfElementLocated(by);
-
-					return wait.until(condition);
-				} catch (final Exception ignored) {
-					/*
-						Do nothing
-					 */
-				}
-
-				time += Constants.TIME_SLICE;
-			}
-		}
-
-		throw new WebElementException("All attempts to find element failed");
+		return waitForElement(valueAlias, value, featureState, waitTime, ElementLocator.Condition.PRESENT);
 	}
 
 	@Override
@@ -318,7 +296,7 @@ public class SimpleWebElementInteractionImpl implements SimpleWebElementInteract
 		checkArgument(StringUtils.isNotBlank(value));
 		checkNotNull(featureState);
 
-		getPresenceElementFoundBy(valueAlias, value, featureState, featureState.getDefaultWait());
+		getNotPresenceElementFoundBy(valueAlias, value, featureState, featureState.getDefaultWait());
 	}
 
 	@Override
@@ -331,43 +309,12 @@ public class SimpleWebElementInteractionImpl implements SimpleWebElementInteract
 		checkArgument(StringUtils.isNotBlank(value));
 		checkNotNull(featureState);
 
-		final WebDriver webDriver = State.getThreadDesiredCapabilityMap().getWebDriverForThread();
-		long time = 0;
-
-		mainloop:
-		while (time < waitTime * Constants.MILLISECONDS_PER_SECOND) {
-			for (final String locationMethod : LOCATION_METHODS) {
-
-				time += Constants.TIME_SLICE;
-
-				try {
-					final By by = getBy.getBy(locationMethod, valueAlias, value, featureState);
-					final FluentWait<WebDriver> wait = new FluentWait<>(webDriver)
-						.withTimeout(Duration.ofMillis(Constants.TIME_SLICE));
-					final ExpectedCondition<WebElement> condition =
-						ExpectedConditions.presenceOfElementLocated(by);
-
-					final WebElement element = wait.until(condition);
-
-					/*
-						If we found an element, drop back to the while loop
-					 */
-					if (element != null) {
-						break mainloop;
-					}
-				} catch (final Exception ignored) {
-					/*
-						We expect missing elements to timeout with an exception
-					 */
-				}
-			}
-
-			/*
-				If we got here, none of the locations returned an element
-			 */
-			return;
-		}
-
-		throw new WebElementException("Timeout waiting for elements to not be present");
+		waitForNoElement(
+			valueAlias,
+			value,
+			featureState,
+			waitTime,
+			ElementLocator.Condition.PRESENT,
+			"Timeout waiting for elements to not be present");
 	}
 }
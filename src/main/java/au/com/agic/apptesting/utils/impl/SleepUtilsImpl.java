@@ -1,9 +1,21 @@
 package au.com.agic.apptesting.utils.impl;
 
+import au.com.agic.apptesting.State;
+import au.com.agic.apptesting.constants.Constants;
+import au.com.agic.apptesting.utils.DomStabilityUtils;
+import au.com.agic.apptesting.utils.ElementPrefetcher;
+import au.com.agic.apptesting.utils.NetworkIdleUtils;
 import au.com.agic.apptesting.utils.SleepUtils;
+import au.com.agic.apptesting.utils.SystemPropertyUtils;
+import au.com.agic.apptesting.utils.WaitResult;
 import io.vavr.control.Try;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
@@ -11,10 +23,77 @@ import static com.google.common.base.Preconditions.checkArgument;
  */
 @Component
 public class SleepUtilsImpl implements SleepUtils {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SleepUtilsImpl.class);
+
+	@Autowired
+	private SystemPropertyUtils systemPropertyUtils;
+	@Autowired
+	private NetworkIdleUtils networkIdleUtils;
+	@Autowired
+	private DomStabilityUtils domStabilityUtils;
+	@Autowired
+	private ElementPrefetcher elementPrefetcher;
+
 	@Override
 	public void sleep(final long sleep) {
 		checkArgument(sleep >= 0);
 
 		Try.run(() -> Thread.sleep(sleep));
 	}
+
+	@Override
+	public void sleepAfterAction() {
+		boolean waited = false;
+
+		if (systemPropertyUtils.getPropertyAsBoolean(Constants.WAIT_FOR_NETWORK_IDLE, false)) {
+			final Optional<WaitResult<Boolean>> result = networkIdleUtils.waitForNetworkIdle(
+				systemPropertyUtils.getPropertyAsInt(
+					Constants.NETWORK_IDLE_TIME,
+					Constants.DEFAULT_NETWORK_IDLE_TIME),
+				systemPropertyUtils.getPropertyAsInt(
+					Constants.NETWORK_IDLE_TIMEOUT,
+					Constants.DEFAULT_NETWORK_IDLE_TIMEOUT));
+
+			/*
+				Without the proxy there is nothing to wait on
+			 */
+			if (result.isPresent()) {
+				if (!result.get().isSuccessful()) {
+					LOGGER.info("WEBAPPTESTER-INFO-0017: The network was not idle after {}",
+						result.get().getSummary());
+				}
+				waited = true;
+			}
+		}
+
+		/*
+			Responses to requests often change the page, so the page is checked after the network
+		 */
+		if (systemPropertyUtils.getPropertyAsBoolean(Constants.WAIT_FOR_DOM_STABLE, false)) {
+			final WaitResult<DomStabilityUtils.Outcome> result = domStabilityUtils.waitForStableDom(
+				State.getThreadDesiredCapabilityMap().getWebDriverForThread(),
+				systemPropertyUtils.getPropertyAsInt(
+					Constants.DOM_QUIET_TIME,
+					Constants.DEFAULT_DOM_QUIET_TIME),
+				Optional.empty(),
+				systemPropertyUtils.getPropertyAsInt(
+					Constants.DOM_STABLE_TIMEOUT,
+					Constants.DEFAULT_DOM_STABLE_TIMEOUT));
+
+			if (!result.isSuccessful()) {
+				LOGGER.info("WEBAPPTESTER-INFO-0019: The page was still changing after {}", result.getSummary());
+			}
+			waited = true;
+		}
+
+		if (!waited) {
+			final long sleep = State.getFeatureStateForThread().getDefaultSleep();
+
+			if (systemPropertyUtils.getPropertyAsBoolean(Constants.PREFETCH_ELEMENTS, false)) {
+				elementPrefetcher.sleepAndPrefetch(sleep);
+			} else {
+				sleep(sleep);
+			}
+		}
+	}
 }
@@ -0,0 +1,102 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.StaticAssetCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import net.lightbody.bmp.filters.RequestFilter;
+import net.lightbody.bmp.filters.ResponseFilter;
+import net.lightbody.bmp.util.HttpMessageContents;
+import net.lightbody.bmp.util.HttpMessageInfo;
+
+import javax.validation.constraints.NotNull;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A pair of BrowserMob filters that answer requests from the shared static asset cache,
+ * and save responses into it
+ */
+public class StaticAssetCacheFilter implements RequestFilter, ResponseFilter {
+	/**
+	 * Requests that never get a response are forgotten once this many newer requests are waiting
+	 */
+	private static final int MAX_PENDING_REQUESTS = 10000;
+
+	private final StaticAssetCache staticAssetCache;
+	/**
+	 * Copies of the requests sent to the server, waiting for a response to cache. Weak keys are
+	 * compared by identity, and the request and response filters see the same original request.
+	 */
+	private final Cache<HttpRequest, PendingRequest> pendingRequests = CacheBuilder.newBuilder()
+		.weakKeys()
+		.maximumSize(MAX_PENDING_REQUESTS)
+		.build();
+
+	public StaticAssetCacheFilter(@NotNull final StaticAssetCache staticAssetCache) {
+		checkNotNull(staticAssetCache);
+
+		this.staticAssetCache = staticAssetCache;
+	}
+
+	@Override
+	public HttpResponse filterRequest(
+			final HttpRequest request,
+			final HttpMessageContents contents,
+			final HttpMessageInfo messageInfo) {
+
+		if (messageInfo.getUrl() == null) {
+			return null;
+		}
+
+		/*
+			The request has already been modified by the other filters, so headers added by
+			request rules, like Authorization, are taken into account. The request is copied
+			because it can be modified again before it is sent to the server.
+		 */
+		final HttpRequest sentRequest = new DefaultHttpRequest(
+			request.getProtocolVersion(),
+			request.getMethod(),
+			request.getUri());
+		sentRequest.headers().set(request.headers());
+
+		final HttpResponse cached = staticAssetCache.get(sentRequest, messageInfo.getUrl()).orElse(null);
+		if (cached == null) {
+			pendingRequests.put(
+				messageInfo.getOriginalRequest(),
+				new PendingRequest(sentRequest, messageInfo.getUrl()));
+		}
+
+		return cached;
+	}
+
+	@Override
+	public void filterResponse(
+			final HttpResponse response,
+			final HttpMessageContents contents,
+			final HttpMessageInfo messageInfo) {
+
+		final PendingRequest pending = pendingRequests.getIfPresent(messageInfo.getOriginalRequest());
+		if (pending == null) {
+			return;
+		}
+
+		pendingRequests.invalidate(messageInfo.getOriginalRequest());
+		if (response instanceof FullHttpResponse) {
+			staticAssetCache.put(pending.request, pending.url, (FullHttpResponse) response);
+		}
+	}
+
+	private static final class PendingRequest {
+		private final HttpRequest request;
+		private final String url;
+
+		PendingRequest(final HttpRequest request, final String url) {
+			this.request = request;
+			this.url = url;
+		}
+	}
+}
@@ -0,0 +1,428 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.StaticAssetCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A shared HTTP cache that follows the rules of a shared cache in RFC 7234, in a simplified
+ * form. Only fresh GET responses with an explicit lifetime are saved, and responses are
+ * never revalidated with the server. Responses are kept in memory, and the least recently
+ * used responses are evicted once the memory limit is reached. If a directory is supplied,
+ * evicted responses are written to disk and read back through memory mapped files.
+ */
+public class StaticAssetCacheImpl implements StaticAssetCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(StaticAssetCacheImpl.class);
+	private static final String DISK_FILE_EXTENSION = ".asset";
+	/**
+	 * Responses larger than this are never cached
+	 */
+	private static final int MAX_ENTRY_SIZE = 16 * 1024 * 1024;
+	/**
+	 * The number of URLs whose Vary headers are remembered
+	 */
+	private static final int MAX_VARY_ENTRIES = 100000;
+	private static final long MILLISECONDS_PER_SECOND = 1000;
+	private static final List<String> UNCACHEABLE_RESPONSE_DIRECTIVES =
+		Arrays.asList("no-store", "no-cache", "private");
+	private static final List<String> UNCACHEABLE_REQUEST_DIRECTIVES =
+		Arrays.asList("no-store", "no-cache");
+
+	private final Cache<String, CachedResponse> memory;
+	private final Optional<Cache<String, CachedResponse>> disk;
+	private final Optional<File> diskDirectory;
+	private final Optional<ExecutorService> diskWriter;
+	/**
+	 * Makes the name of each file written to disk unique
+	 */
+	private final AtomicLong nextDiskFile = new AtomicLong();
+	/**
+	 * The names of the headers listed in the Vary header of the last response for each URL
+	 */
+	private final Cache<String, List<String>> varyHeaders = CacheBuilder.newBuilder()
+		.maximumSize(MAX_VARY_ENTRIES)
+		.build();
+
+	/**
+	 * @param memoryBytes   The maximum number of bytes of response bodies held in memory
+	 * @param diskDirectory An optional directory used to hold responses evicted from memory
+	 * @param diskBytes     The maximum number of bytes of response bodies held on disk
+	 */
+	public StaticAssetCacheImpl(
+			final long memoryBytes,
+			@NotNull final Optional<File> diskDirectory,
+			final long diskBytes) {
+		checkArgument(memoryBytes > 0);
+		checkNotNull(diskDirectory);
+		checkArgument(diskBytes > 0);
+
+		this.diskDirectory = diskDirectory;
+		this.diskDirectory.ifPresent(this::prepareDirectory);
+
+		this.disk = diskDirectory.map(x -> CacheBuilder.newBuilder()
+			.maximumWeight(diskBytes)
+			.weigher((String key, CachedResponse value) -> value.getSize())
+			.removalListener(this::deleteFile)
+			.build());
+
+		this.diskWriter = diskDirectory.map(x -> Executors.newSingleThreadExecutor(
+			new ThreadFactoryBuilder()
+				.setNameFormat("StaticAssetCacheWriter-%d")
+				.setDaemon(true)
+				.build()));
+
+		this.memory = CacheBuilder.newBuilder()
+			.maximumWeight(memoryBytes)
+			.weigher((String key, CachedResponse value) -> value.getSize())
+			.removalListener(this::spillToDisk)
+			.build();
+	}
+
+	@Override
+	public Optional<FullHttpResponse> get(@NotNull final HttpRequest request, @NotNull final String url) {
+		checkNotNull(request);
+		checkNotNull(url);
+
+		if (!isCacheableRequest(request) || hasDirective(request.headers(), UNCACHEABLE_REQUEST_DIRECTIVES)
+			|| "no-cache".equalsIgnoreCase(request.headers().get(HttpHeaders.Names.PRAGMA))) {
+			return Optional.empty();
+		}
+
+		final List<String> vary = varyHeaders.getIfPresent(url);
+		if (vary == null) {
+			return Optional.empty();
+		}
+
+		final String key = getKey(request, url, vary);
+		final Optional<CachedResponse> cached = getFresh(memory, key)
+			.map(Optional::of)
+			.orElseGet(() -> disk.flatMap(x -> getFresh(x, key)));
+
+		return cached.map(CachedResponse::toResponse);
+	}
+
+	@Override
+	public void put(
+			@NotNull final HttpRequest request,
+			@NotNull final String url,
+			@NotNull final FullHttpResponse response) {
+		checkNotNull(request);
+		checkNotNull(url);
+		checkNotNull(response);
+
+		if (!isCacheableRequest(request)
+			|| response.getStatus().code() != HttpResponseStatus.OK.code()
+			|| response.headers().contains(HttpHeaders.Names.SET_COOKIE)
+			|| response.content().readableBytes() > MAX_ENTRY_SIZE
+			|| hasDirective(response.headers(), UNCACHEABLE_RESPONSE_DIRECTIVES)) {
+			return;
+		}
+
+		final List<String> vary = getVaryHeaders(response.headers());
+		if (vary.contains("*")) {
+			return;
+		}
+
+		final Optional<Long> expires = getExpiry(response.headers());
+		if (!expires.isPresent()) {
+			return;
+		}
+
+		final ByteBuf content = response.content();
+		final byte[] body = new byte[content.readableBytes()];
+		content.getBytes(content.readerIndex(), body);
+
+		final List<Map.Entry<String, String>> headers = response.headers().entries().stream()
+			.filter(x -> !HttpHeaders.Names.TRANSFER_ENCODING.equalsIgnoreCase(x.getKey()))
+			.filter(x -> !HttpHeaders.Names.CONTENT_LENGTH.equalsIgnoreCase(x.getKey()))
+			.map(x -> new AbstractMap.SimpleImmutableEntry<>(x.getKey(), x.getValue()))
+			.collect(Collectors.toList());
+
+		varyHeaders.put(url, vary);
+		memory.put(
+			getKey(request, url, vary),
+			new CachedResponse(response.getStatus().code(), headers, ByteBuffer.wrap(body), expires.get()));
+	}
+
+	@Override
+	public void clear() {
+		varyHeaders.invalidateAll();
+		memory.invalidateAll();
+		disk.ifPresent(Cache::invalidateAll);
+	}
+
+	private Optional<CachedResponse> getFresh(final Cache<String, CachedResponse> cache, final String key) {
+		final CachedResponse cached = cache.getIfPresent(key);
+		if (cached == null) {
+			return Optional.empty();
+		}
+
+		if (cached.expires < System.currentTimeMillis()) {
+			cache.invalidate(key);
+			return Optional.empty();
+		}
+
+		return Optional.of(cached);
+	}
+
+	/**
+	 * Requests with credentials or ranges are never served from a shared cache
+	 */
+	private boolean isCacheableRequest(final HttpRequest request) {
+		return HttpMethod.GET.equals(request.getMethod())
+			&& !request.headers().contains(HttpHeaders.Names.AUTHORIZATION)
+			&& !request.headers().contains(HttpHeaders.Names.RANGE);
+	}
+
+	private boolean hasDirective(final HttpHeaders headers, final List<String> directives) {
+		return getDirectives(headers).stream()
+			.map(x -> StringUtils.substringBefore(x, "="))
+			.anyMatch(directives::contains);
+	}
+
+	private List<String> getDirectives(final HttpHeaders headers) {
+		return headers.getAll(HttpHeaders.Names.CACHE_CONTROL).stream()
+			.flatMap(x -> Arrays.stream(x.split(",")))
+			.map(String::trim)
+			.map(x -> x.toLowerCase(Locale.ROOT))
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * @return The time the response expires, in milliseconds since the epoch, or an empty result
+	 * if the response does not have an explicit lifetime
+	 */
+	private Optional<Long> getExpiry(final HttpHeaders headers) {
+		final List<String> directives = getDirectives(headers);
+
+		final Optional<Long> maxAge = Optional.ofNullable(getDirectiveValue(directives, "s-maxage")
+			.orElseGet(() -> getDirectiveValue(directives, "max-age").orElse(null)));
+
+		final Optional<Long> expires = maxAge.isPresent()
+			? maxAge.map(x -> System.currentTimeMillis() + x * MILLISECONDS_PER_SECOND)
+			: parseDate(headers.get(HttpHeaders.Names.EXPIRES));
+
+		return expires.filter(x -> x > System.currentTimeMillis());
+	}
+
+	private Optional<Long> getDirectiveValue(final List<String> directives, final String name) {
+		return directives.stream()
+			.filter(x -> x.startsWith(name + "="))
+			.map(x -> StringUtils.substringAfter(x, "=").replace("\"", ""))
+			.filter(StringUtils::isNumeric)
+			.map(Long::parseLong)
+			.findFirst();
+	}
+
+	private Optional<Long> parseDate(final String date) {
+		if (StringUtils.isBlank(date)) {
+			return Optional.empty();
+		}
+
+		try {
+			return Optional.of(ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME)
+				.toInstant()
+				.toEpochMilli());
+		} catch (final DateTimeParseException ex) {
+			return Optional.empty();
+		}
+	}
+
+	private List<String> getVaryHeaders(final HttpHeaders headers) {
+		return headers.getAll(HttpHeaders.Names.VARY).stream()
+			.flatMap(x -> Arrays.stream(x.split(",")))
+			.map(String::trim)
+			.filter(StringUtils::isNotEmpty)
+			.map(x -> x.toLowerCase(Locale.ROOT))
+			.sorted()
+			.distinct()
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * The key is the URL and the values of the request headers that the response varies by
+	 */
+	private String getKey(final HttpRequest request, final String url, final List<String> vary) {
+		if (vary.isEmpty()) {
+			return url;
+		}
+
+		final StringBuilder key = new StringBuilder(url);
+		for (final String header : vary) {
+			key.append('\n').append(header).append(':')
+				.append(String.join(",", request.headers().getAll(header)));
+		}
+		return key.toString();
+	}
+
+	private void prepareDirectory(final File directory) {
+		checkArgument(directory.isDirectory() || directory.mkdirs(),
+			"Could not create the static asset cache directory " + directory.getAbsolutePath());
+
+		/*
+			Files left behind by an earlier run are not indexed, so they are removed
+		 */
+		Optional.ofNullable(directory.listFiles((dir, name) -> name.endsWith(DISK_FILE_EXTENSION)))
+			.ifPresent(files -> Arrays.stream(files).forEach(File::delete));
+	}
+
+	/**
+	 * Responses that are evicted from memory because of the size limit are written to disk
+	 */
+	private void spillToDisk(final RemovalNotification<String, CachedResponse> notification) {
+		if (notification.getCause() != RemovalCause.SIZE
+			|| !disk.isPresent()
+			|| notification.getValue().expires < System.currentTimeMillis()) {
+			return;
+		}
+
+		final String key = notification.getKey();
+		final CachedResponse response = notification.getValue();
+
+		/*
+			The disk tier may still hold, and be serving, a mapped file for the same key. Each spill
+			is written to a new file, and the old file is deleted once its entry is replaced.
+		 */
+		diskWriter.ifPresent(executor -> executor.execute(() -> {
+			final File file = new File(
+				diskDirectory.get(),
+				Hashing.sha256().hashString(key, StandardCharsets.UTF_8)
+					+ "-" + nextDiskFile.getAndIncrement()
+					+ DISK_FILE_EXTENSION);
+
+			try (FileChannel channel = FileChannel.open(
+					file.toPath(),
+					StandardOpenOption.CREATE_NEW,
+					StandardOpenOption.READ,
+					StandardOpenOption.WRITE)) {
+
+				final ByteBuffer body = response.body.duplicate();
+				while (body.hasRemaining()) {
+					channel.write(body);
+				}
+
+				final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				disk.get().put(key, new CachedResponse(response, mapped, file));
+			} catch (final IOException ex) {
+				LOGGER.error("WEBAPPTESTER-BUG-0016: Failed to save a cached response to " + file.getAbsolutePath(), ex);
+			}
+		}));
+	}
+
+	private void deleteFile(final RemovalNotification<String, CachedResponse> notification) {
+		final CachedResponse value = notification.getValue();
+		if (value != null) {
+			value.file.ifPresent(x -> {
+				try {
+					Files.deleteIfExists(x.toPath());
+				} catch (final IOException ex) {
+					/*
+						The file can't be deleted on some platforms while it is mapped.
+						It is removed the next time the cache starts.
+					 */
+					LOGGER.debug("Failed to delete " + x.getAbsolutePath(), ex);
+				}
+			});
+		}
+	}
+
+	/**
+	 * A response as it is held in the cache. The body is a read only view of either a byte
+	 * array or a memory mapped file.
+	 */
+	private static class CachedResponse {
+		private final int status;
+		private final List<Map.Entry<String, String>> headers;
+		private final ByteBuffer body;
+		private final long expires;
+		private final long stored;
+		private final Optional<File> file;
+
+		CachedResponse(
+				final int status,
+				final List<Map.Entry<String, String>> headers,
+				final ByteBuffer body,
+				final long expires) {
+			this.status = status;
+			this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+			this.body = body.asReadOnlyBuffer();
+			this.expires = expires;
+			this.stored = System.currentTimeMillis();
+			this.file = Optional.empty();
+		}
+
+		/**
+		 * Copies a response that has been written to disk
+		 */
+		CachedResponse(final CachedResponse original, final ByteBuffer body, final File file) {
+			this.status = original.status;
+			this.headers = original.headers;
+			this.body = body.asReadOnlyBuffer();
+			this.expires = original.expires;
+			this.stored = original.stored;
+			this.file = Optional.of(file);
+		}
+
+		int getSize() {
+			return body.remaining();
+		}
+
+		FullHttpResponse toResponse() {
+			final FullHttpResponse response = new DefaultFullHttpResponse(
+				HttpVersion.HTTP_1_1,
+				HttpResponseStatus.valueOf(status),
+				Unpooled.wrappedBuffer(body.duplicate()));
+
+			headers.forEach(x -> response.headers().add(x.getKey(), x.getValue()));
+			response.headers().set(HttpHeaders.Names.CONTENT_LENGTH, getSize());
+			response.headers().set(
+				HttpHeaders.Names.AGE,
+				(System.currentTimeMillis() - stored) / MILLISECONDS_PER_SECOND);
+			return response;
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.HarStreamWriter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import net.lightbody.bmp.core.har.HarContent;
+import net.lightbody.bmp.core.har.HarEntry;
+import net.lightbody.bmp.core.har.HarNameValuePair;
+import net.lightbody.bmp.core.har.HarPostData;
+import net.lightbody.bmp.core.har.HarRequest;
+import net.lightbody.bmp.core.har.HarResponse;
+import net.lightbody.bmp.core.har.HarTimings;
+import net.lightbody.bmp.filters.RequestFilter;
+import net.lightbody.bmp.filters.ResponseFilter;
+import net.lightbody.bmp.util.HttpMessageContents;
+import net.lightbody.bmp.util.HttpMessageInfo;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.validation.constraints.NotNull;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A pair of BrowserMob filters that build HAR entries for each request and response
+ * and pass them to a HarStreamWriter. Unlike the HAR built into BrowserMob, nothing is
+ * kept in memory once an entry has been written, and bodies can be filtered and capped.
+ *
+ * The filters are added to a proxy once. Capturing is switched on, reconfigured and
+ * switched off by calling start() and stop().
+ */
+public class StreamingHarFilter implements RequestFilter, ResponseFilter {
+	private static final String TRUNCATED_COMMENT = "Body truncated to %d of %d bytes";
+	/**
+	 * Requests that never get a response, like blocked or aborted requests, are
+	 * forgotten once this many newer requests are waiting
+	 */
+	private static final int MAX_PENDING_REQUESTS = 10000;
+
+	/**
+	 * The request filter and response filter receive the same original request
+	 * instance. Weak keys are compared by identity, which is what we want here.
+	 */
+	private final Cache<HttpRequest, PendingRequest> pendingRequests = CacheBuilder.newBuilder()
+		.weakKeys()
+		.maximumSize(MAX_PENDING_REQUESTS)
+		.build();
+
+	private volatile Settings settings;
+
+	/**
+	 * Starts capturing entries, replacing and closing any existing writer
+	 *
+	 * @param writer             The writer that entries are passed to
+	 * @param urlFilter          An optional regex that URLs have to match to be captured
+	 * @param contentTypeFilter  An optional regex that content types have to match for the body to be captured
+	 * @param maxBodySize        The maximum number of bytes of each body that are captured
+	 */
+	public synchronized void start(
+			@NotNull final HarStreamWriter writer,
+			final String urlFilter,
+			final String contentTypeFilter,
+			final int maxBodySize) {
+		checkNotNull(writer);
+		checkArgument(maxBodySize >= 0);
+
+		stop();
+		settings = new Settings(writer, urlFilter, contentTypeFilter, maxBodySize);
+	}
+
+	/**
+	 * Stops capturing entries and closes the writer
+	 */
+	public synchronized void stop() {
+		final Settings existing = settings;
+		settings = null;
+		pendingRequests.invalidateAll();
+
+		if (existing != null) {
+			existing.writer.close();
+		}
+	}
+
+	/**
+	 *
+	 * @return true if entries are being captured
+	 */
+	public boolean isStarted() {
+		return settings != null;
+	}
+
+	/**
+	 * Saves a complete HAR file with the entries captured so far
+	 *
+	 * @param file The file to save
+	 * @return false if entries are not being captured
+	 */
+	public boolean snapshot(@NotNull final File file) {
+		checkNotNull(file);
+
+		final Settings current = settings;
+		if (current == null) {
+			return false;
+		}
+
+		current.writer.snapshot(file);
+		return true;
+	}
+
+	@Override
+	public HttpResponse filterRequest(
+			final HttpRequest request,
+			final HttpMessageContents contents,
+			final HttpMessageInfo messageInfo) {
+
+		final Settings current = settings;
+		if (current != null && current.isCaptured(messageInfo.getOriginalUrl())) {
+			final HarRequest harRequest = new HarRequest();
+			harRequest.setMethod(request.getMethod().name());
+			harRequest.setUrl(messageInfo.getOriginalUrl());
+			harRequest.setHttpVersion(request.getProtocolVersion().text());
+			harRequest.getHeaders().addAll(getHeaders(request.headers()));
+			harRequest.setHeadersSize(-1);
+
+			new QueryStringDecoder(request.getUri()).parameters().forEach((name, values) ->
+				values.forEach(value -> harRequest.getQueryString().add(new HarNameValuePair(name, value))));
+
+			if (contents != null && contents.getBinaryContents().length != 0) {
+				final HarPostData postData = new HarPostData();
+				postData.setMimeType(StringUtils.defaultString(contents.getContentType()));
+				if (current.isBodyCaptured(contents.getContentType())) {
+					final Body body = current.getBody(contents);
+					postData.setText(body.text);
+					body.comment.ifPresent(postData::setComment);
+				}
+				harRequest.setPostData(postData);
+				harRequest.setBodySize(contents.getBinaryContents().length);
+			} else {
+				harRequest.setBodySize(0);
+			}
+
+			pendingRequests.put(
+				messageInfo.getOriginalRequest(),
+				new PendingRequest(harRequest, new Date(), System.nanoTime()));
+		}
+
+		return null;
+	}
+
+	@Override
+	public void filterResponse(
+			final HttpResponse response,
+			final HttpMessageContents contents,
+			final HttpMessageInfo messageInfo) {
+
+		final Settings current = settings;
+		if (current == null) {
+			return;
+		}
+
+		final PendingRequest pending = pendingRequests.getIfPresent(messageInfo.getOriginalRequest());
+		if (pending == null) {
+			return;
+		}
+		pendingRequests.invalidate(messageInfo.getOriginalRequest());
+
+		final HarResponse harResponse = new HarResponse();
+		harResponse.setStatus(response.getStatus().code());
+		harResponse.setStatusText(response.getStatus().reasonPhrase());
+		harResponse.setHttpVersion(response.getProtocolVersion().text());
+		harResponse.getHeaders().addAll(getHeaders(response.headers()));
+		harResponse.setRedirectURL(StringUtils.defaultString(response.headers().get(HttpHeaders.Names.LOCATION)));
+		harResponse.setHeadersSize(-1);
+
+		final HarContent content = harResponse.getContent();
+		if (contents != null) {
+			final byte[] binaryContents = contents.getBinaryContents();
+			content.setSize(binaryContents.length);
+			content.setMimeType(StringUtils.defaultString(contents.getContentType()));
+			harResponse.setBodySize(binaryContents.length);
+
+			if (current.isBodyCaptured(contents.getContentType())) {
+				final Body body = current.getBody(contents);
+				content.setText(body.text);
+				body.encoding.ifPresent(content::setEncoding);
+				body.comment.ifPresent(content::setComment);
+			}
+		}
+
+		final HarTimings timings = new HarTimings();
+		timings.setWait(System.nanoTime() - pending.startNanos, TimeUnit.NANOSECONDS);
+
+		final HarEntry entry = new HarEntry();
+		entry.setStartedDateTime(pending.started);
+		entry.setRequest(pending.request);
+		entry.setResponse(harResponse);
+		entry.setTimings(timings);
+
+		current.writer.write(entry);
+	}
+
+	private List<HarNameValuePair> getHeaders(final HttpHeaders headers) {
+		final List<HarNameValuePair> pairs = new ArrayList<>();
+		for (final Map.Entry<String, String> header : headers) {
+			pairs.add(new HarNameValuePair(header.getKey(), header.getValue()));
+		}
+		return pairs;
+	}
+
+	/**
+	 * The details of a request that is waiting for a response
+	 */
+	private static class PendingRequest {
+		private final HarRequest request;
+		private final Date started;
+		private final long startNanos;
+
+		PendingRequest(final HarRequest request, final Date started, final long startNanos) {
+			this.request = request;
+			this.started = started;
+			this.startNanos = startNanos;
+		}
+	}
+
+	/**
+	 * A body as it is saved in the HAR file
+	 */
+	private static class Body {
+		private final String text;
+		private final Optional<String> encoding;
+		private final Optional<String> comment;
+
+		Body(final String text, final Optional<String> encoding, final Optional<String> comment) {
+			this.text = text;
+			this.encoding = encoding;
+			this.comment = comment;
+		}
+	}
+
+	/**
+	 * The capture settings. These are replaced as a whole so the filters always see
+	 * a consistent set of values.
+	 */
+	private static class Settings {
+		private final HarStreamWriter writer;
+		private final Optional<Pattern> urlFilter;
+		private final Optional<Pattern> contentTypeFilter;
+		private final int maxBodySize;
+
+		Settings(
+				final HarStreamWriter writer,
+				final String urlFilter,
+				final String contentTypeFilter,
+				final int maxBodySize) {
+			this.writer = writer;
+			this.urlFilter = Optional.ofNullable(urlFilter).filter(StringUtils::isNotBlank).map(Pattern::compile);
+			this.contentTypeFilter = Optional.ofNullable(contentTypeFilter)
+				.filter(StringUtils::isNotBlank)
+				.map(Pattern::compile);
+			this.maxBodySize = maxBodySize;
+		}
+
+		boolean isCaptured(final String url) {
+			return urlFilter.map(x -> x.matcher(StringUtils.defaultString(url)).matches()).orElse(true);
+		}
+
+		boolean isBodyCaptured(final String contentType) {
+			return maxBodySize != 0
+				&& contentTypeFilter.map(x -> x.matcher(StringUtils.defaultString(contentType)).matches()).orElse(true);
+		}
+
+		Body getBody(final HttpMessageContents contents) {
+			final byte[] binaryContents = contents.getBinaryContents();
+			final boolean truncated = binaryContents.length > maxBodySize;
+			final Optional<String> comment = truncated
+				? Optional.of(String.format(TRUNCATED_COMMENT, maxBodySize, binaryContents.length))
+				: Optional.empty();
+
+			if (contents.isText()) {
+				final String text = contents.getTextContents();
+				return new Body(
+					truncated ? StringUtils.left(text, maxBodySize) : text,
+					Optional.empty(),
+					comment);
+			}
+
+			return new Body(
+				Base64.getEncoder().encodeToString(
+					truncated ? Arrays.copyOf(binaryContents, maxBodySize) : binaryContents),
+				Optional.of("base64"),
+				comment);
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package au.com.agic.apptesting.utils.impl;
+
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import net.lightbody.bmp.filters.RequestFilter;
+import net.lightbody.bmp.util.HttpMessageContents;
+import net.lightbody.bmp.util.HttpMessageInfo;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A single request filter that implements the block and allow lists added by each test
+ * thread. This replaces the BrowserMob blacklist and whitelist, which test every regular
+ * expression in turn against every request. Here all the expressions that share a
+ * response code are compiled into one UrlPatternMatcher.
+ *
+ * A proxy started by a test thread only applies the lists of that thread. The proxy
+ * shared by all threads applies the lists of every thread.
+ */
+public class UrlAccessFilter implements RequestFilter {
+	private final Optional<String> owner;
+	/**
+	 * The lists of each thread. Guarded by this.
+	 */
+	private final Map<String, ThreadLists> threadLists = new HashMap<>();
+	private volatile Compiled compiled = new Compiled(Collections.emptyList(), Optional.empty(),
+		UrlPatternMatcher.compile(Collections.emptyList()));
+
+	/**
+	 * @param owner The name of the test thread that owns the proxy, or an empty result if
+	 *              the proxy is shared by all threads
+	 */
+	public UrlAccessFilter(@NotNull final Optional<String> owner) {
+		checkNotNull(owner);
+
+		this.owner = owner;
+	}
+
+	/**
+	 * Blocks requests to URLs that match the regular expressions
+	 *
+	 * @param threadName The name of the test thread
+	 * @param urls       The regular expressions that match the URLs to block
+	 * @param response   The response code to return for blocked requests
+	 * @param method     A regular expression matching the HTTP methods to block, or an empty
+	 *                   result to block all methods
+	 */
+	public synchronized void block(
+			@NotNull final String threadName,
+			@NotNull final Collection<String> urls,
+			final int response,
+			@NotNull final Optional<String> method) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+		checkNotNull(urls);
+		checkNotNull(method);
+
+		/*
+			Compile the expressions before they are saved, so an invalid expression
+			fails the step instead of every request
+		 */
+		UrlPatternMatcher.compile(urls);
+		method.ifPresent(Pattern::compile);
+
+		getThreadLists(threadName).blocked
+			.computeIfAbsent(new BlockKey(response, method), x -> new ArrayList<>())
+			.addAll(urls);
+
+		rebuild();
+	}
+
+	/**
+	 * Enables the allow list. Requests to URLs that have not been allowed are blocked.
+	 *
+	 * @param threadName The name of the test thread
+	 * @param response   The response code to return for requests to URLs that have not been allowed
+	 */
+	public synchronized void enableAllowList(@NotNull final String threadName, final int response) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+
+		getThreadLists(threadName).allowListResponse = Optional.of(response);
+
+		rebuild();
+	}
+
+	/**
+	 * Allows requests to URLs that match the regular expression when the allow list is enabled
+	 *
+	 * @param threadName The name of the test thread
+	 * @param url        The regular expression that matches URLs to allow
+	 */
+	public synchronized void allow(@NotNull final String threadName, @NotNull final String url) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+		checkNotNull(url);
+
+		UrlPatternMatcher.compile(Collections.singletonList(url));
+		getThreadLists(threadName).allowed.add(url);
+
+		rebuild();
+	}
+
+	/**
+	 * Removes the block and allow lists added by a test thread
+	 *
+	 * @param threadName The name of the test thread
+	 */
+	public synchronized void clearRules(@NotNull final String threadName) {
+		checkArgument(StringUtils.isNotBlank(threadName));
+
+		if (threadLists.remove(threadName) != null) {
+			rebuild();
+		}
+	}
+
+	@Override
+	public HttpResponse filterRequest(
+			final HttpRequest request,
+			final HttpMessageContents contents,
+			final HttpMessageInfo messageInfo) {
+
+		final Compiled current = compiled;
+		final String url = StringUtils.defaultString(messageInfo.getOriginalUrl());
+		final String method = request.getMethod().name();
+
+		/*
+			Like the BrowserMob lists, CONNECT requests are only blocked when
+			they are blocked explicitly
+		 */
+		final boolean connect = HttpMethod.CONNECT.equals(request.getMethod());
+
+		for (final BlockGroup group : current.blocked) {
+			final boolean methodMatches = group.method
+				.map(x -> x.matcher(method).matches())
+				.orElse(!connect);
+
+			if (methodMatches && group.matcher.matches(url)) {
+				return createResponse(group.key.response);
+			}
+		}
+
+		if (!connect
+			&& current.allowListResponse.isPresent()
+			&& !current.allowed.matches(url)) {
+			return createResponse(current.allowListResponse.get());
+		}
+
+		return null;
+	}
+
+	private HttpResponse createResponse(final int response) {
+		final HttpResponse httpResponse = new DefaultFullHttpResponse(
+			HttpVersion.HTTP_1_1,
+			HttpResponseStatus.valueOf(response));
+		httpResponse.headers().set(HttpHeaders.Names.CONTENT_LENGTH, 0);
+		return httpResponse;
+	}
+
+	private ThreadLists getThreadLists(final String threadName) {
+		return threadLists.computeIfAbsent(threadName, x -> new ThreadLists());
+	}
+
+	private void rebuild() {
+		final Map<BlockKey, List<String>> blocked = new LinkedHashMap<>();
+		final List<String> allowed = new ArrayList<>();
+		Optional<Integer> allowListResponse = Optional.empty();
+
+		for (final Map.Entry<String, ThreadLists> entry : threadLists.entrySet()) {
+			if (!owner.map(entry.getKey()::equals).orElse(true)) {
+				continue;
+			}
+
+			entry.getValue().blocked.forEach((key, urls) ->
+				blocked.computeIfAbsent(key, x -> new ArrayList<>()).addAll(urls));
+			allowed.addAll(entry.getValue().allowed);
+			if (!allowListResponse.isPresent()) {
+				allowListResponse = entry.getValue().allowListResponse;
+			}
+		}
+
+		final List<BlockGroup> groups = new ArrayList<>();
+		blocked.forEach((key, urls) -> groups.add(new BlockGroup(key, UrlPatternMatcher.compile(urls))));
+
+		compiled = new Compiled(groups, allowListResponse, UrlPatternMatcher.compile(allowed));
+	}
+
+	/**
+	 * The lists added by one thread
+	 */
+	private static class ThreadLists {
+		private final Map<BlockKey, List<String>> blocked = new LinkedHashMap<>();
+		private final List<String> allowed = new ArrayList<>();
+		private Optional<Integer> allowListResponse = Optional.empty();
+	}
+
+	/**
+	 * Blocked URLs are grouped by the response they get and the method that is blocked
+	 */
+	private static class BlockKey {
+		private final int response;
+		private final Optional<String> method;
+
+		BlockKey(final int response, final Optional<String> method) {
+			this.response = response;
+			this.method = method;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof BlockKey)) {
+				return false;
+			}
+			final BlockKey other = (BlockKey) obj;
+			return response == other.response && method.equals(other.method);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(response, method);
+		}
+	}
+
+	private static class BlockGroup {
+		private final BlockKey key;
+		private final Optional<Pattern> method;
+		private final UrlPatternMatcher matcher;
+
+		BlockGroup(final BlockKey key, final UrlPatternMatcher matcher) {
+			this.key = key;
+			this.method = key.method.map(Pattern::compile);
+			this.matcher = matcher;
+		}
+	}
+
+	/**
+	 * The lists as they are read by the proxy threads
+	 */
+	private static class Compiled {
+		private final List<BlockGroup> blocked;
+		private final Optional<Integer> allowListResponse;
+		private final UrlPatternMatcher allowed;
+
+		Compiled(
+				final List<BlockGroup> blocked,
+				final Optional<Integer> allowListResponse,
+				final UrlPatternMatcher allowed) {
+			this.blocked = blocked;
+			this.allowListResponse = allowListResponse;
+			this.allowed = allowed;
+		}
+	}
+}
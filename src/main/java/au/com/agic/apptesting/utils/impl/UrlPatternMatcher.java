@@ -0,0 +1,164 @@
+package au.com.agic.apptesting.utils.impl;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Matches a URL against a collection of regular expressions with far fewer operations
+ * than testing each expression in turn. Expressions that are plain strings are found in
+ * a hash set, expressions that are a plain string followed by ".*" are found in a sorted
+ * set of prefixes, and everything else is combined into a single regular expression.
+ *
+ * Instances are immutable, so they can be shared with the proxy threads.
+ */
+public final class UrlPatternMatcher {
+	private static final String ANY_SUFFIX = ".*";
+	private static final String REGEX_METACHARACTERS = "\\.[]{}()*+?^$|";
+	/**
+	 * Expressions with back references can't be combined, because the group numbers change
+	 */
+	private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\([1-9]|k<)");
+	private static final UrlPatternMatcher EMPTY = new UrlPatternMatcher(new ArrayList<>());
+
+	private final Set<String> literals = new HashSet<>();
+	/**
+	 * No prefix in this set is a prefix of any other, which means the only candidate
+	 * for a URL is the greatest prefix that is less than or equal to it
+	 */
+	private final NavigableSet<String> prefixes = new TreeSet<>();
+	private final List<Pattern> patterns = new ArrayList<>();
+
+	private UrlPatternMatcher(final Collection<String> regexes) {
+		final List<String> remaining = new ArrayList<>();
+		final TreeSet<String> allPrefixes = new TreeSet<>();
+
+		for (final String regex : regexes) {
+			final Optional<String> literal = getLiteral(regex);
+			if (literal.isPresent()) {
+				literals.add(literal.get());
+				continue;
+			}
+
+			final Optional<String> prefix = regex.endsWith(ANY_SUFFIX)
+				? getLiteral(regex.substring(0, regex.length() - ANY_SUFFIX.length()))
+				: Optional.empty();
+			if (prefix.isPresent()) {
+				allPrefixes.add(prefix.get());
+				continue;
+			}
+
+			if (BACK_REFERENCE.matcher(regex).find()) {
+				patterns.add(Pattern.compile(regex));
+			} else {
+				remaining.add(regex);
+			}
+		}
+
+		/*
+			Sorted order puts every prefix before the longer strings that start with it
+		 */
+		for (final String prefix : allPrefixes) {
+			final String floor = prefixes.floor(prefix);
+			if (floor == null || !prefix.startsWith(floor)) {
+				prefixes.add(prefix);
+			}
+		}
+
+		if (!remaining.isEmpty()) {
+			patterns.add(Pattern.compile(remaining.stream()
+				.map(x -> "(?:" + x + ")")
+				.collect(Collectors.joining("|"))));
+		}
+	}
+
+	/**
+	 * @param regexes The regular expressions that have to match the entire URL
+	 * @return A matcher for the regular expressions
+	 */
+	public static UrlPatternMatcher compile(@NotNull final Collection<String> regexes) {
+		checkNotNull(regexes);
+
+		if (regexes.isEmpty()) {
+			return EMPTY;
+		}
+
+		/*
+			Check every expression individually first, so an invalid one is reported clearly
+		 */
+		regexes.forEach(Pattern::compile);
+		return new UrlPatternMatcher(regexes);
+	}
+
+	/**
+	 * @param url The URL to test
+	 * @return true if any of the regular expressions match the URL
+	 */
+	public boolean matches(@NotNull final String url) {
+		checkNotNull(url);
+
+		if (literals.contains(url)) {
+			return true;
+		}
+
+		final String prefix = prefixes.floor(url);
+		if (prefix != null && url.startsWith(prefix)) {
+			return true;
+		}
+
+		for (final Pattern pattern : patterns) {
+			if (pattern.matcher(url).matches()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return true if there are no regular expressions to match
+	 */
+	public boolean isEmpty() {
+		return literals.isEmpty() && prefixes.isEmpty() && patterns.isEmpty();
+	}
+
+	/**
+	 * @param regex A regular expression
+	 * @return The string the regular expression matches if it only matches one string, made up
+	 * of plain characters and escaped symbols
+	 */
+	private static Optional<String> getLiteral(final String regex) {
+		if (StringUtils.isEmpty(regex)) {
+			return Optional.empty();
+		}
+
+		final StringBuilder literal = new StringBuilder();
+		for (int i = 0; i < regex.length(); ++i) {
+			final char c = regex.charAt(i);
+			if (c == '\\') {
+				if (i + 1 == regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+					return Optional.empty();
+				}
+				literal.append(regex.charAt(++i));
+			} else if (REGEX_METACHARACTERS.indexOf(c) != -1) {
+				return Optional.empty();
+			} else {
+				literal.append(c);
+			}
+		}
+
+		return Optional.of(literal.toString());
+	}
+}
@@ -0,0 +1,78 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.constants.Constants;
+import au.com.agic.apptesting.utils.WaitResult;
+import au.com.agic.apptesting.utils.WaitUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An implementation of the wait service that polls with a growing interval against a
+ * System.nanoTime() deadline
+ */
+@Component
+public class WaitUtilsImpl implements WaitUtils {
+	private static final Logger LOGGER = LoggerFactory.getLogger(WaitUtilsImpl.class);
+
+	@Override
+	public <T> WaitResult<T> waitFor(final long timeout, @NotNull final Supplier<Optional<T>> condition) {
+		checkArgument(timeout >= 0);
+		checkNotNull(condition);
+
+		final long start = System.nanoTime();
+		final long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+		long poll = Constants.WAIT_INITIAL_POLL;
+		int attempts = 0;
+
+		while (true) {
+			++attempts;
+			final Optional<T> value = condition.get();
+
+			final long now = System.nanoTime();
+			if (value.isPresent() || now - deadline >= 0) {
+				return logResult(new WaitResult<>(value, now - start, attempts), timeout);
+			}
+
+			/*
+				Never sleep past the deadline, so the final attempt happens as the wait expires
+			 */
+			final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - now);
+
+			try {
+				Thread.sleep(Math.max(1, Math.min(poll, remaining)));
+			} catch (final InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return logResult(new WaitResult<>(Optional.empty(), System.nanoTime() - start, attempts), timeout);
+			}
+
+			poll = Math.min(Constants.WAIT_MAX_POLL, (long) (poll * Constants.WAIT_POLL_BACKOFF));
+		}
+	}
+
+	@Override
+	public WaitResult<Boolean> waitUntil(final long timeout, @NotNull final BooleanSupplier condition) {
+		checkNotNull(condition);
+
+		return waitFor(timeout, () -> condition.getAsBoolean() ? Optional.of(true) : Optional.empty());
+	}
+
+	private <T> WaitResult<T> logResult(final WaitResult<T> result, final long timeout) {
+		if (result.isSuccessful()) {
+			LOGGER.debug("Wait succeeded after {}", result.getSummary());
+		} else {
+			LOGGER.debug("Wait of {} milliseconds timed out after {}", timeout, result.getSummary());
+		}
+
+		return result;
+	}
+}
@@ -2,6 +2,7 @@ package au.com.agic.apptesting.utils.impl;
 
 import au.com.agic.apptesting.constants.Constants;
 import au.com.agic.apptesting.exception.DriverException;
+import au.com.agic.apptesting.utils.DriverServiceManager;
 import au.com.agic.apptesting.utils.ProxyDetails;
 import au.com.agic.apptesting.utils.SystemPropertyUtils;
 import au.com.agic.apptesting.utils.WebDriverFactory;
@@ -55,6 +56,10 @@ public class WebDriverFactoryImpl implements WebDriverFactory {
 	private static final int PHANTOM_JS_SCREEN_HEIGHT = 1024;
 	private static final int PHANTOMJS_TIMEOUTS = 60;
 	private static final SystemPropertyUtils SYSTEM_PROPERTY_UTILS = new SystemPropertyUtilsImpl();
+	/**
+	 * Shared by every factory so there is one set of driver processes per JVM
+	 */
+	private static final DriverServiceManager DRIVER_SERVICE_MANAGER = new DriverServiceManagerImpl();
 
 	/**
 	 * Note that we exit the application here if the driver could not be created. This is because an exception
@@ -197,6 +202,16 @@ public class WebDriverFactoryImpl implements WebDriverFactory {
 		return buildChrome(browser, mainProxy, capabilities, false, false, false);
 	}
 
+	/**
+	 * @return true if Chrome and Firefox sessions should be created against long running driver processes.
+	 * The shared processes are stopped when the JVM exits, so they are not used when windows are left open.
+	 * Sessions created against a shared process are RemoteWebDriver instances, so this is opt in.
+	 */
+	private boolean useSharedDriverService() {
+		return SYSTEM_PROPERTY_UTILS.getPropertyAsBoolean(Constants.SHARED_DRIVER_SERVICE, false)
+			&& !leaveWindowsOpen();
+	}
+
 	private void exitWithError(final String browser, final Throwable ex) {
 		LOGGER.error("WEBAPPTESTER-BUG-0010: Failed to create the " + browser + " WebDriver", ex);
 		System.exit(Constants.WEB_DRIVER_FAILURE_EXIT_CODE);
@@ -263,6 +278,12 @@ public class WebDriverFactoryImpl implements WebDriverFactory {
 
 		capabilities.setCapability(ChromeOptions.CAPABILITY, options);
 
+		if (useSharedDriverService()) {
+			return Try.of(() -> DRIVER_SERVICE_MANAGER.createChromeDriver(capabilities))
+				.onFailure(ex -> exitWithError(browser, ex))
+				.getOrElseThrow(ex -> new RuntimeException(ex));
+		}
+
 		return Try.of(() -> new ChromeDriver(capabilities))
 			.onFailure(ex -> exitWithError(browser, ex))
 			.getOrElseThrow(ex -> new RuntimeException(ex));
@@ -354,6 +375,20 @@ public class WebDriverFactoryImpl implements WebDriverFactory {
 			}
 		}
 
+		if (useSharedDriverService()) {
+			/*
+				The command line options of the FirefoxBinary are only applied by the FirefoxDriver,
+				so the headless flag has to be passed as an argument to a shared geckodriver
+			 */
+			if (headless) {
+				options.addArguments("--headless");
+			}
+
+			return Try.of(() -> DRIVER_SERVICE_MANAGER.createFirefoxDriver(options))
+				.onFailure(ex -> exitWithError(browser, ex))
+				.getOrElseThrow(ex -> new RuntimeException(ex));
+		}
+
 		return Try.of(() -> new FirefoxDriver(options))
 			.onFailure(ex -> exitWithError(browser, ex))
 			.getOrElseThrow(ex -> new RuntimeException(ex));
@@ -0,0 +1,237 @@
+package au.com.agic.apptesting.utils.impl;
+
+import au.com.agic.apptesting.utils.WebDriverPool;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A web driver pool that creates and resets browsers on a background thread.
+ * <p>
+ * Resetting a browser deletes the cookies and local and session storage of the page it was left on,
+ * closes any additional windows, dismisses any alert and navigates to a blank page. WebDriver only
+ * gives access to the cookies and storage of the current page, so state held by other domains
+ * visited during a scenario is not cleared.
+ */
+public class WebDriverPoolImpl implements WebDriverPool {
+	private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverPoolImpl.class);
+	private static final String BLANK_PAGE = "about:blank";
+	private static final String CLEAR_STORAGE_SCRIPT =
+		"try { window.localStorage.clear(); } catch (ex) {}\n"
+		+ "try { window.sessionStorage.clear(); } catch (ex) {}";
+
+	private final Supplier<WebDriver> webDriverFactory;
+	private final int size;
+	private final int maxIdle;
+	private final ExecutorService executor;
+	private final Queue<WebDriver> idle = new ConcurrentLinkedQueue<>();
+	/**
+	 * The number of browsers being created or reset in the background
+	 */
+	private final AtomicInteger pending = new AtomicInteger();
+	private final AtomicInteger peakSize = new AtomicInteger();
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+	private final AtomicInteger creates = new AtomicInteger();
+	private final AtomicLong createNanos = new AtomicLong();
+	private final AtomicInteger resets = new AtomicInteger();
+	private final AtomicInteger failedResets = new AtomicInteger();
+	private final AtomicLong resetNanos = new AtomicLong();
+	private volatile boolean shutdown;
+
+	/**
+	 * @param webDriverFactory Creates new web drivers
+	 * @param size             The number of idle browsers to keep ready
+	 * @param maxIdle          The maximum number of idle browsers to keep. Browsers released when
+	 *                         the pool is full are quit.
+	 */
+	public WebDriverPoolImpl(
+			@NotNull final Supplier<WebDriver> webDriverFactory,
+			final int size,
+			final int maxIdle) {
+		checkNotNull(webDriverFactory);
+		checkArgument(size > 0);
+		checkArgument(maxIdle >= size);
+
+		this.webDriverFactory = webDriverFactory;
+		this.size = size;
+		this.maxIdle = maxIdle;
+		this.executor = Executors.newSingleThreadExecutor(
+			new ThreadFactoryBuilder().setNameFormat("WebDriverPool-%d").setDaemon(true).build());
+	}
+
+	@Override
+	public void warm() {
+		while (!shutdown && idle.size() + pending.get() < size) {
+			pending.incrementAndGet();
+			executor.execute(() -> {
+				try {
+					addIdle(create());
+				} catch (final Exception ex) {
+					LOGGER.error("WEBAPPTESTER-BUG-0013: Failed to create a web driver for the pool", ex);
+				} finally {
+					pending.decrementAndGet();
+				}
+			});
+		}
+	}
+
+	@NotNull
+	@Override
+	public WebDriver acquire() {
+		final WebDriver webDriver = idle.poll();
+
+		/*
+			Replace the browser that was just taken, or the one that was missing
+		 */
+		warm();
+
+		if (webDriver != null) {
+			hits.incrementAndGet();
+			return webDriver;
+		}
+
+		misses.incrementAndGet();
+		return create();
+	}
+
+	@Override
+	public void release(@NotNull final WebDriver webDriver) {
+		checkNotNull(webDriver);
+
+		if (shutdown) {
+			quit(webDriver);
+			return;
+		}
+
+		pending.incrementAndGet();
+		executor.execute(() -> {
+			try {
+				final long start = System.nanoTime();
+				reset(webDriver);
+				resetNanos.addAndGet(System.nanoTime() - start);
+				resets.incrementAndGet();
+				addIdle(webDriver);
+			} catch (final Exception ex) {
+				LOGGER.info("WEBAPPTESTER-INFO-0012: Failed to reset a web driver. It will be quit instead.", ex);
+				failedResets.incrementAndGet();
+				quit(webDriver);
+			} finally {
+				pending.decrementAndGet();
+			}
+		});
+	}
+
+	@Override
+	public String getStatistics() {
+		final int acquired = hits.get() + misses.get();
+
+		return String.format(
+			"peak idle browsers %d (target %d), hit rate %d%% (%d of %d), "
+				+ "average reset %d ms (%d resets, %d failed), average create %d ms (%d creates)",
+			peakSize.get(),
+			size,
+			acquired == 0 ? 0 : hits.get() * 100 / acquired,
+			hits.get(),
+			acquired,
+			average(resetNanos.get(), resets.get()),
+			resets.get(),
+			failedResets.get(),
+			average(createNanos.get(), creates.get()),
+			creates.get());
+	}
+
+	@Override
+	public void shutdown() {
+		shutdown = true;
+		executor.shutdownNow();
+
+		final List<WebDriver> drivers = new ArrayList<>();
+		for (WebDriver webDriver = idle.poll(); webDriver != null; webDriver = idle.poll()) {
+			drivers.add(webDriver);
+		}
+		drivers.forEach(this::quit);
+	}
+
+	private WebDriver create() {
+		final long start = System.nanoTime();
+		final WebDriver webDriver = webDriverFactory.get();
+		createNanos.addAndGet(System.nanoTime() - start);
+		creates.incrementAndGet();
+		return webDriver;
+	}
+
+	private void addIdle(final WebDriver webDriver) {
+		if (shutdown || idle.size() >= maxIdle) {
+			quit(webDriver);
+			return;
+		}
+
+		idle.add(webDriver);
+		peakSize.accumulateAndGet(idle.size(), Math::max);
+
+		/*
+			Catch the case where shutdown() drained the queue while the browser was being added
+		 */
+		if (shutdown && idle.remove(webDriver)) {
+			quit(webDriver);
+		}
+	}
+
+	/**
+	 * Returns the browser to the state of a new browser, as far as WebDriver allows
+	 */
+	private void reset(final WebDriver webDriver) {
+		try {
+			webDriver.switchTo().alert().dismiss();
+		} catch (final NoAlertPresentException ignored) {
+			/*
+				There was no alert to dismiss
+			 */
+		}
+
+		final List<String> handles = new ArrayList<>(webDriver.getWindowHandles());
+		for (int i = 1; i < handles.size(); ++i) {
+			webDriver.switchTo().window(handles.get(i)).close();
+		}
+		webDriver.switchTo().window(handles.get(0));
+		webDriver.switchTo().defaultContent();
+
+		webDriver.manage().deleteAllCookies();
+		if (webDriver instanceof JavascriptExecutor) {
+			((JavascriptExecutor) webDriver).executeScript(CLEAR_STORAGE_SCRIPT);
+		}
+
+		webDriver.get(BLANK_PAGE);
+	}
+
+	private void quit(final WebDriver webDriver) {
+		try {
+			webDriver.quit();
+		} catch (final Exception ignored) {
+			// do nothing and continue closing the other webdrivers
+		}
+	}
+
+	private static long average(final long nanos, final int count) {
+		return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos / count);
+	}
+}
@@ -0,0 +1,51 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.impl.AliasTemplate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tests of the templates that reference aliases
+ */
+public class AliasTemplateTest {
+
+	private static Map<String, String> aliases() {
+		final Map<String, String> aliases = new HashMap<>();
+		aliases.put("firstName", "Alice");
+		aliases.put("id", "42");
+		aliases.put("empty", "");
+		return aliases;
+	}
+
+	@Test
+	public void testPlaceholdersAreReplaced() {
+		final AliasTemplate template = AliasTemplate.compile("/users/${firstName}-${id}?q=1");
+
+		Assert.assertTrue(template.hasPlaceholders());
+		Assert.assertEquals(Arrays.asList("firstName", "id"), template.getAliases());
+		Assert.assertEquals("/users/Alice-42?q=1", template.evaluate(aliases()));
+		Assert.assertEquals("${id}-42", AliasTemplate.compile("$${id}-${id}").evaluate(aliases()));
+		Assert.assertEquals("a42", AliasTemplate.compile("a${empty}${id}").evaluate(aliases()));
+	}
+
+	@Test
+	public void testMissingAliasesAreLeftInPlace() {
+		final AliasTemplate template = AliasTemplate.compile("${firstName} ${lastName}");
+
+		Assert.assertEquals("Alice ${lastName}", template.evaluate(aliases()));
+		Assert.assertEquals(Optional.empty(), template.evaluateStrict(aliases()));
+	}
+
+	@Test
+	public void testIncompletePlaceholdersAreText() {
+		Assert.assertFalse(AliasTemplate.compile("${} and ${id").hasPlaceholders());
+		Assert.assertEquals("${} and ${id", AliasTemplate.compile("${} and ${id").evaluate(aliases()));
+		Assert.assertEquals("${id}", AliasTemplate.compile("$${id}").evaluate(aliases()));
+		Assert.assertFalse(AliasTemplate.mayBeTemplate("#id"));
+	}
+}
@@ -0,0 +1,75 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.DomStabilityUtils;
+import au.com.agic.apptesting.utils.impl.DomStabilityUtilsImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests of the DOM stability service
+ */
+public class DomStabilityUtilsTest {
+
+	private final DomStabilityUtils domStabilityUtils = new DomStabilityUtilsImpl();
+
+	@Test
+	public void testScriptTimeoutIsOnlySetWhenALongerOneIsNeeded() {
+		final AtomicInteger timeoutsSet = new AtomicInteger();
+		final WebDriver webDriver = fakeWebDriver(timeoutsSet);
+
+		domStabilityUtils.waitForStableDom(webDriver, 100, Optional.empty(), 1000);
+		domStabilityUtils.waitForStableDom(webDriver, 100, Optional.empty(), 1000);
+		domStabilityUtils.waitForStableDom(webDriver, 100, Optional.empty(), 500);
+		Assert.assertEquals(1, timeoutsSet.get());
+
+		domStabilityUtils.waitForStableDom(webDriver, 100, Optional.empty(), 2000);
+		Assert.assertEquals(2, timeoutsSet.get());
+
+		domStabilityUtils.waitForStableDom(fakeWebDriver(timeoutsSet), 100, Optional.empty(), 1000);
+		Assert.assertEquals(3, timeoutsSet.get());
+	}
+
+	/**
+	 * @return A WebDriver whose page is always stable, and that counts the script timeouts set on it
+	 */
+	private WebDriver fakeWebDriver(final AtomicInteger timeoutsSet) {
+		final WebDriver.Timeouts timeouts = (WebDriver.Timeouts) Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[]{WebDriver.Timeouts.class},
+			(proxy, method, args) -> {
+				if ("setScriptTimeout".equals(method.getName())) {
+					timeoutsSet.incrementAndGet();
+				}
+				return proxy;
+			});
+
+		final WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[]{WebDriver.Options.class},
+			(proxy, method, args) -> "timeouts".equals(method.getName()) ? timeouts : null);
+
+		return (WebDriver) Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+					case "manage":
+						return options;
+					case "executeAsyncScript":
+						return DomStabilityUtils.Outcome.QUIET.name();
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+				}
+			});
+	}
+}
@@ -0,0 +1,96 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.ElementHandleCache;
+import au.com.agic.apptesting.utils.ElementLocator;
+import au.com.agic.apptesting.utils.GetBy;
+import au.com.agic.apptesting.utils.LocatedElement;
+import au.com.agic.apptesting.utils.impl.ElementHandleCacheImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests of the cache of elements found by the current thread
+ */
+public class ElementHandleCacheTest {
+
+	private final ElementHandleCache cache = new ElementHandleCacheImpl();
+	private final LocatedElement element = new LocatedElement(
+		(WebElement) Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[]{WebElement.class},
+			(proxy, method, args) -> null),
+		GetBy.ID);
+
+	@Test
+	public void testValidElementIsReturned() {
+		final AtomicInteger probes = new AtomicInteger();
+		final WebDriver webDriver = fakeWebDriver(new AtomicReference<>(true), probes);
+
+		Assert.assertFalse(cache.get(webDriver, "username", ElementLocator.Condition.CLICKABLE).isPresent());
+
+		cache.put(webDriver, "username", element);
+		Assert.assertSame(element, cache.get(webDriver, "username", ElementLocator.Condition.CLICKABLE).get());
+		Assert.assertFalse(cache.get(webDriver, "password", ElementLocator.Condition.CLICKABLE).isPresent());
+		Assert.assertEquals(1, probes.get());
+	}
+
+	@Test
+	public void testInvalidElementsAreRemoved() {
+		final AtomicReference<Object> probeResult = new AtomicReference<>(false);
+		final AtomicInteger probes = new AtomicInteger();
+		final WebDriver webDriver = fakeWebDriver(probeResult, probes);
+
+		cache.put(webDriver, "username", element);
+		Assert.assertFalse(cache.get(webDriver, "username", ElementLocator.Condition.VISIBLE).isPresent());
+
+		probeResult.set(true);
+		Assert.assertFalse(cache.get(webDriver, "username", ElementLocator.Condition.VISIBLE).isPresent());
+		Assert.assertEquals(1, probes.get());
+
+		cache.put(webDriver, "username", element);
+		probeResult.set(new StaleElementReferenceException("navigated"));
+		Assert.assertFalse(cache.get(webDriver, "username", ElementLocator.Condition.VISIBLE).isPresent());
+	}
+
+	@Test
+	public void testElementsAreNotSharedBetweenBrowsers() {
+		final WebDriver first = fakeWebDriver(new AtomicReference<>(true), new AtomicInteger());
+		final WebDriver second = fakeWebDriver(new AtomicReference<>(true), new AtomicInteger());
+
+		cache.put(first, "username", element);
+		Assert.assertFalse(cache.get(second, "username", ElementLocator.Condition.PRESENT).isPresent());
+	}
+
+	/**
+	 * @return A WebDriver that answers scripts with the probe result, or throws it if it is an exception
+	 */
+	private WebDriver fakeWebDriver(final AtomicReference<Object> probeResult, final AtomicInteger probes) {
+		return (WebDriver) Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+					case "executeScript":
+						probes.incrementAndGet();
+						if (probeResult.get() instanceof RuntimeException) {
+							throw (RuntimeException) probeResult.get();
+						}
+						return probeResult.get();
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+				}
+			});
+	}
+}
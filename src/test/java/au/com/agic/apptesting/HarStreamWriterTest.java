@@ -0,0 +1,70 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.HarStreamWriter;
+import au.com.agic.apptesting.utils.impl.HarStreamWriterImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.lightbody.bmp.core.har.HarEntry;
+import net.lightbody.bmp.core.har.HarRequest;
+import net.lightbody.bmp.core.har.HarResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Tests of the streaming HAR writer
+ */
+public class HarStreamWriterTest {
+
+	@Test
+	public void testSnapshotAndCloseWriteCompleteHarFiles() throws IOException {
+		final File file = File.createTempFile("stream", ".har");
+		final File snapshot = File.createTempFile("snapshot", ".har");
+
+		try {
+			final HarStreamWriter writer = new HarStreamWriterImpl(file, 10);
+
+			try {
+				for (int i = 0; i < 5; ++i) {
+					Assert.assertTrue(writer.write(createEntry("http://localhost/" + i)));
+				}
+
+				writer.snapshot(snapshot);
+				Assert.assertEquals(5, readEntries(snapshot).size());
+
+				writer.write(createEntry("http://localhost/after"));
+			} finally {
+				writer.close();
+			}
+
+			final JsonNode entries = readEntries(file);
+			Assert.assertEquals(6, entries.size());
+			Assert.assertEquals("http://localhost/after", entries.get(5).get("request").get("url").asText());
+			Assert.assertEquals(0, writer.getDroppedCount());
+
+			/*
+				Entries written after the file is closed are dropped
+			 */
+			Assert.assertFalse(writer.write(createEntry("http://localhost/closed")));
+			Assert.assertEquals(1, writer.getDroppedCount());
+		} finally {
+			file.delete();
+			snapshot.delete();
+		}
+	}
+
+	private HarEntry createEntry(final String url) {
+		final HarEntry entry = new HarEntry();
+		entry.setStartedDateTime(new Date());
+		entry.setRequest(new HarRequest("GET", url, "HTTP/1.1"));
+		entry.setResponse(new HarResponse(200, "OK", "HTTP/1.1"));
+		return entry;
+	}
+
+	private JsonNode readEntries(final File file) throws IOException {
+		return new ObjectMapper().readTree(file).get("log").get("entries");
+	}
+}
@@ -0,0 +1,44 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.HttpErrorRecord;
+import au.com.agic.apptesting.utils.HttpErrorTracker;
+import au.com.agic.apptesting.utils.impl.HttpErrorTrackerImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Tests of the HTTP error tracker
+ */
+public class HttpErrorTrackerTest {
+
+	@Test
+	public void testOnlyRecentErrorsAreKept() {
+		final HttpErrorTracker tracker = new HttpErrorTrackerImpl(Optional.empty(), 3, Optional.empty());
+
+		for (int i = 0; i < 5; ++i) {
+			tracker.record("http://localhost/" + i, 500);
+		}
+
+		final List<HttpErrorRecord> errors = tracker.getErrors("CucumberThread1");
+		Assert.assertEquals(5, tracker.getErrorCount("CucumberThread1"));
+		Assert.assertEquals(3, errors.size());
+		Assert.assertEquals("http://localhost/2", errors.get(0).getUrl());
+		Assert.assertEquals("http://localhost/4", errors.get(2).getUrl());
+	}
+
+	@Test
+	public void testErrorsAreOnlyVisibleToTheOwner() {
+		final HttpErrorTracker tracker =
+			new HttpErrorTrackerImpl(Optional.of("CucumberThread1"), 10, Optional.empty());
+
+		tracker.record("http://localhost/", 404);
+
+		Assert.assertEquals(1, tracker.getErrors("CucumberThread1").size());
+		Assert.assertEquals(Optional.of("CucumberThread1"), tracker.getErrors("CucumberThread1").get(0).getOwner());
+		Assert.assertEquals(0, tracker.getErrorCount("CucumberThread2"));
+		Assert.assertTrue(tracker.getErrors("CucumberThread2").isEmpty());
+	}
+}
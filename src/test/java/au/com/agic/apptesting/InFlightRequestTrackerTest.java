@@ -0,0 +1,111 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.impl.InFlightRequestTracker;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.junit.Assert;
+import org.junit.Test;
+import org.littleshoot.proxy.HttpFilters;
+
+import java.util.Arrays;
+
+/**
+ * Tests of the tracker used to wait for the network to be idle
+ */
+public class InFlightRequestTrackerTest {
+
+	@Test
+	public void testRequestsAreCounted() {
+		final InFlightRequestTracker tracker = new InFlightRequestTracker(Arrays.asList(), 10000);
+		final Object first = new Object();
+		final Object second = new Object();
+
+		Assert.assertTrue(tracker.requestStarted(first, "http://example.org/"));
+		Assert.assertTrue(tracker.requestStarted(second, "http://example.org/api"));
+		Assert.assertEquals(2, tracker.getInFlightCount());
+		Assert.assertFalse(tracker.isIdle(0));
+
+		tracker.requestFinished(first);
+		tracker.requestFinished(first);
+		Assert.assertEquals(1, tracker.getInFlightCount());
+
+		tracker.requestFinished(second);
+		Assert.assertEquals(0, tracker.getInFlightCount());
+		Assert.assertTrue(tracker.isIdle(0));
+	}
+
+	@Test
+	public void testIgnoredUrlsAreNotCounted() {
+		final InFlightRequestTracker tracker =
+			new InFlightRequestTracker(Arrays.asList("https://example\\.org/poll.*"), 10000);
+
+		Assert.assertFalse(tracker.requestStarted(new Object(), "https://example.org/poll?id=1"));
+		Assert.assertEquals(0, tracker.getInFlightCount());
+	}
+
+	@Test
+	public void testIdleTimeStartsAfterLastRequest() throws InterruptedException {
+		final InFlightRequestTracker tracker = new InFlightRequestTracker(Arrays.asList(), 10000);
+		final Object request = new Object();
+
+		tracker.requestStarted(request, "http://example.org/");
+		tracker.requestFinished(request);
+		Assert.assertFalse(tracker.isIdle(10000));
+
+		Thread.sleep(50);
+		Assert.assertTrue(tracker.isIdle(20));
+	}
+
+	@Test
+	public void testAbandonedRequestsAreForgotten() throws InterruptedException {
+		final InFlightRequestTracker tracker = new InFlightRequestTracker(Arrays.asList(), 20);
+
+		tracker.requestStarted(new Object(), "http://example.org/");
+		Assert.assertEquals(1, tracker.getInFlightCount());
+
+		Thread.sleep(50);
+		Assert.assertEquals(0, tracker.getInFlightCount());
+	}
+
+	@Test
+	public void testRequestsAbortedByTheBrowserAreFinished() {
+		final InFlightRequestTracker tracker = new InFlightRequestTracker(Arrays.asList(), 10000);
+		final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+		final HttpRequest request =
+			new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "http://example.org/api");
+
+		final HttpFilters filters = tracker.filterRequest(request, channel.pipeline().firstContext());
+		filters.clientToProxyRequest(request);
+		Assert.assertEquals(1, tracker.getInFlightCount());
+
+		channel.close();
+		Assert.assertEquals(0, tracker.getInFlightCount());
+	}
+
+	@Test
+	public void testOnlyTheCurrentRequestOfAConnectionIsFinishedWhenItCloses() {
+		final InFlightRequestTracker tracker = new InFlightRequestTracker(Arrays.asList(), 10000);
+		final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+		final HttpRequest first =
+			new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "http://example.org/first");
+		final HttpRequest second =
+			new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "http://example.org/second");
+
+		final HttpFilters firstFilters = tracker.filterRequest(first, channel.pipeline().firstContext());
+		firstFilters.clientToProxyRequest(first);
+		firstFilters.proxyToClientResponse(LastHttpContent.EMPTY_LAST_CONTENT);
+		Assert.assertEquals(0, tracker.getInFlightCount());
+
+		final HttpFilters secondFilters = tracker.filterRequest(second, channel.pipeline().firstContext());
+		secondFilters.clientToProxyRequest(second);
+		Assert.assertEquals(1, tracker.getInFlightCount());
+
+		channel.close();
+		Assert.assertEquals(0, tracker.getInFlightCount());
+	}
+}
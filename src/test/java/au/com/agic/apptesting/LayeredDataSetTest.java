@@ -0,0 +1,70 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.impl.FeatureStateImpl;
+import au.com.agic.apptesting.utils.impl.LayeredDataSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests of the data set shared between feature states
+ */
+public class LayeredDataSetTest {
+
+	private static Map<String, String> base() {
+		final Map<String, String> base = new HashMap<>();
+		base.put("username", "alice");
+		base.put("password", "secret");
+		return base;
+	}
+
+	@Test
+	public void testSavedValuesHideBaseValues() {
+		final LayeredDataSet original = LayeredDataSet.of(base());
+		final LayeredDataSet updated = original.with("username", "bob").with("email", "bob@example.org");
+
+		Assert.assertEquals("bob", updated.get("username"));
+		Assert.assertEquals("secret", updated.get("password"));
+		Assert.assertEquals("bob@example.org", updated.get("email"));
+		Assert.assertEquals(3, updated.size());
+		Assert.assertEquals(3, updated.entrySet().stream().count());
+
+		final Map<String, String> expected = base();
+		expected.put("username", "bob");
+		expected.put("email", "bob@example.org");
+		Assert.assertEquals(expected, updated);
+	}
+
+	@Test
+	public void testUpdatesLeaveTheOriginalUnchanged() {
+		final LayeredDataSet original = LayeredDataSet.of(base());
+		original.with("username", "bob");
+
+		Assert.assertEquals("alice", original.get("username"));
+		Assert.assertFalse(original.containsKey("email"));
+		Assert.assertEquals(base(), original);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testDataSetCantBeModified() {
+		LayeredDataSet.of(base()).put("username", "bob");
+	}
+
+	@Test
+	public void testFeatureStatesShareTheBase() {
+		final LayeredDataSet shared = LayeredDataSet.of(base());
+		final FeatureStateImpl first = new FeatureStateImpl(null, shared, "", new ArrayList<>());
+		final FeatureStateImpl second = new FeatureStateImpl(null, shared, "", new ArrayList<>());
+
+		final Map<String, String> before = first.getDataSet();
+		first.putDataSetValue("username", "bob");
+
+		Assert.assertEquals("bob", first.getDataSet().get("username"));
+		Assert.assertEquals("alice", second.getDataSet().get("username"));
+		Assert.assertEquals("alice", before.get("username"));
+		Assert.assertSame(second.getDataSet(), second.getDataSet());
+	}
+}
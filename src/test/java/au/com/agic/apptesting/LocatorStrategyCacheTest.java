@@ -0,0 +1,99 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.ElementLocator;
+import au.com.agic.apptesting.utils.ElementSelector;
+import au.com.agic.apptesting.utils.GetBy;
+import au.com.agic.apptesting.utils.LocatorStrategyCache;
+import au.com.agic.apptesting.utils.impl.LocatorStrategyCacheImpl;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Tests of the locator strategy cache and the location method prefixes
+ */
+public class LocatorStrategyCacheTest {
+
+	@Test
+	public void testPrefixesSelectOneStrategy() {
+		final ElementSelector css = ElementSelector.parse("css:#main > a", true);
+		Assert.assertEquals("#main > a", css.getValue());
+		Assert.assertEquals(
+			Collections.singletonList(GetBy.CSS_SELECTOR),
+			css.getStrategies(ElementLocator.DEFAULT_LOCATION_METHODS));
+
+		final ElementSelector xpath = ElementSelector.parse("xpath://a[@id='b']", true);
+		Assert.assertEquals("//a[@id='b']", xpath.getValue());
+		Assert.assertEquals(Optional.of(GetBy.XPATH), xpath.getStrategy());
+	}
+
+	@Test
+	public void testValuesWithoutPrefixesUseEveryStrategy() {
+		for (final String value : new String[]{"submit", "a:hover", "css:", "CSS:.button"}) {
+			final ElementSelector selector = ElementSelector.parse(value, true);
+			Assert.assertEquals(value, selector.getValue());
+			Assert.assertEquals(
+				ElementLocator.DEFAULT_LOCATION_METHODS,
+				selector.getStrategies(ElementLocator.DEFAULT_LOCATION_METHODS));
+		}
+	}
+
+	@Test
+	public void testPrefixesAreOnlyReadWhenEnabled() {
+		final ElementSelector selector = ElementSelector.parse("name: John", false);
+		Assert.assertEquals("name: John", selector.getValue());
+		Assert.assertFalse(selector.getStrategy().isPresent());
+	}
+
+	@Test
+	public void testEscapedPrefixesArePartOfTheValue() {
+		final ElementSelector escaped = ElementSelector.parse("\\name: John", true);
+		Assert.assertEquals("name: John", escaped.getValue());
+		Assert.assertFalse(escaped.getStrategy().isPresent());
+
+		final ElementSelector css = ElementSelector.parse("\\31 a", true);
+		Assert.assertEquals("\\31 a", css.getValue());
+	}
+
+	@Test
+	public void testRecordedStrategyIsTriedFirst() {
+		final LocatorStrategyCache cache = new LocatorStrategyCacheImpl(Optional.empty());
+		Assert.assertEquals(
+			ElementLocator.DEFAULT_LOCATION_METHODS,
+			cache.getStrategies("//a", ElementLocator.DEFAULT_LOCATION_METHODS));
+
+		cache.recordStrategy("//a", GetBy.XPATH);
+		cache.recordStrategy("//a", GetBy.XPATH);
+
+		Assert.assertEquals(GetBy.XPATH, cache.getStrategies("//a", ElementLocator.DEFAULT_LOCATION_METHODS).get(0));
+		Assert.assertEquals(
+			ElementLocator.DEFAULT_LOCATION_METHODS.size(),
+			cache.getStrategies("//a", ElementLocator.DEFAULT_LOCATION_METHODS).size());
+		Assert.assertTrue(cache.getStatistics().contains("hit rate 50% (1 of 2)"));
+	}
+
+	@Test
+	public void testCacheIsSavedAndLoaded() throws IOException {
+		final File directory = Files.createTempDirectory("locatorcache").toFile();
+		try {
+			final File file = new File(directory, "cache.json");
+
+			final LocatorStrategyCache first = new LocatorStrategyCacheImpl(Optional.of(file));
+			first.recordStrategy("Sign in", GetBy.TEXT);
+			first.save();
+
+			final LocatorStrategyCache second = new LocatorStrategyCacheImpl(Optional.of(file));
+			Assert.assertEquals(
+				GetBy.TEXT,
+				second.getStrategies("Sign in", ElementLocator.DEFAULT_LOCATION_METHODS).get(0));
+		} finally {
+			FileUtils.deleteQuietly(directory);
+		}
+	}
+}
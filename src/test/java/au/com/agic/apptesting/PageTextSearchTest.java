@@ -0,0 +1,44 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.impl.PageTextSearchImpl;
+import io.vavr.Tuple;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+/**
+ * Tests of the translation of Java regular expressions for searching in the browser
+ */
+public class PageTextSearchTest {
+
+	@Test
+	public void testCompatibleExpressionsAreUnchanged() {
+		Assert.assertEquals(
+			Optional.of(Tuple.of("Total: \\$\\d+(?:\\.\\d{2})?", "")),
+			PageTextSearchImpl.toJavaScript("Total: \\$\\d+(?:\\.\\d{2})?"));
+		Assert.assertEquals(
+			Optional.of(Tuple.of("(?<name>\\w+) (?=said)", "")),
+			PageTextSearchImpl.toJavaScript("(?<name>\\w+) (?=said)"));
+	}
+
+	@Test
+	public void testLeadingFlagsAreConverted() {
+		Assert.assertEquals(
+			Optional.of(Tuple.of("hello world", "i")),
+			PageTextSearchImpl.toJavaScript("(?i)hello world"));
+	}
+
+	@Test
+	public void testJavaOnlyExpressionsAreNotConverted() {
+		Assert.assertFalse(PageTextSearchImpl.toJavaScript("(?s)hello.world").isPresent());
+		Assert.assertFalse(PageTextSearchImpl.toJavaScript("hello (?i)world").isPresent());
+		Assert.assertFalse(PageTextSearchImpl.toJavaScript("(?<=\\$)\\d+").isPresent());
+		Assert.assertFalse(PageTextSearchImpl.toJavaScript("\\d++").isPresent());
+		Assert.assertFalse(PageTextSearchImpl.toJavaScript("(?>a|ab)c").isPresent());
+		Assert.assertFalse(PageTextSearchImpl.toJavaScript("[a-z&&[^aeiou]]").isPresent());
+		Assert.assertFalse(PageTextSearchImpl.toJavaScript("\\Qa.b\\E").isPresent());
+		Assert.assertFalse(PageTextSearchImpl.toJavaScript("\\p{Lu}").isPresent());
+		Assert.assertFalse(PageTextSearchImpl.toJavaScript("\\Aheader").isPresent());
+	}
+}
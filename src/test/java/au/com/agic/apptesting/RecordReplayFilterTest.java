@@ -0,0 +1,66 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.constants.Constants;
+import au.com.agic.apptesting.utils.ProxyDetails;
+import au.com.agic.apptesting.utils.impl.BrowsermobProxyUtilsImpl;
+import au.com.agic.apptesting.utils.impl.RecordReplayFilter;
+import au.com.agic.apptesting.utils.impl.UrlAccessFilter;
+import com.google.common.io.Files;
+import net.lightbody.bmp.BrowserMobProxy;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Tests of the record and replay filter running in the BrowserMob proxy
+ */
+public class RecordReplayFilterTest {
+	private static final int BLOCKED_RESPONSE = 403;
+
+	@Test
+	public void testBlockedRequestsAreNotReplayed() throws IOException {
+		final File directory = Files.createTempDir();
+		System.setProperty(Constants.PROXY_RECORD_REPLAY, "replay");
+		System.setProperty(Constants.PROXY_RECORDING_DIRECTORY, directory.getAbsolutePath());
+
+		try {
+			final ProxyDetails<BrowserMobProxy> proxyDetails = new BrowsermobProxyUtilsImpl()
+				.initProxy(new ArrayList<>(), new ArrayList<>(), Optional.empty())
+				.get();
+
+			try {
+				((UrlAccessFilter) proxyDetails.getProperties().get(BrowsermobProxyUtilsImpl.URL_ACCESS))
+					.block("CucumberThread1", Collections.singletonList(".*/blocked\\.js"), BLOCKED_RESPONSE,
+						Optional.empty());
+
+				final HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost/blocked.js")
+					.openConnection(new Proxy(
+						Proxy.Type.HTTP,
+						new InetSocketAddress("localhost", proxyDetails.getPort())));
+
+				Assert.assertEquals(BLOCKED_RESPONSE, connection.getResponseCode());
+				connection.disconnect();
+
+				final RecordReplayFilter filter =
+					(RecordReplayFilter) proxyDetails.getProperties().get(BrowsermobProxyUtilsImpl.RECORD_REPLAY);
+				Assert.assertTrue(filter.getUnmatchedRequests().isEmpty());
+			} finally {
+				proxyDetails.getInterface().ifPresent(BrowserMobProxy::abort);
+			}
+		} finally {
+			System.clearProperty(Constants.PROXY_RECORD_REPLAY);
+			System.clearProperty(Constants.PROXY_RECORDING_DIRECTORY);
+			FileUtils.deleteQuietly(directory);
+		}
+	}
+}
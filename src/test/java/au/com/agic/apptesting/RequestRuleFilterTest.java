@@ -0,0 +1,60 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.impl.RequestRuleFilter;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+/**
+ * Tests of the request rule filter
+ */
+public class RequestRuleFilterTest {
+
+	@Test
+	public void testRulesWithTheSameKeyAreReplaced() {
+		final RequestRuleFilter filter = new RequestRuleFilter(Optional.empty());
+
+		filter.putRule("CucumberThread1", "header:test", (request, messageInfo) ->
+			request.headers().set("Test", "first"));
+		filter.putRule("CucumberThread1", "header:test", (request, messageInfo) ->
+			request.headers().set("Test", "second"));
+		filter.putRule("CucumberThread2", "header:other", (request, messageInfo) ->
+			request.headers().set("Other", "value"));
+
+		final HttpRequest request = createRequest();
+		filter.filterRequest(request, null, null);
+		Assert.assertEquals("second", request.headers().get("Test"));
+		Assert.assertEquals("value", request.headers().get("Other"));
+
+		filter.clearRules("CucumberThread1");
+
+		final HttpRequest clearedRequest = createRequest();
+		filter.filterRequest(clearedRequest, null, null);
+		Assert.assertNull(clearedRequest.headers().get("Test"));
+		Assert.assertEquals("value", clearedRequest.headers().get("Other"));
+	}
+
+	@Test
+	public void testOnlyTheOwnersRulesAreApplied() {
+		final RequestRuleFilter filter = new RequestRuleFilter(Optional.of("CucumberThread1"));
+
+		filter.putRule("CucumberThread1", "header:test", (request, messageInfo) ->
+			request.headers().set("Test", "value"));
+		filter.putRule("CucumberThread2", "header:other", (request, messageInfo) ->
+			request.headers().set("Other", "value"));
+
+		final HttpRequest request = createRequest();
+		filter.filterRequest(request, null, null);
+		Assert.assertEquals("value", request.headers().get("Test"));
+		Assert.assertNull(request.headers().get("Other"));
+	}
+
+	private HttpRequest createRequest() {
+		return new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "http://localhost/");
+	}
+}
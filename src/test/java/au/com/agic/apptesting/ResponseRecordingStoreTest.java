@@ -0,0 +1,56 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.ResponseRecordingStore;
+import au.com.agic.apptesting.utils.impl.ResponseRecordingStoreImpl;
+import com.google.common.io.Files;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests of the response recording store
+ */
+public class ResponseRecordingStoreTest {
+	private static final String KEY = "GET http://localhost/api/cart";
+
+	@Test
+	public void testResponsesAreReplayedInOrder() {
+		final File directory = Files.createTempDir();
+
+		try {
+			final ResponseRecordingStore recorder = new ResponseRecordingStoreImpl(directory, true);
+			recorder.save(KEY, KEY, createResponse("empty"));
+			recorder.save(KEY, KEY, createResponse("one item"));
+
+			final ResponseRecordingStore player = new ResponseRecordingStoreImpl(directory, false);
+			Assert.assertEquals("empty", getBody(player.next(KEY).get()));
+			Assert.assertEquals("one item", getBody(player.next(KEY).get()));
+			Assert.assertEquals("one item", getBody(player.next(KEY).get()));
+			Assert.assertEquals("text/plain", player.next(KEY).get().headers().get("Content-Type"));
+			Assert.assertFalse(player.next("GET http://localhost/other").isPresent());
+		} finally {
+			FileUtils.deleteQuietly(directory);
+		}
+	}
+
+	private FullHttpResponse createResponse(final String body) {
+		final FullHttpResponse response = new DefaultFullHttpResponse(
+			HttpVersion.HTTP_1_1,
+			HttpResponseStatus.OK,
+			Unpooled.copiedBuffer(body, StandardCharsets.UTF_8));
+		response.headers().set("Content-Type", "text/plain");
+		return response;
+	}
+
+	private String getBody(final FullHttpResponse response) {
+		return response.content().toString(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,61 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.RunScheduler;
+import au.com.agic.apptesting.utils.impl.RunSchedulerImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests of the RunScheduler service
+ */
+public class RunSchedulerTest {
+
+	@Test
+	public void testOutcomesAreCounted() {
+		final RunScheduler runScheduler = new RunSchedulerImpl(2, 0);
+		final AtomicInteger notified = new AtomicInteger();
+
+		try {
+			runScheduler.addCompletionListener(success -> notified.incrementAndGet());
+
+			runScheduler.schedule(() -> true);
+			runScheduler.schedule(() -> false);
+			runScheduler.schedule(() -> {
+				throw new IllegalStateException();
+			});
+			runScheduler.schedule(() -> true);
+
+			Assert.assertEquals(2, runScheduler.awaitCompletion());
+			Assert.assertEquals(4, runScheduler.getCompletedCount());
+			Assert.assertEquals(2, runScheduler.getFailureCount());
+			Assert.assertEquals(4, notified.get());
+		} finally {
+			runScheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void testStartDelayIsNotLinear() {
+		final long delay = 200;
+		final RunScheduler runScheduler = new RunSchedulerImpl(2, delay);
+
+		try {
+			final long start = System.currentTimeMillis();
+
+			for (int i = 0; i < 10; ++i) {
+				runScheduler.schedule(() -> true);
+			}
+
+			Assert.assertEquals(0, runScheduler.awaitCompletion());
+
+			/*
+				Only the second run is offset, so ten runs should not take ten offsets
+			 */
+			Assert.assertTrue(System.currentTimeMillis() - start < delay * 5);
+		} finally {
+			runScheduler.shutdown();
+		}
+	}
+}
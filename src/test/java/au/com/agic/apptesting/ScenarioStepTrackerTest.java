@@ -0,0 +1,48 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.impl.ScenarioStepTracker;
+import gherkin.formatter.model.Match;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.Step;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * Tests of the plugin that tracks the steps of the running scenario
+ */
+public class ScenarioStepTrackerTest {
+
+	private static Step step(final String name) {
+		return new Step(new ArrayList<>(), "When ", name, 1, null, null);
+	}
+
+	private static Scenario scenario() {
+		return new Scenario(new ArrayList<>(), new ArrayList<>(), "Scenario", "Test", "", 1, "test");
+	}
+
+	@Test
+	public void testNextStepFollowsTheRunningStep() {
+		final ScenarioStepTracker tracker = new ScenarioStepTracker();
+		tracker.startOfScenarioLifeCycle(scenario());
+		tracker.step(step("I click the element found by \"login\""));
+		tracker.step(step("I populate the element found by \"username\" with \"alice\""));
+
+		Assert.assertEquals(-1, ScenarioStepTracker.getCurrentStep());
+
+		tracker.match(new Match(new ArrayList<>(), "location"));
+		Assert.assertEquals(0, ScenarioStepTracker.getCurrentStep());
+		Assert.assertEquals(
+			Optional.of("I populate the element found by \"username\" with \"alice\""),
+			ScenarioStepTracker.getNextStep());
+
+		tracker.match(new Match(new ArrayList<>(), "location"));
+		Assert.assertEquals(Optional.empty(), ScenarioStepTracker.getNextStep());
+
+		tracker.endOfScenarioLifeCycle(scenario());
+		Assert.assertEquals(-1, ScenarioStepTracker.getCurrentStep());
+		Assert.assertEquals(Optional.empty(), ScenarioStepTracker.getNextStep());
+	}
+}
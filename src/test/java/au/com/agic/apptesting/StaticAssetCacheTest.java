@@ -0,0 +1,173 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.StaticAssetCache;
+import au.com.agic.apptesting.utils.impl.StaticAssetCacheFilter;
+import au.com.agic.apptesting.utils.impl.StaticAssetCacheImpl;
+import com.google.common.io.Files;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import net.lightbody.bmp.util.HttpMessageInfo;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Tests of the static asset cache
+ */
+public class StaticAssetCacheTest {
+	private static final String URL = "http://localhost/app.js";
+
+	@Test
+	public void testCacheableResponsesAreReturned() {
+		final StaticAssetCache cache = new StaticAssetCacheImpl(1024 * 1024, Optional.empty(), 1);
+
+		cache.put(createRequest(), URL, createResponse("public, max-age=60", "script"));
+
+		final Optional<FullHttpResponse> cached = cache.get(createRequest(), URL);
+		Assert.assertTrue(cached.isPresent());
+		Assert.assertEquals("script", cached.get().content().toString(StandardCharsets.UTF_8));
+		Assert.assertEquals("6", cached.get().headers().get("Content-Length"));
+	}
+
+	@Test
+	public void testUncacheableResponsesAreNotReturned() {
+		final StaticAssetCache cache = new StaticAssetCacheImpl(1024 * 1024, Optional.empty(), 1);
+
+		cache.put(createRequest(), URL, createResponse("no-store", "script"));
+		cache.put(createRequest(), "http://localhost/noexpiry.js", createResponse(null, "script"));
+
+		Assert.assertFalse(cache.get(createRequest(), URL).isPresent());
+		Assert.assertFalse(cache.get(createRequest(), "http://localhost/noexpiry.js").isPresent());
+	}
+
+	@Test
+	public void testVaryHeadersArePartOfTheKey() {
+		final StaticAssetCache cache = new StaticAssetCacheImpl(1024 * 1024, Optional.empty(), 1);
+
+		final HttpRequest gzipRequest = createRequest();
+		gzipRequest.headers().set("Accept-Encoding", "gzip");
+		final FullHttpResponse response = createResponse("max-age=60", "compressed");
+		response.headers().set("Vary", "Accept-Encoding");
+		cache.put(gzipRequest, URL, response);
+
+		Assert.assertTrue(cache.get(gzipRequest, URL).isPresent());
+		Assert.assertFalse(cache.get(createRequest(), URL).isPresent());
+	}
+
+	@Test
+	public void testEvictedResponsesAreReadFromDisk() throws IOException, InterruptedException {
+		final File directory = Files.createTempDir();
+
+		try {
+			final StaticAssetCache cache = new StaticAssetCacheImpl(10, Optional.of(directory), 1024 * 1024);
+
+			cache.put(createRequest(), URL, createResponse("max-age=60", "larger than the memory limit"));
+
+			Optional<FullHttpResponse> cached = Optional.empty();
+			for (int i = 0; i < 100 && !cached.isPresent(); ++i) {
+				Thread.sleep(10);
+				cached = cache.get(createRequest(), URL);
+			}
+
+			Assert.assertTrue(cached.isPresent());
+			Assert.assertEquals(
+				"larger than the memory limit",
+				cached.get().content().toString(StandardCharsets.UTF_8));
+
+			cache.clear();
+		} finally {
+			FileUtils.deleteQuietly(directory);
+		}
+	}
+
+	@Test
+	public void testRespillingAResponseKeepsEarlierCopiesIntact() throws IOException, InterruptedException {
+		final File directory = Files.createTempDir();
+
+		try {
+			final StaticAssetCache cache = new StaticAssetCacheImpl(10, Optional.of(directory), 1024 * 1024);
+
+			cache.put(createRequest(), URL, createResponse("max-age=60", "the first version of the script"));
+			final FullHttpResponse first = waitForBody(cache, "the first version of the script");
+
+			/*
+				A request that skips the cache gets a new response, which is spilled while the
+				first copy is still being read
+			 */
+			cache.put(createRequest(), URL, createResponse("max-age=60", "the second version"));
+			waitForBody(cache, "the second version");
+
+			Assert.assertEquals(
+				"the first version of the script",
+				first.content().toString(StandardCharsets.UTF_8));
+
+			cache.clear();
+		} finally {
+			FileUtils.deleteQuietly(directory);
+		}
+	}
+
+	@Test
+	public void testFilterUsesTheModifiedRequest() {
+		final StaticAssetCache cache = new StaticAssetCacheImpl(1024 * 1024, Optional.empty(), 1);
+		final StaticAssetCacheFilter filter = new StaticAssetCacheFilter(cache);
+
+		/*
+			A request rule adds credentials to the request after the browser sent it
+		 */
+		final HttpRequest originalRequest = createRequest();
+		final HttpRequest authorizedRequest = createRequest();
+		authorizedRequest.headers().set("Authorization", "Basic dXNlcjpwYXNz");
+		final HttpMessageInfo authorizedInfo = new HttpMessageInfo(originalRequest, null, false, URL, URL);
+
+		Assert.assertNull(filter.filterRequest(authorizedRequest, null, authorizedInfo));
+		filter.filterResponse(createResponse("public, max-age=60", "private script"), null, authorizedInfo);
+		Assert.assertFalse(cache.get(createRequest(), URL).isPresent());
+
+		final HttpRequest publicRequest = createRequest();
+		final HttpMessageInfo publicInfo = new HttpMessageInfo(publicRequest, null, false, URL, URL);
+
+		Assert.assertNull(filter.filterRequest(publicRequest, null, publicInfo));
+		filter.filterResponse(createResponse("public, max-age=60", "script"), null, publicInfo);
+		Assert.assertTrue(cache.get(createRequest(), URL).isPresent());
+	}
+
+	private FullHttpResponse waitForBody(final StaticAssetCache cache, final String body)
+			throws InterruptedException {
+		for (int i = 0; i < 100; ++i) {
+			final Optional<FullHttpResponse> cached = cache.get(createRequest(), URL);
+			if (cached.isPresent() && body.equals(cached.get().content().toString(StandardCharsets.UTF_8))) {
+				return cached.get();
+			}
+			Thread.sleep(10);
+		}
+
+		throw new AssertionError("The cache never returned " + body);
+	}
+
+	private HttpRequest createRequest() {
+		return new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, URL);
+	}
+
+	private FullHttpResponse createResponse(final String cacheControl, final String body) {
+		final FullHttpResponse response = new DefaultFullHttpResponse(
+			HttpVersion.HTTP_1_1,
+			HttpResponseStatus.OK,
+			Unpooled.copiedBuffer(body, StandardCharsets.UTF_8));
+		if (cacheControl != null) {
+			response.headers().set("Cache-Control", cacheControl);
+		}
+		return response;
+	}
+}
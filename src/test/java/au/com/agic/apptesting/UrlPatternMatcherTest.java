@@ -0,0 +1,53 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.impl.UrlPatternMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests of the combined URL matcher
+ */
+public class UrlPatternMatcherTest {
+
+	@Test
+	public void testMatchesLikeIndividualRegexes() {
+		final UrlPatternMatcher matcher = UrlPatternMatcher.compile(Arrays.asList(
+			"https://example\\.org/exact",
+			"https://ads\\.example\\.org/.*",
+			"https://ads\\.example\\.org/banners/.*",
+			"https://a\\.example\\.org/.*",
+			".*google-analytics\\.com.*",
+			"https?://(www\\.)?tracker\\.net/.*"));
+
+		Assert.assertTrue(matcher.matches("https://example.org/exact"));
+		Assert.assertFalse(matcher.matches("https://example.org/exact/not"));
+		Assert.assertTrue(matcher.matches("https://ads.example.org/banners/1.png"));
+		Assert.assertTrue(matcher.matches("https://ads.example.org/other"));
+		Assert.assertTrue(matcher.matches("https://a.example.org/script.js"));
+		Assert.assertFalse(matcher.matches("https://b.example.org/script.js"));
+		Assert.assertTrue(matcher.matches("https://www.google-analytics.com/analytics.js"));
+		Assert.assertTrue(matcher.matches("http://www.tracker.net/pixel"));
+		Assert.assertFalse(matcher.matches("https://example.org/"));
+	}
+
+	@Test
+	public void testBackReferencesAreSupported() {
+		final UrlPatternMatcher matcher = UrlPatternMatcher.compile(Arrays.asList(
+			"https://(a+)\\.example\\.org/\\1",
+			"https://(b+)\\.example\\.org/\\1"));
+
+		Assert.assertTrue(matcher.matches("https://bb.example.org/bb"));
+		Assert.assertFalse(matcher.matches("https://bb.example.org/b"));
+	}
+
+	@Test
+	public void testEmptyMatcherMatchesNothing() {
+		final UrlPatternMatcher matcher = UrlPatternMatcher.compile(Collections.emptyList());
+
+		Assert.assertTrue(matcher.isEmpty());
+		Assert.assertFalse(matcher.matches("https://example.org/"));
+	}
+}
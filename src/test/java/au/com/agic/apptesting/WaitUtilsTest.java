@@ -0,0 +1,75 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.WaitResult;
+import au.com.agic.apptesting.utils.WaitUtils;
+import au.com.agic.apptesting.utils.impl.WaitUtilsImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests of the WaitUtils service
+ */
+public class WaitUtilsTest {
+	private static final WaitUtils WAIT_UTILS = new WaitUtilsImpl();
+
+	@Test
+	public void testImmediateSuccessDoesNotSleep() {
+		final WaitResult<String> result = WAIT_UTILS.waitFor(10000, () -> Optional.of("found"));
+
+		Assert.assertTrue(result.isSuccessful());
+		Assert.assertEquals("found", result.getValue().get());
+		Assert.assertEquals(1, result.getAttempts());
+		Assert.assertTrue(result.getElapsedMillis() < 1000);
+	}
+
+	@Test
+	public void testSlowConditionsCountTowardsTheDeadline() {
+		/*
+			Each check takes longer than the whole wait, so only the first check is made
+		 */
+		final WaitResult<Boolean> result = WAIT_UTILS.waitUntil(100, () -> {
+			try {
+				Thread.sleep(300);
+			} catch (final InterruptedException ignored) {
+				// ignored
+			}
+			return false;
+		});
+
+		Assert.assertFalse(result.isSuccessful());
+		Assert.assertEquals(1, result.getAttempts());
+		Assert.assertTrue(result.getElapsedMillis() >= 300);
+		Assert.assertTrue(result.getElapsedMillis() < 1000);
+	}
+
+	@Test
+	public void testPollingBacksOff() {
+		final AtomicInteger count = new AtomicInteger();
+		final WaitResult<Boolean> result = WAIT_UTILS.waitUntil(1000, () -> {
+			count.incrementAndGet();
+			return false;
+		});
+
+		Assert.assertFalse(result.isSuccessful());
+		Assert.assertEquals(count.get(), result.getAttempts());
+		Assert.assertTrue(result.getElapsedMillis() >= 1000);
+		/*
+			A fixed 20ms poll would make 50 attempts in a second
+		 */
+		Assert.assertTrue(result.getAttempts() < 20);
+	}
+
+	@Test
+	public void testConditionIsMetWhileWaiting() {
+		final long start = System.nanoTime();
+		final WaitResult<Boolean> result = WAIT_UTILS.waitUntil(5000, () ->
+			System.nanoTime() - start > 200_000_000L);
+
+		Assert.assertTrue(result.isSuccessful());
+		Assert.assertTrue(result.getAttempts() > 1);
+		Assert.assertTrue(result.getElapsedMillis() < 5000);
+	}
+}
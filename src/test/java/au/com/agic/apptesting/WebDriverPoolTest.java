@@ -0,0 +1,95 @@
+package au.com.agic.apptesting;
+
+import au.com.agic.apptesting.utils.WebDriverPool;
+import au.com.agic.apptesting.utils.impl.WebDriverPoolImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests of the WebDriverPool service
+ */
+public class WebDriverPoolTest {
+
+	@Test
+	public void testReleasedDriversAreReused() throws InterruptedException {
+		final AtomicInteger created = new AtomicInteger();
+		final AtomicInteger quit = new AtomicInteger();
+		final WebDriverPool pool = new WebDriverPoolImpl(() -> {
+			created.incrementAndGet();
+			return fakeWebDriver(quit);
+		}, 1, 2);
+
+		try {
+			final WebDriver first = pool.acquire();
+			pool.release(first);
+
+			/*
+				Wait for the background reset and warm up to finish
+			 */
+			for (int i = 0; i < 50 && !pool.getStatistics().contains("(1 resets"); ++i) {
+				Thread.sleep(100);
+			}
+
+			final WebDriver second = pool.acquire();
+			final WebDriver third = pool.acquire();
+
+			Assert.assertTrue(pool.getStatistics(), pool.getStatistics().contains("1 resets"));
+			Assert.assertTrue(pool.getStatistics(), pool.getStatistics().contains("(2 of 3)"));
+			Assert.assertNotSame(second, third);
+			Assert.assertEquals(0, quit.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * @return A WebDriver that supports the calls made when a driver is reset
+	 */
+	private WebDriver fakeWebDriver(final AtomicInteger quit) {
+		final Object[] self = new Object[1];
+		final Object targetLocator = Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[]{WebDriver.TargetLocator.class},
+			(proxy, method, args) -> {
+				if ("alert".equals(method.getName())) {
+					throw new NoAlertPresentException();
+				}
+				return self[0];
+			});
+		final Object options = Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[]{WebDriver.Options.class},
+			(proxy, method, args) -> null);
+
+		self[0] = Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[]{WebDriver.class},
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+					case "switchTo":
+						return targetLocator;
+					case "manage":
+						return options;
+					case "getWindowHandles":
+						return Collections.singleton("window");
+					case "quit":
+						quit.incrementAndGet();
+						return null;
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+				}
+			});
+
+		return (WebDriver) self[0];
+	}
+}